@@ -15,6 +15,7 @@ show_usage() {
     echo "  signup              - Run signup tests only"
     echo "  onboarding          - Run onboarding tests only"
     echo "  single              - Run single test (password masking)"
+    echo "  merge               - Merge reports of a sharded run into one"
     echo "  compile             - Compile project only"
     echo "  help                - Show this help"
     echo ""
@@ -23,12 +24,15 @@ show_usage() {
     echo "  BROWSER             - Browser to use (chrome, firefox, edge)"
     echo "  HEADLESS            - Run in headless mode (true/false)"
     echo "  TEST_SUITE          - Specific test suite to run"
+    echo "  SHARD_INDEX         - Shard to run (0-based), with SHARD_COUNT"
+    echo "  SHARD_COUNT         - Number of shards the suite is split into"
     echo ""
     echo "Examples:"
     echo "  docker run hellobooks-qa"
     echo "  docker run hellobooks-qa login"
     echo "  docker run -e BASE_URL=https://staging.hellobooks.ai/ hellobooks-qa"
     echo "  docker run -e HEADLESS=false hellobooks-qa"
+    echo "  docker run -e SHARD_INDEX=0 -e SHARD_COUNT=2 hellobooks-qa"
 }
 
 # Set default values
@@ -66,6 +70,10 @@ case "${1:-test}" in
         TEST_ARGS="compile"
         echo "Compiling project only..."
         ;;
+    "merge")
+        TEST_ARGS="-q process-test-resources exec:java"
+        echo "Merging shard reports..."
+        ;;
     "help"|"-h"|"--help")
         show_usage
         exit 0
@@ -85,6 +93,20 @@ if [ -n "$TEST_SUITE" ]; then
     SYSTEM_PROPS="$SYSTEM_PROPS -Dtest=$TEST_SUITE"
 fi
 
+# Run one shard; each shard writes its reports and measured durations to its own files for the
+# merge step. The shared duration history is only read by the shards (so they all plan from the
+# same snapshot) and is updated by the merge step.
+SHARD_COUNT=${SHARD_COUNT:-"1"}
+if [ "$SHARD_COUNT" -gt 1 ] || [ "${1:-test}" = "merge" ]; then
+    SYSTEM_PROPS="$SYSTEM_PROPS -Dschedule.durations.file=target/shards/test-durations.json"
+fi
+if [ "$SHARD_COUNT" -gt 1 ] && [ "${1:-test}" != "merge" ]; then
+    SHARD_INDEX=${SHARD_INDEX:-"0"}
+    SYSTEM_PROPS="$SYSTEM_PROPS -Dshard.index=${SHARD_INDEX} -Dshard.count=${SHARD_COUNT}"
+    SYSTEM_PROPS="$SYSTEM_PROPS -Dreport.path=target/reports/shard-${SHARD_INDEX}"
+    SYSTEM_PROPS="$SYSTEM_PROPS -Dallure.results.directory=target/allure-results/shard-${SHARD_INDEX}"
+fi
+
 # Construct full command
 FULL_CMD="$MAVEN_CMD $TEST_ARGS $SYSTEM_PROPS"
 
@@ -92,11 +114,14 @@ echo "Configuration:"
 echo "  Base URL: $BASE_URL"
 echo "  Browser: $BROWSER"
 echo "  Headless: $HEADLESS"
+if [ "$SHARD_COUNT" -gt 1 ]; then
+    echo "  Shard: ${SHARD_INDEX:-0} of $SHARD_COUNT"
+fi
 echo "  Command: $FULL_CMD"
 echo ""
 
 # Ensure target directories exist
-mkdir -p target/reports target/screenshots target/logs
+mkdir -p target/reports target/screenshots target/logs target/shards
 
 echo "Starting test execution..."
 echo "========================================"
@@ -1,7 +1,11 @@
 package com.hellobooks.automation.config;
 
+import org.openqa.selenium.PageLoadStrategy;
+
 import java.io.FileInputStream;
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Properties;
 
 /**
@@ -61,6 +65,14 @@ public class ConfigManager {
         }
     }
 
+    public double getDoubleProperty(String key, double defaultValue) {
+        try {
+            return Double.parseDouble(getProperty(key));
+        } catch (NullPointerException | NumberFormatException e) {
+            return defaultValue;
+        }
+    }
+
     public boolean getBooleanProperty(String key) {
         return Boolean.parseBoolean(getProperty(key));
     }
@@ -70,6 +82,19 @@ public class ConfigManager {
         return value != null ? Boolean.parseBoolean(value) : defaultValue;
     }
 
+    public List<String> getListProperty(String key) {
+        List<String> values = new ArrayList<>();
+        String value = getProperty(key);
+        if (value != null) {
+            for (String item : value.split(",")) {
+                if (!item.trim().isEmpty()) {
+                    values.add(item.trim());
+                }
+            }
+        }
+        return values;
+    }
+
     // Specific configuration getters
     public String getBaseUrl() {
         return getProperty("base.url");
@@ -83,8 +108,61 @@ public class ConfigManager {
         return getBooleanProperty("headless", false);
     }
 
+    public boolean isDriverPoolEnabled() {
+        return getBooleanProperty("driver.pool.enabled", false);
+    }
+
+    public int getDriverPoolSize() {
+        return getIntProperty("driver.pool.size", 3);
+    }
+
+    public int getDriverPoolMaxUses() {
+        return getIntProperty("driver.pool.max.uses", 25);
+    }
+
+    public int getDriverPoolCheckoutTimeout() {
+        return getIntProperty("driver.pool.checkout.timeout", 120);
+    }
+
+    public boolean isDriverPoolPrelaunchEnabled() {
+        return getBooleanProperty("driver.pool.prelaunch", true);
+    }
+
+    public int getDriverPoolBackgroundThreads() {
+        return getIntProperty("driver.pool.background.threads", 2);
+    }
+
+    public boolean isChromeContextsEnabled() {
+        return getBooleanProperty("chrome.contexts.enabled", false);
+    }
+
+    public int getChromeContextsPerProcess() {
+        return getIntProperty("chrome.contexts.per.process", 4);
+    }
+
+    public boolean isResourceBlockingEnabled() {
+        return getBooleanProperty("block.resources.enabled", false);
+    }
+
+    public List<String> getBlockedUrlPatterns() {
+        return getListProperty("block.url.patterns");
+    }
+
+    public List<String> getBlockedResourceTypes() {
+        return getListProperty("block.resource.types");
+    }
+
+    public String getDriverManifestPath() {
+        return getProperty("driver.manifest.path",
+                System.getProperty("user.home") + "/.cache/hellobooks-qa/driver-manifest.json");
+    }
+
+    public boolean isDriverResolutionOffline() {
+        return getBooleanProperty("driver.resolution.offline", false);
+    }
+
     public int getImplicitWait() {
-        return getIntProperty("implicit.wait", 10);
+        return getIntProperty("implicit.wait", 0);
     }
 
     public int getExplicitWait() {
@@ -95,6 +173,104 @@ public class ConfigManager {
         return getIntProperty("page.load.timeout", 30);
     }
 
+    public PageLoadStrategy getPageLoadStrategy() {
+        PageLoadStrategy strategy = PageLoadStrategy.fromString(getProperty("page.load.strategy", "normal").toLowerCase());
+        return strategy != null ? strategy : PageLoadStrategy.NORMAL;
+    }
+
+    /**
+     * Readiness mode for a page: "element" waits for the page's ready indicator,
+     * "load" waits for document.readyState complete. Can be overridden per page class.
+     */
+    public String getPageReadinessMode(String pageName) {
+        return getProperty("page.readiness.mode." + pageName, getProperty("page.readiness.mode", "load")).toLowerCase();
+    }
+
+    /**
+     * Wait mechanism for page objects: "poll" (WebDriverWait) or "push" (in-page MutationObserver)
+     */
+    public String getWaitMode() {
+        return getProperty("wait.mode", "poll").toLowerCase();
+    }
+
+    public int getTransitionTimeout() {
+        return getIntProperty("transition.timeout", 5);
+    }
+
+    public boolean isLocatorStatsEnabled() {
+        return getBooleanProperty("locator.stats.enabled", false);
+    }
+
+    public String getLocatorStatsFile() {
+        return getProperty("locator.stats.file", "target/locator-stats.json");
+    }
+
+    public boolean isRoundTripTrackingEnabled() {
+        return getBooleanProperty("roundtrip.tracking.enabled", false);
+    }
+
+    /**
+     * WebDriver command budget for a page-object method such as "LoginPage.login", or -1 if none is declared
+     */
+    public int getRoundTripBudget(String pageMethod) {
+        return getIntProperty("roundtrip.budget." + pageMethod, -1);
+    }
+
+    public String getRoundTripBudgetMode() {
+        return getProperty("roundtrip.budget.mode", "warn").toLowerCase();
+    }
+
+    public boolean isCommandLatencyEnabled() {
+        return getBooleanProperty("command.latency.enabled", false);
+    }
+
+    public String getCommandLatencyMetricsFile() {
+        return getProperty("command.latency.metrics.file", "target/metrics/webdriver-commands.txt");
+    }
+
+    public boolean isTraceEnabled() {
+        return getBooleanProperty("trace.enabled", false);
+    }
+
+    public String getTraceDir() {
+        return getProperty("trace.dir", "target/traces");
+    }
+
+    public boolean isLongestFirstSchedulingEnabled() {
+        return getBooleanProperty("schedule.longest.first", false);
+    }
+
+    public String getTestDurationsFile() {
+        return getProperty("schedule.durations.file", "target/test-durations.json");
+    }
+
+    public int getShardIndex() {
+        return getIntProperty("shard.index", 0);
+    }
+
+    public int getShardCount() {
+        return getIntProperty("shard.count", 1);
+    }
+
+    public String getShardManifestDir() {
+        return getProperty("shard.manifest.dir", "target/shards");
+    }
+
+    public int getOutcomeTimeout() {
+        return getIntProperty("outcome.timeout", 15);
+    }
+
+    public int getOutcomeIdleMillis() {
+        return getIntProperty("outcome.idle.millis", 500);
+    }
+
+    /**
+     * Whether outcome waits count in-flight fetch/XHR requests by wrapping them in every page
+     */
+    public boolean isOutcomeNetworkTrackingEnabled() {
+        return getBooleanProperty("outcome.network.tracking.enabled", false);
+    }
+
     public String getTestEmailDomain() {
         return getProperty("test.email.domain", "@example.com");
     }
@@ -115,10 +291,179 @@ public class ConfigManager {
         return getProperty("otp.mock.value", "123456");
     }
 
+    public boolean isAccountPoolEnabled() {
+        return getBooleanProperty("account.pool.enabled", false);
+    }
+
+    public int getAccountPoolSize() {
+        return getIntProperty("account.pool.size", 5);
+    }
+
+    public int getAccountPoolBatchSize() {
+        return getIntProperty("account.pool.batch.size", 5);
+    }
+
+    public int getAccountPoolLeaseTimeout() {
+        return getIntProperty("account.pool.lease.timeout", 60);
+    }
+
+    public String getAccountProvisioningMode() {
+        return getProperty("account.provisioning.mode", "api");
+    }
+
+    public String getAccountProvisioningApiUrl() {
+        return getProperty("account.provisioning.api.url", "");
+    }
+
+    public String getAccountProvisioningApiKey() {
+        return getProperty("account.provisioning.api.key", "");
+    }
+
+    public int getAccountProvisioningTimeout() {
+        return getIntProperty("account.provisioning.timeout", 30);
+    }
+
+    public boolean isSessionCacheEnabled() {
+        return getBooleanProperty("session.cache.enabled", false);
+    }
+
+    public int getSessionCacheTtlMinutes() {
+        return getIntProperty("session.cache.ttl.minutes", 30);
+    }
+
+    public String getSessionCacheBootstrapPath() {
+        return getProperty("session.cache.bootstrap.path", "/favicon.ico");
+    }
+
+    public boolean isCheckpointsEnabled() {
+        return getBooleanProperty("checkpoints.enabled", false);
+    }
+
+    public String getCheckpointDir() {
+        return getProperty("checkpoint.dir", "target/checkpoints");
+    }
+
+    /**
+     * Whether checkpoints are written to checkpoint.dir; they contain session cookies and tokens
+     */
+    public boolean isCheckpointPersistEnabled() {
+        return getBooleanProperty("checkpoint.persist", false);
+    }
+
+    public int getCheckpointTtlMinutes() {
+        return getIntProperty("checkpoint.ttl.minutes", 60);
+    }
+
+    public String getCheckpointBootstrapPath() {
+        return getProperty("checkpoint.bootstrap.path", "/favicon.ico");
+    }
+
+    /**
+     * Application version used to invalidate checkpoints; empty to detect it from the page
+     */
+    public String getAppVersion() {
+        return getProperty("app.version", "");
+    }
+
     public int getRetryCount() {
         return getIntProperty("retry.count", 2);
     }
 
+    public boolean shouldRetryFailedTests() {
+        return getBooleanProperty("retry.failed.tests", true);
+    }
+
+    /**
+     * Maximum number of retries across the whole suite
+     */
+    public int getRetryBudget() {
+        return getIntProperty("retry.budget", 6);
+    }
+
+    public boolean isPreflightEnabled() {
+        return getBooleanProperty("preflight.enabled", false);
+    }
+
+    /**
+     * Upper bound for all pre-flight checks together
+     */
+    public int getPreflightTimeoutSeconds() {
+        return getIntProperty("preflight.timeout.seconds", 60);
+    }
+
+    /**
+     * Connect and response timeout of the HTTP checks (base URL, OTP source, breaker probe)
+     */
+    public int getPreflightHttpTimeoutSeconds() {
+        return getIntProperty("preflight.http.timeout.seconds", 10);
+    }
+
+    public boolean isCircuitBreakerEnabled() {
+        return getBooleanProperty("circuit.breaker.enabled", false);
+    }
+
+    /**
+     * Consecutive infrastructure failures that open the environment circuit breaker
+     */
+    public int getCircuitBreakerFailureThreshold() {
+        return Math.max(1, getIntProperty("circuit.breaker.failure.threshold", 3));
+    }
+
+    /**
+     * Seconds between base URL probes while the circuit breaker is open
+     */
+    public int getCircuitBreakerCooldownSeconds() {
+        return getIntProperty("circuit.breaker.cooldown.seconds", 60);
+    }
+
+    public boolean isFlakyTrackingEnabled() {
+        return getBooleanProperty("flaky.tracking.enabled", false);
+    }
+
+    public String getFlakyHistoryFile() {
+        return getProperty("flaky.history.file", "target/test-history.jsonl");
+    }
+
+    /**
+     * Number of most recent runs a flakiness score is computed over
+     */
+    public int getFlakyWindowRuns() {
+        return Math.max(1, getIntProperty("flaky.window.runs", 20));
+    }
+
+    public boolean isQuarantineEnabled() {
+        return isFlakyTrackingEnabled() && getBooleanProperty("flaky.quarantine.enabled", true);
+    }
+
+    /**
+     * Flakiness score from which a test runs in the quarantine lane
+     */
+    public double getQuarantineThreshold() {
+        return getDoubleProperty("flaky.quarantine.threshold", 0.3);
+    }
+
+    /**
+     * Runs of history a test needs before it can be quarantined
+     */
+    public int getQuarantineMinRuns() {
+        return getIntProperty("flaky.quarantine.min.runs", 5);
+    }
+
+    public int getQuarantineThreads() {
+        return Math.max(1, getIntProperty("flaky.quarantine.threads", 2));
+    }
+
+    public int getQuarantineTimeoutMinutes() {
+        return getIntProperty("flaky.quarantine.timeout.minutes", 15);
+    }
+
+    /**
+     * Directory of the quarantine lane's own Extent report and Allure results
+     */
+    public String getQuarantineReportDir() {
+        return getProperty("flaky.quarantine.report.dir", "target/quarantine");
+    }
+
     public boolean shouldCaptureScreenshots() {
         return getBooleanProperty("capture.screenshots", true);
     }
@@ -0,0 +1,149 @@
+package com.hellobooks.automation.listeners;
+
+import com.hellobooks.automation.config.ConfigManager;
+import com.hellobooks.automation.utils.EnvironmentHealthCheck;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.testng.SkipException;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Stops the suite from spending its waits and retries on an environment that is down.
+ * After circuit.breaker.failure.threshold consecutive environment failures (connection errors
+ * and page loads that timed out; see {@link RetryPolicy#isEnvironmentError}) or a failed
+ * pre-flight check, the circuit opens and every following test is skipped in its setup, before a
+ * browser is launched, with the reason that opened it.
+ *
+ * An open circuit probes the base URL once per circuit.breaker.cooldown.seconds and closes
+ * again when it answers. A circuit opened because the driver is unavailable stays open.
+ */
+public class EnvironmentCircuitBreaker {
+    private static final Logger logger = LoggerFactory.getLogger(EnvironmentCircuitBreaker.class);
+    private static final ConfigManager config = ConfigManager.getInstance();
+
+    private static final AtomicInteger consecutiveFailures = new AtomicInteger();
+    private static final LongAdder trips = new LongAdder();
+    private static final LongAdder skippedTests = new LongAdder();
+
+    private static volatile String openReason;
+    private static volatile boolean recoverable;
+    private static volatile long lastProbeNanos;
+
+    static {
+        Runtime.getRuntime().addShutdownHook(new Thread(EnvironmentCircuitBreaker::logSummary, "circuit-breaker-summary"));
+    }
+
+    private EnvironmentCircuitBreaker() {
+    }
+
+    /**
+     * Skip the calling test if the circuit is open
+     *
+     * @throws SkipException with the reason the circuit opened
+     */
+    public static void ensureClosed() {
+        if (openReason == null || !config.isCircuitBreakerEnabled()) {
+            return;
+        }
+        if (recoverable) {
+            probe();
+        }
+        String reason = openReason;
+        if (reason != null) {
+            skippedTests.increment();
+            throw new SkipException("Environment circuit breaker open: " + reason);
+        }
+    }
+
+    public static boolean isOpen() {
+        return openReason != null && config.isCircuitBreakerEnabled();
+    }
+
+    /**
+     * Count a failed test or setup; navigation and connection errors in a row open the circuit
+     */
+    public static void recordFailure(String what, Throwable throwable) {
+        if (!RetryPolicy.isEnvironmentError(throwable)) {
+            // A dead browser session says nothing about the environment; any other failure means it answered
+            if (!RetryPolicy.isSessionError(throwable)) {
+                consecutiveFailures.set(0);
+            }
+            return;
+        }
+        int failures = consecutiveFailures.incrementAndGet();
+        if (failures >= config.getCircuitBreakerFailureThreshold()) {
+            trip(failures + " consecutive navigation or connection failures, last in " + what + ": "
+                    + firstLine(throwable), true);
+        }
+    }
+
+    /**
+     * Count a passed test, which shows the environment is working
+     */
+    public static void recordSuccess() {
+        consecutiveFailures.set(0);
+    }
+
+    /**
+     * Open the circuit
+     *
+     * @param reason      shown on every skipped test
+     * @param recoverable whether a healthy base URL probe may close it again
+     */
+    public static synchronized void trip(String reason, boolean recoverable) {
+        if (!config.isCircuitBreakerEnabled()) {
+            return;
+        }
+        if (openReason != null) {
+            if (!recoverable && EnvironmentCircuitBreaker.recoverable) {
+                // A healthy base URL must not close a circuit the driver keeps open
+                EnvironmentCircuitBreaker.recoverable = false;
+                openReason = reason;
+                logger.error("Environment circuit breaker stays open: {}", reason);
+            }
+            return;
+        }
+        EnvironmentCircuitBreaker.recoverable = recoverable;
+        lastProbeNanos = System.nanoTime();
+        openReason = reason;
+        trips.increment();
+        logger.error("Environment circuit breaker opened: {}. Remaining tests are skipped{}", reason,
+                recoverable ? " until the base URL answers again" : "");
+    }
+
+    private static synchronized void probe() {
+        if (openReason == null || System.nanoTime() - lastProbeNanos
+                < TimeUnit.SECONDS.toNanos(config.getCircuitBreakerCooldownSeconds())) {
+            return;
+        }
+        EnvironmentHealthCheck.CheckResult result = EnvironmentHealthCheck.checkBaseUrl();
+        lastProbeNanos = System.nanoTime();
+        if (result.isHealthy()) {
+            logger.info("Environment circuit breaker closed: {}", result.getDetail());
+            openReason = null;
+            consecutiveFailures.set(0);
+        } else {
+            logger.info("Environment circuit breaker stays open: {}", result.getDetail());
+        }
+    }
+
+    private static String firstLine(Throwable throwable) {
+        String message = throwable.getMessage() != null ? throwable.getMessage() : throwable.getClass().getSimpleName();
+        int newline = message.indexOf('\n');
+        return newline > 0 ? message.substring(0, newline) : message;
+    }
+
+    /**
+     * Log how often the circuit opened and how many tests it skipped
+     */
+    public static void logSummary() {
+        if (trips.sum() == 0) {
+            return;
+        }
+        logger.warn("Environment circuit breaker opened {} time(s) and skipped {} test(s){}", trips.sum(),
+                skippedTests.sum(), openReason != null ? "; still open: " + openReason : "");
+    }
+}
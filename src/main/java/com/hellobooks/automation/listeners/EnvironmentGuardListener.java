@@ -0,0 +1,73 @@
+package com.hellobooks.automation.listeners;
+
+import com.hellobooks.automation.config.ConfigManager;
+import com.hellobooks.automation.utils.EnvironmentHealthCheck;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.testng.IInvokedMethod;
+import org.testng.IInvokedMethodListener;
+import org.testng.ISuite;
+import org.testng.ISuiteListener;
+import org.testng.ITestResult;
+import org.testng.SkipException;
+
+import java.util.List;
+
+/**
+ * Runs the pre-flight health check before any test starts and feeds test and setup outcomes
+ * to {@link EnvironmentCircuitBreaker}. An unreachable base URL or an unavailable driver
+ * opens the circuit straight away; an unhealthy OTP source is only reported, since the
+ * tests that do not sign up can still run.
+ */
+public class EnvironmentGuardListener implements ISuiteListener, IInvokedMethodListener {
+    private static final Logger logger = LoggerFactory.getLogger(EnvironmentGuardListener.class);
+    private static final ConfigManager config = ConfigManager.getInstance();
+
+    @Override
+    public void onStart(ISuite suite) {
+        if (!config.isPreflightEnabled()) {
+            return;
+        }
+        String browser = suite.getParameter("browser");
+        if (browser == null || browser.isEmpty()) {
+            browser = config.getBrowser();
+        }
+
+        long start = System.currentTimeMillis();
+        List<EnvironmentHealthCheck.CheckResult> results = EnvironmentHealthCheck.runPreflight(browser);
+        StringBuilder summary = new StringBuilder(String.format("Pre-flight health check (%d ms):",
+                System.currentTimeMillis() - start));
+        for (EnvironmentHealthCheck.CheckResult result : results) {
+            summary.append(String.format("%n  %s", result));
+        }
+        logger.info(summary.toString());
+
+        for (EnvironmentHealthCheck.CheckResult result : results) {
+            if (result.isHealthy()) {
+                continue;
+            }
+            switch (result.getName()) {
+                case "base URL":
+                    EnvironmentCircuitBreaker.trip("pre-flight: " + result.getDetail(), true);
+                    break;
+                case "driver":
+                    EnvironmentCircuitBreaker.trip("pre-flight: " + result.getDetail(), false);
+                    break;
+                default:
+                    logger.warn("Pre-flight: {} is unhealthy; tests depending on it are expected to fail",
+                            result.getName());
+            }
+        }
+    }
+
+    @Override
+    public void afterInvocation(IInvokedMethod method, ITestResult testResult) {
+        Throwable throwable = testResult.getThrowable();
+        if (testResult.getStatus() == ITestResult.FAILURE && throwable != null && !(throwable instanceof SkipException)) {
+            String name = testResult.getMethod().getRealClass().getSimpleName() + "." + testResult.getMethod().getMethodName();
+            EnvironmentCircuitBreaker.recordFailure(name, throwable);
+        } else if (method.isTestMethod() && testResult.getStatus() == ITestResult.SUCCESS) {
+            EnvironmentCircuitBreaker.recordSuccess();
+        }
+    }
+}
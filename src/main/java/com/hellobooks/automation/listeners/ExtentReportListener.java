@@ -3,10 +3,15 @@ package com.hellobooks.automation.listeners;
 import com.aventstack.extentreports.ExtentReports;
 import com.aventstack.extentreports.ExtentTest;
 import com.aventstack.extentreports.Status;
+import com.aventstack.extentreports.markuputils.MarkupHelper;
 import com.aventstack.extentreports.reporter.ExtentSparkReporter;
+import com.aventstack.extentreports.reporter.JsonFormatter;
 import com.aventstack.extentreports.reporter.configuration.Theme;
 import com.hellobooks.automation.config.ConfigManager;
+import com.hellobooks.automation.utils.CommandLatencyRecorder;
+import com.hellobooks.automation.utils.ExecutionTracer;
 import com.hellobooks.automation.utils.ScreenshotUtils;
+import com.hellobooks.automation.utils.TestOutcomeHistory;
 import com.hellobooks.automation.utils.WebDriverFactory;
 import io.qameta.allure.Attachment;
 import org.slf4j.Logger;
@@ -15,18 +20,38 @@ import org.testng.ITestListener;
 import org.testng.ITestResult;
 
 import java.io.File;
+import java.nio.file.Path;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Collectors;
 
 /**
  * ExtentReports listener for generating HTML reports
  */
 public class ExtentReportListener implements ITestListener {
     private static final Logger logger = LoggerFactory.getLogger(ExtentReportListener.class);
-    private static ExtentReports extent;
     private static ThreadLocal<ExtentTest> extentTest = new ThreadLocal<>();
     private static final ConfigManager config = ConfigManager.getInstance();
 
+    private final String reportPath;
+    private final String reportName;
+    private ExtentReports extent;
+
+    public ExtentReportListener() {
+        this(config.getReportPath(), "Login & Signup Test Results");
+    }
+
+    /**
+     * Listener writing its report to its own directory, e.g. for a separate TestNG run
+     */
+    public ExtentReportListener(String reportPath, String reportName) {
+        this.reportPath = reportPath;
+        this.reportName = reportName;
+    }
+
     @Override
     public void onStart(org.testng.ITestContext context) {
         setupExtentReports();
@@ -36,7 +61,11 @@ public class ExtentReportListener implements ITestListener {
     @Override
     public void onFinish(org.testng.ITestContext context) {
         if (extent != null) {
-            extent.flush();
+            ExecutionTracer.trace("flush Extent report", "framework", () -> {
+                addCommandLatencySummary();
+                addFlakinessSummary();
+                extent.flush();
+            });
             logger.info("ExtentReports flushed and finalized");
         }
     }
@@ -89,9 +118,58 @@ public class ExtentReportListener implements ITestListener {
         logger.warn("Test skipped: {}", result.getMethod().getMethodName());
     }
 
+    /**
+     * Add p50/p95/p99 WebDriver command latencies recorded so far, and export them as OpenMetrics
+     */
+    private void addCommandLatencySummary() {
+        List<String[]> rows = CommandLatencyRecorder.summaryRows();
+        if (rows.isEmpty()) {
+            return;
+        }
+        Path metricsFile = CommandLatencyRecorder.exportOpenMetrics();
+
+        String[][] table = new String[rows.size() + 1][];
+        table[0] = new String[] {"Command", "Browser", "Count", "p50 (ms)", "p95 (ms)", "p99 (ms)", "Total (s)"};
+        for (int i = 0; i < rows.size(); i++) {
+            table[i + 1] = rows.get(i);
+        }
+
+        ExtentTest summary = extent.createTest("WebDriver Command Latency", "Client-side latency per WebDriver command");
+        summary.info(MarkupHelper.createTable(table));
+        if (metricsFile != null) {
+            summary.info("OpenMetrics histograms: " + metricsFile.toAbsolutePath());
+        }
+    }
+
+    private void addFlakinessSummary() {
+        if (!config.isFlakyTrackingEnabled()) {
+            return;
+        }
+        List<String> tests = new ArrayList<>(TestOutcomeHistory.getTestNames());
+        tests.removeIf(test -> TestOutcomeHistory.getScoreTrend(test).stream().allMatch(score -> score == 0));
+        if (tests.isEmpty()) {
+            return;
+        }
+        tests.sort(Comparator.comparingDouble(TestOutcomeHistory::getFlakinessScore).reversed());
+
+        String[][] table = new String[tests.size() + 1][];
+        table[0] = new String[] {"Test", "Runs", "Score", "Trend (oldest first)", "Quarantined"};
+        for (int i = 0; i < tests.size(); i++) {
+            String test = tests.get(i);
+            String trend = TestOutcomeHistory.getScoreTrend(test).stream()
+                    .map(score -> String.format("%.2f", score))
+                    .collect(Collectors.joining(" > "));
+            table[i + 1] = new String[] {test, String.valueOf(TestOutcomeHistory.getScoredRuns(test)),
+                    String.format("%.2f", TestOutcomeHistory.getFlakinessScore(test)), trend,
+                    config.isQuarantineEnabled() && QuarantineLane.isQuarantined(test) ? "yes" : "no"};
+        }
+
+        ExtentTest summary = extent.createTest("Test Flakiness",
+                "Flakiness scores from earlier runs; quarantined tests run in a separate lane after the suite");
+        summary.info(MarkupHelper.createTable(table));
+    }
+
     private void setupExtentReports() {
-        String reportPath = config.getReportPath();
-        
         // Create reports directory if it doesn't exist
         File reportDir = new File(reportPath);
         if (!reportDir.exists()) {
@@ -107,6 +185,10 @@ public class ExtentReportListener implements ITestListener {
         
         extent = new ExtentReports();
         extent.attachReporter(sparkReporter);
+        if (config.getShardCount() > 1) {
+            // JSON archive next to the HTML report, read by ShardReportMerger to combine shard reports
+            extent.attachReporter(new JsonFormatter(reportFile.replace(".html", ".json")));
+        }
         
         // Set system information
         extent.setSystemInfo("Application", "HelloBooks");
@@ -121,7 +203,7 @@ public class ExtentReportListener implements ITestListener {
     private void configureSparkReporter(ExtentSparkReporter sparkReporter) {
         sparkReporter.config().setTheme(Theme.STANDARD);
         sparkReporter.config().setDocumentTitle("HelloBooks Test Automation Report");
-        sparkReporter.config().setReportName("Login & Signup Test Results");
+        sparkReporter.config().setReportName(reportName);
         sparkReporter.config().setTimeStampFormat("yyyy-MM-dd HH:mm:ss");
         sparkReporter.config().setEncoding("utf-8");
     }
@@ -0,0 +1,177 @@
+package com.hellobooks.automation.listeners;
+
+import com.hellobooks.automation.config.ConfigManager;
+import com.hellobooks.automation.utils.TestDurationHistory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.testng.IMethodInstance;
+import org.testng.IMethodInterceptor;
+import org.testng.ITestContext;
+import org.testng.ITestListener;
+import org.testng.ITestNGMethod;
+import org.testng.ITestResult;
+import org.testng.xml.XmlSuite;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Orders test methods longest-processing-time-first using durations from earlier runs,
+ * so slow tests start early and do not leave the other threads idle at the end of a run.
+ * Methods are only scheduled after the methods they depend on; without any history the
+ * declared priorities are kept. Predicted and actual makespans are logged per test.
+ */
+public class LongestFirstScheduler implements IMethodInterceptor, ITestListener {
+    private static final Logger logger = LoggerFactory.getLogger(LongestFirstScheduler.class);
+    private static final ConfigManager config = ConfigManager.getInstance();
+    private static final Map<String, Long> predictedMakespans = new ConcurrentHashMap<>();
+
+    @Override
+    public List<IMethodInstance> intercept(List<IMethodInstance> methods, ITestContext context) {
+        if (!config.isLongestFirstSchedulingEnabled() || methods.isEmpty()) {
+            return methods;
+        }
+
+        Map<IMethodInstance, Long> expected = new HashMap<>();
+        long knownTotal = 0;
+        int known = 0;
+        for (IMethodInstance instance : methods) {
+            long millis = TestDurationHistory.getExpectedMillis(qualifiedName(instance.getMethod()));
+            expected.put(instance, millis);
+            if (millis >= 0) {
+                knownTotal += millis;
+                known++;
+            }
+        }
+        if (known == 0) {
+            logger.info("No duration history for '{}', keeping priority order", context.getName());
+            return methods;
+        }
+        // Tests without history are assumed to take as long as an average known test
+        long unknownEstimate = knownTotal / known;
+        expected.replaceAll((instance, millis) -> millis >= 0 ? millis : unknownEstimate);
+
+        List<IMethodInstance> ordered = orderRespectingDependencies(methods, expected);
+        for (int i = 0; i < ordered.size(); i++) {
+            // Parallel runs start methods by priority, so the rank has to be expressed as one
+            ordered.get(i).getMethod().setPriority(i);
+        }
+
+        int threads = isParallel(context) ? Math.max(1, context.getCurrentXmlTest().getThreadCount()) : 1;
+        long makespan = predictMakespan(ordered, expected, threads);
+        predictedMakespans.put(context.getName(), makespan);
+        logger.info("Scheduled {} methods of '{}' longest first ({} with history); predicted makespan {} ms on {} threads",
+                ordered.size(), context.getName(), known, makespan, threads);
+        return ordered;
+    }
+
+    /**
+     * Longest expected duration first, declared priority as tie breaker, never before a dependency
+     */
+    static List<IMethodInstance> orderRespectingDependencies(List<IMethodInstance> methods,
+                                                             Map<IMethodInstance, Long> expected) {
+        Map<String, IMethodInstance> byName = new HashMap<>();
+        for (IMethodInstance instance : methods) {
+            byName.put(qualifiedName(instance.getMethod()), instance);
+        }
+
+        Map<IMethodInstance, Set<IMethodInstance>> pending = new HashMap<>();
+        for (IMethodInstance instance : methods) {
+            Set<IMethodInstance> dependencies = new HashSet<>();
+            for (String dependency : instance.getMethod().getMethodsDependedUpon()) {
+                IMethodInstance target = byName.get(dependency);
+                if (target != null && target != instance) {
+                    dependencies.add(target);
+                }
+            }
+            pending.put(instance, dependencies);
+        }
+
+        Comparator<IMethodInstance> longestFirst = Comparator
+                .comparing((IMethodInstance instance) -> expected.get(instance)).reversed()
+                .thenComparingInt(instance -> instance.getMethod().getPriority());
+        PriorityQueue<IMethodInstance> ready = new PriorityQueue<>(longestFirst);
+        pending.forEach((instance, dependencies) -> {
+            if (dependencies.isEmpty()) {
+                ready.add(instance);
+            }
+        });
+
+        List<IMethodInstance> ordered = new ArrayList<>();
+        while (!ready.isEmpty()) {
+            IMethodInstance next = ready.poll();
+            ordered.add(next);
+            pending.remove(next);
+            pending.forEach((instance, dependencies) -> {
+                if (dependencies.remove(next) && dependencies.isEmpty()) {
+                    ready.add(instance);
+                }
+            });
+        }
+        if (!pending.isEmpty()) {
+            // Dependency cycles are TestNG's to report; keep those methods at the end
+            pending.keySet().stream().sorted(longestFirst).forEach(ordered::add);
+        }
+        return ordered;
+    }
+
+    /**
+     * Simulate list scheduling: each method starts on the thread that becomes free first
+     */
+    static long predictMakespan(List<IMethodInstance> ordered, Map<IMethodInstance, Long> expected, int threads) {
+        long[] freeAt = new long[threads];
+        for (IMethodInstance instance : ordered) {
+            int earliest = 0;
+            for (int i = 1; i < threads; i++) {
+                if (freeAt[i] < freeAt[earliest]) {
+                    earliest = i;
+                }
+            }
+            freeAt[earliest] += expected.get(instance);
+        }
+        return Arrays.stream(freeAt).max().orElse(0);
+    }
+
+    private static boolean isParallel(ITestContext context) {
+        XmlSuite.ParallelMode mode = context.getCurrentXmlTest().getParallel();
+        return mode != null && mode != XmlSuite.ParallelMode.NONE;
+    }
+
+    @Override
+    public void onTestSuccess(ITestResult result) {
+        recordDuration(result);
+    }
+
+    @Override
+    public void onTestFailure(ITestResult result) {
+        recordDuration(result);
+    }
+
+    @Override
+    public void onFinish(ITestContext context) {
+        long actual = context.getEndDate().getTime() - context.getStartDate().getTime();
+        Long predicted = predictedMakespans.remove(context.getName());
+        if (predicted != null) {
+            logger.info("Makespan of '{}': predicted {} ms, actual {} ms", context.getName(), predicted, actual);
+        } else {
+            logger.info("Makespan of '{}': {} ms (no prediction)", context.getName(), actual);
+        }
+        TestDurationHistory.persist();
+    }
+
+    private static void recordDuration(ITestResult result) {
+        TestDurationHistory.record(qualifiedName(result.getMethod()), result.getEndMillis() - result.getStartMillis());
+    }
+
+    private static String qualifiedName(ITestNGMethod method) {
+        return method.getRealClass().getName() + "." + method.getMethodName();
+    }
+}
@@ -0,0 +1,215 @@
+package com.hellobooks.automation.listeners;
+
+import com.hellobooks.automation.config.ConfigManager;
+import com.hellobooks.automation.utils.TestOutcomeHistory;
+import io.qameta.allure.AllureLifecycle;
+import io.qameta.allure.FileSystemResultsWriter;
+import io.qameta.allure.testng.AllureTestNg;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.testng.IMethodInstance;
+import org.testng.IMethodInterceptor;
+import org.testng.ISuite;
+import org.testng.ISuiteListener;
+import org.testng.ITestContext;
+import org.testng.ITestListener;
+import org.testng.ITestNGMethod;
+import org.testng.ITestResult;
+import org.testng.TestNG;
+import org.testng.xml.XmlClass;
+import org.testng.xml.XmlInclude;
+import org.testng.xml.XmlSuite;
+import org.testng.xml.XmlTest;
+
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Moves tests whose flakiness score (see {@link TestOutcomeHistory}) reaches
+ * flaky.quarantine.threshold out of the main run and runs them in a separate lane, started
+ * as soon as they are intercepted and running alongside the main run on
+ * flaky.quarantine.threads threads, without retries. The lane is a separate TestNG run on
+ * its own executor, so it never holds up the main run and its failures never change the
+ * main run's result. It writes its own Extent and Allure reports under
+ * flaky.quarantine.report.dir; its outcomes are still recorded, so tests leave quarantine
+ * once they stabilise. A lane still running when the main run ends gets up to
+ * flaky.quarantine.timeout.minutes to finish before the JVM exits.
+ */
+public class QuarantineLane implements IMethodInterceptor, ISuiteListener {
+    private static final Logger logger = LoggerFactory.getLogger(QuarantineLane.class);
+    private static final ConfigManager config = ConfigManager.getInstance();
+
+    /** Runs the lanes one after another on a daemon thread, apart from the main run's threads */
+    private static final ExecutorService lanes = Executors.newSingleThreadExecutor(task -> {
+        Thread thread = new Thread(task, "quarantine-lane");
+        thread.setDaemon(true);
+        return thread;
+    });
+    /** Lanes started per suite */
+    private static final Map<String, List<Future<?>>> started = new ConcurrentHashMap<>();
+
+    static {
+        Runtime.getRuntime().addShutdownHook(new Thread(QuarantineLane::awaitLanes, "quarantine-lane-shutdown"));
+    }
+
+    @Override
+    public List<IMethodInstance> intercept(List<IMethodInstance> methods, ITestContext context) {
+        if (!config.isQuarantineEnabled()) {
+            return methods;
+        }
+        List<IMethodInstance> kept = new ArrayList<>();
+        Map<String, Set<String>> quarantined = new TreeMap<>();
+        for (IMethodInstance instance : methods) {
+            ITestNGMethod method = instance.getMethod();
+            String testName = qualifiedName(method);
+            if (isQuarantined(testName) && !hasDependencies(method, methods)) {
+                quarantined.computeIfAbsent(method.getRealClass().getName(), name -> new TreeSet<>())
+                        .add(method.getMethodName());
+                logger.info("Quarantined {} (flakiness {} over {} runs)", testName,
+                        String.format("%.2f", TestOutcomeHistory.getFlakinessScore(testName)),
+                        TestOutcomeHistory.getScoredRuns(testName));
+            } else {
+                kept.add(instance);
+            }
+        }
+        if (!quarantined.isEmpty()) {
+            start(context, quarantined);
+        }
+        return kept;
+    }
+
+    /**
+     * Whether a test's history puts it into the quarantine lane
+     */
+    public static boolean isQuarantined(String testName) {
+        return TestOutcomeHistory.getScoredRuns(testName) >= config.getQuarantineMinRuns()
+                && TestOutcomeHistory.getFlakinessScore(testName) >= config.getQuarantineThreshold();
+    }
+
+    @Override
+    public void onFinish(ISuite suite) {
+        List<Future<?>> suiteLanes = started.get(suite.getName());
+        if (suiteLanes == null) {
+            return;
+        }
+        long running = suiteLanes.stream().filter(lane -> !lane.isDone()).count();
+        if (running > 0) {
+            logger.info("{} quarantine lane(s) of '{}' still running; the suite result does not wait for them",
+                    running, suite.getName());
+        }
+    }
+
+    /**
+     * Start a separate TestNG run of the quarantined methods of one test context
+     */
+    private static void start(ITestContext context, Map<String, Set<String>> tests) {
+        String laneName = context.getSuite().getName() + " - " + context.getName() + " - Quarantine";
+        XmlSuite laneSuite = new XmlSuite();
+        laneSuite.setName(laneName);
+        laneSuite.setParallel(XmlSuite.ParallelMode.METHODS);
+        laneSuite.setThreadCount(config.getQuarantineThreads());
+        laneSuite.setParameters(context.getCurrentXmlTest().getAllParameters());
+
+        XmlTest laneTest = new XmlTest(laneSuite);
+        laneTest.setName("Quarantined Tests");
+        List<XmlClass> classes = new ArrayList<>();
+        tests.forEach((className, methodNames) -> {
+            XmlClass xmlClass = new XmlClass(className);
+            List<XmlInclude> includes = new ArrayList<>();
+            for (String methodName : methodNames) {
+                includes.add(new XmlInclude(methodName));
+            }
+            xmlClass.setIncludedMethods(includes);
+            classes.add(xmlClass);
+        });
+        laneTest.setXmlClasses(classes);
+
+        String reportDir = config.getQuarantineReportDir();
+        LaneResults results = new LaneResults();
+        TestNG testng = new TestNG();
+        testng.setUseDefaultListeners(false);
+        testng.setVerbose(0);
+        testng.setXmlSuites(Collections.singletonList(laneSuite));
+        testng.addListener(new TestHistoryListener("quarantine"));
+        testng.addListener(new ExtentReportListener(reportDir, "Quarantined Test Results"));
+        testng.addListener(new AllureTestNg(new AllureLifecycle(
+                new FileSystemResultsWriter(Paths.get(reportDir, "allure-results")))));
+        testng.addListener(results);
+
+        int count = tests.values().stream().mapToInt(Set::size).sum();
+        logger.info("Starting {} quarantined tests of '{}' on {} threads alongside the main run (reports in {})",
+                count, context.getName(), config.getQuarantineThreads(), reportDir);
+        started.computeIfAbsent(context.getSuite().getName(), suite -> new CopyOnWriteArrayList<>())
+                .add(lanes.submit(() -> {
+                    testng.run();
+                    logger.info("Quarantine lane '{}': {} passed, {} failed, {} skipped (not counted in the suite result)",
+                            laneName, results.passed.sum(), results.failed.sum(), results.skipped.sum());
+                }));
+    }
+
+    /**
+     * Give lanes still running when the main run ends time to finish, after its result is reported
+     */
+    private static void awaitLanes() {
+        lanes.shutdown();
+        try {
+            if (!lanes.awaitTermination(config.getQuarantineTimeoutMinutes(), TimeUnit.MINUTES)) {
+                logger.warn("Quarantine lane still running after {} minutes; abandoning it", config.getQuarantineTimeoutMinutes());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static boolean hasDependencies(ITestNGMethod method, List<IMethodInstance> methods) {
+        if (method.getMethodsDependedUpon().length > 0 || method.getGroupsDependedUpon().length > 0) {
+            return true;
+        }
+        String name = method.getQualifiedName();
+        for (IMethodInstance other : methods) {
+            if (Arrays.asList(other.getMethod().getMethodsDependedUpon()).contains(name)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static String qualifiedName(ITestNGMethod method) {
+        return method.getRealClass().getName() + "." + method.getMethodName();
+    }
+
+    private static final class LaneResults implements ITestListener {
+        private final LongAdder passed = new LongAdder();
+        private final LongAdder failed = new LongAdder();
+        private final LongAdder skipped = new LongAdder();
+
+        @Override
+        public void onTestSuccess(ITestResult result) {
+            passed.increment();
+        }
+
+        @Override
+        public void onTestFailure(ITestResult result) {
+            failed.increment();
+        }
+
+        @Override
+        public void onTestSkipped(ITestResult result) {
+            skipped.increment();
+        }
+    }
+}
@@ -0,0 +1,247 @@
+package com.hellobooks.automation.listeners;
+
+import com.hellobooks.automation.config.ConfigManager;
+import org.openqa.selenium.ElementClickInterceptedException;
+import org.openqa.selenium.ElementNotInteractableException;
+import org.openqa.selenium.NoSuchSessionException;
+import org.openqa.selenium.SessionNotCreatedException;
+import org.openqa.selenium.StaleElementReferenceException;
+import org.openqa.selenium.TimeoutException;
+import org.openqa.selenium.UnhandledAlertException;
+import org.openqa.selenium.interactions.MoveTargetOutOfBoundsException;
+import org.openqa.selenium.remote.RemoteWebDriver;
+import org.openqa.selenium.remote.UnreachableBrowserException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.testng.ITestResult;
+
+import java.net.ConnectException;
+import java.net.UnknownHostException;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Decides whether a failed test is retried. Failures are classified from the exception
+ * chain: infrastructure problems and flaky UI interactions are retried up to retry.count
+ * times per test, while assertion failures and other errors are reported straight away.
+ * All retries draw from one suite-wide retry.budget, so a broken environment cannot
+ * multiply the suite runtime.
+ *
+ * The decision is made once per failed attempt and stored on the result, so the teardown
+ * (which keeps the browser for the retry) and {@link RetryAnalyzer} agree regardless of
+ * which of them TestNG calls first.
+ */
+public class RetryPolicy {
+    private static final Logger logger = LoggerFactory.getLogger(RetryPolicy.class);
+    private static final ConfigManager config = ConfigManager.getInstance();
+    private static final String DECISION_ATTRIBUTE = "retry.decision";
+
+    /** Messages of WebDriver errors that mean the browser session died */
+    private static final List<String> SESSION_MESSAGES = Arrays.asList(
+            "invalid session id", "session deleted", "no such session", "chrome not reachable",
+            "disconnected:", "target window already closed");
+
+    /** Messages of errors that mean the application or the driver could not be reached */
+    private static final List<String> CONNECTION_MESSAGES = Arrays.asList(
+            "connection refused", "connection reset", "net::err_");
+
+    /** Messages of page loads that did not finish within the page load timeout */
+    private static final List<String> PAGE_LOAD_TIMEOUT_MESSAGES = Arrays.asList(
+            "timed out receiving message from renderer", "navigation timed out");
+
+    /** Messages of interactions that fail because the page was still changing */
+    private static final List<String> FLAKY_UI_MESSAGES = Arrays.asList(
+            "stale element reference", "element click intercepted", "is not clickable at point",
+            "element not interactable");
+
+    private static final AtomicInteger budgetUsed = new AtomicInteger();
+    /** Retries per test method and parameter set, so every data provider row gets its own retries */
+    private static final Map<List<Object>, AtomicInteger> retriesPerTest = new ConcurrentHashMap<>();
+    private static final Map<FailureCategory, LongAdder> retried = new EnumMap<>(FailureCategory.class);
+    private static final Map<FailureCategory, LongAdder> notRetried = new EnumMap<>(FailureCategory.class);
+    private static final LongAdder budgetRefusals = new LongAdder();
+
+    static {
+        for (FailureCategory category : FailureCategory.values()) {
+            retried.put(category, new LongAdder());
+            notRetried.put(category, new LongAdder());
+        }
+        Runtime.getRuntime().addShutdownHook(new Thread(RetryPolicy::logSummary, "retry-summary"));
+    }
+
+    private RetryPolicy() {
+    }
+
+    /**
+     * Kind of failure, from the point of view of whether a rerun can change the outcome
+     */
+    public enum FailureCategory {
+        /** Browser session died, connection errors, page loads that timed out */
+        INFRASTRUCTURE,
+        /** Interactions racing the page, such as stale elements or intercepted clicks */
+        FLAKY_UI,
+        /** Assertion failures and any other error; a rerun would hide a real defect */
+        PRODUCT
+    }
+
+    /**
+     * Whether a failed attempt will be retried; decided on the first call for the attempt
+     */
+    public static synchronized boolean willRetry(ITestResult result) {
+        // TestNG marks an attempt it is about to retry as skipped, so look at the decision first
+        Object decided = result.getAttribute(DECISION_ATTRIBUTE);
+        if (decided != null) {
+            return (Boolean) decided;
+        }
+        if (result.getStatus() != ITestResult.FAILURE) {
+            return false;
+        }
+        boolean retry = decide(result);
+        result.setAttribute(DECISION_ATTRIBUTE, retry);
+        return retry;
+    }
+
+    private static boolean decide(ITestResult result) {
+        String test = result.getMethod().getQualifiedName();
+        FailureCategory category = classify(result.getThrowable());
+        if (!config.shouldRetryFailedTests() || category == FailureCategory.PRODUCT) {
+            notRetried.get(category).increment();
+            logger.info("Not retrying '{}': {} failure", test, category);
+            return false;
+        }
+
+        if (EnvironmentCircuitBreaker.isOpen()) {
+            notRetried.get(category).increment();
+            logger.info("Not retrying '{}': environment circuit breaker is open", test);
+            return false;
+        }
+
+        AtomicInteger retries = retriesPerTest.computeIfAbsent(
+                Arrays.asList(result.getMethod(), Arrays.deepToString(result.getParameters())), key -> new AtomicInteger());
+        if (retries.get() >= config.getRetryCount()) {
+            notRetried.get(category).increment();
+            logger.info("Not retrying '{}': {} retries used", test, retries.get());
+            return false;
+        }
+        if (budgetUsed.get() >= config.getRetryBudget()) {
+            notRetried.get(category).increment();
+            budgetRefusals.increment();
+            logger.warn("Not retrying '{}': suite retry budget of {} is used up", test, config.getRetryBudget());
+            return false;
+        }
+
+        retries.incrementAndGet();
+        budgetUsed.incrementAndGet();
+        retried.get(category).increment();
+        logger.info("Retrying '{}' after {} failure (attempt {} of {}, suite budget {}/{})", test, category,
+                retries.get() + 1, config.getRetryCount() + 1, budgetUsed.get(), config.getRetryBudget());
+        return true;
+    }
+
+    /**
+     * Classify a failure from its exception chain. Waits for elements that timed out are product
+     * failures: the page did not reach the expected state, which a rerun would only hide.
+     */
+    public static FailureCategory classify(Throwable throwable) {
+        // An assertion states the application misbehaved, even when a timeout led to it
+        if (throwable == null || throwable instanceof AssertionError) {
+            return FailureCategory.PRODUCT;
+        }
+        if (isSessionError(throwable) || isEnvironmentError(throwable)) {
+            return FailureCategory.INFRASTRUCTURE;
+        }
+        boolean flaky = false;
+        for (Throwable cause = throwable; cause != null; cause = next(cause)) {
+            if (cause instanceof StaleElementReferenceException || cause instanceof ElementClickInterceptedException
+                    || cause instanceof ElementNotInteractableException || cause instanceof MoveTargetOutOfBoundsException
+                    || cause instanceof UnhandledAlertException) {
+                flaky = true;
+            }
+            if (FLAKY_UI_MESSAGES.stream().anyMatch(message(cause)::contains)) {
+                flaky = true;
+            }
+        }
+        return flaky ? FailureCategory.FLAKY_UI : FailureCategory.PRODUCT;
+    }
+
+    /**
+     * Whether the browser session died or could not be created
+     */
+    static boolean isSessionError(Throwable throwable) {
+        for (Throwable cause = throwable; cause != null; cause = next(cause)) {
+            if (cause instanceof NoSuchSessionException || cause instanceof SessionNotCreatedException
+                    || cause instanceof UnreachableBrowserException
+                    || SESSION_MESSAGES.stream().anyMatch(message(cause)::contains)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Whether the application or the driver could not be reached: connection errors and page
+     * loads from driver.get or navigation that timed out
+     */
+    static boolean isEnvironmentError(Throwable throwable) {
+        for (Throwable cause = throwable; cause != null; cause = next(cause)) {
+            if (cause instanceof ConnectException || cause instanceof UnknownHostException
+                    || CONNECTION_MESSAGES.stream().anyMatch(message(cause)::contains)) {
+                return true;
+            }
+            if (cause instanceof TimeoutException && isPageLoadTimeout((TimeoutException) cause)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * A page load timeout surfaces as the same TimeoutException as an expired WebDriverWait,
+     * so it is recognised by the driver's message or by being thrown from a navigation command
+     */
+    private static boolean isPageLoadTimeout(TimeoutException timeout) {
+        if (PAGE_LOAD_TIMEOUT_MESSAGES.stream().anyMatch(message(timeout)::contains)) {
+            return true;
+        }
+        for (StackTraceElement frame : timeout.getStackTrace()) {
+            if (frame.getClassName().startsWith(RemoteWebDriver.class.getName())
+                    && (frame.getClassName().endsWith("RemoteNavigation") || "get".equals(frame.getMethodName()))) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static Throwable next(Throwable cause) {
+        return cause.getCause() == cause ? null : cause.getCause();
+    }
+
+    private static String message(Throwable cause) {
+        return cause.getMessage() != null ? cause.getMessage().toLowerCase(Locale.ROOT) : "";
+    }
+
+    /**
+     * Log retries per failure category and how much of the budget was used
+     */
+    public static void logSummary() {
+        if (budgetUsed.get() == 0 && notRetried.values().stream().mapToLong(LongAdder::sum).sum() == 0) {
+            return;
+        }
+        StringBuilder summary = new StringBuilder(String.format("Retries: %d of budget %d used",
+                budgetUsed.get(), config.getRetryBudget()));
+        for (FailureCategory category : FailureCategory.values()) {
+            summary.append(String.format("%n  %-15s %3d retried, %3d not retried", category,
+                    retried.get(category).sum(), notRetried.get(category).sum()));
+        }
+        if (budgetRefusals.sum() > 0) {
+            summary.append(String.format("%n  %d retries refused because the budget was used up", budgetRefusals.sum()));
+        }
+        logger.info(summary.toString());
+    }
+}
@@ -0,0 +1,51 @@
+package com.hellobooks.automation.listeners;
+
+import com.hellobooks.automation.config.ConfigManager;
+import com.hellobooks.automation.utils.RoundTripTracker;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.testng.IInvokedMethod;
+import org.testng.IInvokedMethodListener;
+import org.testng.ITestResult;
+
+import java.util.List;
+
+/**
+ * Checks WebDriver round-trip budgets of page-object methods after each test method.
+ * With roundtrip.budget.mode=fail a passing test that exceeded a budget is marked as failed.
+ * Budgets are only enforced when roundtrip.tracking.enabled is set.
+ */
+public class RoundTripBudgetListener implements IInvokedMethodListener {
+    private static final Logger logger = LoggerFactory.getLogger(RoundTripBudgetListener.class);
+    private static final ConfigManager config = ConfigManager.getInstance();
+
+    @Override
+    public void beforeInvocation(IInvokedMethod method, ITestResult testResult) {
+        if (method.isTestMethod()) {
+            RoundTripTracker.reset();
+        }
+    }
+
+    @Override
+    public void afterInvocation(IInvokedMethod method, ITestResult testResult) {
+        if (!method.isTestMethod()) {
+            return;
+        }
+        RoundTripTracker.endTest();
+        if (!config.isRoundTripTrackingEnabled()) {
+            return;
+        }
+        List<String> violations = RoundTripTracker.drainViolations();
+        if (violations.isEmpty()) {
+            return;
+        }
+
+        String message = "Round-trip budgets exceeded in " + testResult.getName() + ": " + String.join("; ", violations);
+        if ("fail".equals(config.getRoundTripBudgetMode()) && testResult.isSuccess()) {
+            testResult.setStatus(ITestResult.FAILURE);
+            testResult.setThrowable(new AssertionError(message));
+        } else {
+            logger.warn(message);
+        }
+    }
+}
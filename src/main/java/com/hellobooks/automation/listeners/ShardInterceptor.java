@@ -0,0 +1,71 @@
+package com.hellobooks.automation.listeners;
+
+import com.hellobooks.automation.config.ConfigManager;
+import com.hellobooks.automation.utils.ShardPlanner;
+import com.hellobooks.automation.utils.ShardPlanner.ShardPlan;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.testng.IMethodInstance;
+import org.testng.IMethodInterceptor;
+import org.testng.ISuite;
+import org.testng.ITestContext;
+import org.testng.ITestNGMethod;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Runs only this JVM's shard of the suite when shard.count is greater than one.
+ * Test methods of all &lt;test&gt; tags are split into shards of roughly equal historical
+ * duration by {@link ShardPlanner}; shard.index (0-based) selects the shard to run.
+ */
+public class ShardInterceptor implements IMethodInterceptor {
+    private static final Logger logger = LoggerFactory.getLogger(ShardInterceptor.class);
+    private static final ConfigManager config = ConfigManager.getInstance();
+    private static final Map<String, ShardPlan> plans = new ConcurrentHashMap<>();
+
+    @Override
+    public List<IMethodInstance> intercept(List<IMethodInstance> methods, ITestContext context) {
+        int shardCount = config.getShardCount();
+        if (shardCount <= 1) {
+            return methods;
+        }
+        int shardIndex = config.getShardIndex();
+        if (shardIndex < 0 || shardIndex >= shardCount) {
+            throw new IllegalArgumentException("shard.index must be between 0 and " + (shardCount - 1) + ", got " + shardIndex);
+        }
+
+        ShardPlan plan = plans.computeIfAbsent(context.getSuite().getName(),
+                name -> createPlan(context.getSuite(), shardCount, shardIndex));
+
+        List<IMethodInstance> selected = new ArrayList<>();
+        for (IMethodInstance instance : methods) {
+            if (plan.shardOf(qualifiedName(instance.getMethod())) == shardIndex) {
+                selected.add(instance);
+            }
+        }
+        logger.info("Shard {}/{} runs {} of {} methods in '{}'",
+                shardIndex, shardCount, selected.size(), methods.size(), context.getName());
+        return selected;
+    }
+
+    private static ShardPlan createPlan(ISuite suite, int shardCount, int shardIndex) {
+        List<String> names = new ArrayList<>();
+        for (ITestNGMethod method : suite.getAllMethods()) {
+            names.add(qualifiedName(method));
+        }
+        ShardPlan plan = ShardPlanner.plan(names, shardCount);
+        plan.writeManifest(shardIndex, new File(config.getShardManifestDir(),
+                String.format("shard-%d-of-%d.json", shardIndex, shardCount)));
+        logger.info("Shard {}/{}: {} tests, predicted {} ms", shardIndex, shardCount,
+                plan.getTests(shardIndex).size(), plan.getPredictedMillis(shardIndex));
+        return plan;
+    }
+
+    private static String qualifiedName(ITestNGMethod method) {
+        return method.getRealClass().getName() + "." + method.getMethodName();
+    }
+}
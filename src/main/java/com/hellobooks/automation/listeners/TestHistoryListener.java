@@ -0,0 +1,79 @@
+package com.hellobooks.automation.listeners;
+
+import com.hellobooks.automation.config.ConfigManager;
+import com.hellobooks.automation.utils.TestOutcomeHistory;
+import org.testng.ITestListener;
+import org.testng.ITestResult;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Appends the final outcome of every test to {@link TestOutcomeHistory}, with the number
+ * of retried attempts and the time spent on all attempts
+ */
+public class TestHistoryListener implements ITestListener {
+    private static final ConfigManager config = ConfigManager.getInstance();
+    /** Retried attempts per test that has not reached its final attempt yet */
+    private static final Map<String, Attempts> retriedAttempts = new ConcurrentHashMap<>();
+
+    private final String lane;
+
+    public TestHistoryListener() {
+        this("main");
+    }
+
+    public TestHistoryListener(String lane) {
+        this.lane = lane;
+    }
+
+    @Override
+    public void onTestSuccess(ITestResult result) {
+        finish(result, "PASS");
+    }
+
+    @Override
+    public void onTestFailure(ITestResult result) {
+        finish(result, "FAIL");
+    }
+
+    @Override
+    public void onTestSkipped(ITestResult result) {
+        if (!config.isFlakyTrackingEnabled()) {
+            return;
+        }
+        if (result.wasRetried()) {
+            Attempts attempts = retriedAttempts.computeIfAbsent(lane + ":" + qualifiedName(result), key -> new Attempts());
+            synchronized (attempts) {
+                attempts.count++;
+                attempts.millis += duration(result);
+            }
+            return;
+        }
+        finish(result, "SKIP");
+    }
+
+    private void finish(ITestResult result, String status) {
+        if (!config.isFlakyTrackingEnabled()) {
+            return;
+        }
+        String testName = qualifiedName(result);
+        Attempts attempts = retriedAttempts.remove(lane + ":" + testName);
+        int retries = attempts != null ? attempts.count : 0;
+        long millis = duration(result) + (attempts != null ? attempts.millis : 0);
+        TestOutcomeHistory.record(testName, lane, status, millis, retries);
+    }
+
+    private static long duration(ITestResult result) {
+        return Math.max(0, result.getEndMillis() - result.getStartMillis());
+    }
+
+    private static String qualifiedName(ITestResult result) {
+        return result.getMethod().getRealClass().getName() + "." + result.getMethod().getMethodName();
+    }
+
+    private static final class Attempts {
+        private int count;
+        private long millis;
+    }
+}
@@ -0,0 +1,57 @@
+package com.hellobooks.automation.listeners;
+
+import com.hellobooks.automation.config.ConfigManager;
+import com.hellobooks.automation.utils.ExecutionTracer;
+import org.testng.IInvokedMethod;
+import org.testng.IInvokedMethodListener;
+import org.testng.ITestResult;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Records a trace span for every test and configuration method, including setup and teardown
+ */
+public class TraceListener implements IInvokedMethodListener {
+    private static final ConfigManager config = ConfigManager.getInstance();
+    private static final ThreadLocal<Long> startTimes = new ThreadLocal<>();
+
+    @Override
+    public void beforeInvocation(IInvokedMethod method, ITestResult testResult) {
+        if (ExecutionTracer.isEnabled()) {
+            startTimes.set(System.nanoTime());
+        }
+    }
+
+    @Override
+    public void afterInvocation(IInvokedMethod method, ITestResult testResult) {
+        Long start = startTimes.get();
+        if (start == null) {
+            return;
+        }
+        startTimes.remove();
+        if (method.isTestMethod()) {
+            ExecutionTracer.endStep();
+        }
+
+        Map<String, Object> args = new LinkedHashMap<>();
+        args.put("class", testResult.getTestClass().getName());
+        args.put("status", statusName(testResult.getStatus()));
+        args.put("browser", config.getBrowser());
+        String name = testResult.getTestClass().getRealClass().getSimpleName() + "." + method.getTestMethod().getMethodName();
+        ExecutionTracer.record(name, method.isTestMethod() ? "test" : "config", start, System.nanoTime(), args);
+    }
+
+    private static String statusName(int status) {
+        switch (status) {
+            case ITestResult.SUCCESS:
+                return "passed";
+            case ITestResult.FAILURE:
+                return "failed";
+            case ITestResult.SKIP:
+                return "skipped";
+            default:
+                return String.valueOf(status);
+        }
+    }
+}
@@ -1,8 +1,19 @@
 package com.hellobooks.automation.pages;
 
 import com.hellobooks.automation.config.ConfigManager;
+import com.hellobooks.automation.utils.BatchLocatorResolver;
+import com.hellobooks.automation.utils.BatchLocatorResolver.ElementState;
+import com.hellobooks.automation.utils.DomWaiter;
+import com.hellobooks.automation.utils.FormFiller;
+import com.hellobooks.automation.utils.FormFiller.FillResult;
+import com.hellobooks.automation.utils.LocatorCompiler;
+import com.hellobooks.automation.utils.OutcomeDetector;
+import com.hellobooks.automation.utils.OutcomeDetector.Outcome;
+import com.hellobooks.automation.utils.PageReadinessTracker;
+import com.hellobooks.automation.utils.PageTextSearch;
 import org.openqa.selenium.By;
 import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.TimeoutException;
 import org.openqa.selenium.WebDriver;
 import org.openqa.selenium.WebElement;
 import org.openqa.selenium.support.PageFactory;
@@ -12,7 +23,10 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.time.Duration;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 
 /**
  * Base page class with common functionality for all page objects
@@ -30,11 +44,29 @@ public abstract class BasePage {
         PageFactory.initElements(driver, this);
     }
 
+    /**
+     * Create an explicit wait with a per-call timeout.
+     * Drivers run with a zero implicit wait, so this timeout is never stacked on another one.
+     */
+    protected WebDriverWait waitFor(Duration timeout) {
+        return new WebDriverWait(driver, timeout);
+    }
+
     /**
      * Wait for element to be visible
      */
     protected WebElement waitForElementToBeVisible(By locator) {
-        return wait.until(ExpectedConditions.visibilityOfElementLocated(locator));
+        return waitForElementToBeVisible(locator, Duration.ofSeconds(config.getExplicitWait()));
+    }
+
+    /**
+     * Wait for element to be visible within the given timeout
+     */
+    protected WebElement waitForElementToBeVisible(By locator, Duration timeout) {
+        if (usePushWaits(locator)) {
+            return DomWaiter.waitForVisible(driver, (LocatorCompiler.CompiledLocator) locator, timeout);
+        }
+        return waitFor(timeout).until(ExpectedConditions.visibilityOfElementLocated(locator));
     }
 
     /**
@@ -44,6 +76,13 @@ public abstract class BasePage {
         return wait.until(ExpectedConditions.elementToBeClickable(locator));
     }
 
+    /**
+     * Wait for element to be clickable within the given timeout
+     */
+    protected WebElement waitForElementToBeClickable(By locator, Duration timeout) {
+        return waitFor(timeout).until(ExpectedConditions.elementToBeClickable(locator));
+    }
+
     /**
      * Wait for element to be present
      */
@@ -51,18 +90,72 @@ public abstract class BasePage {
         return wait.until(ExpectedConditions.presenceOfElementLocated(locator));
     }
 
+    /**
+     * Wait for element to be present within the given timeout
+     */
+    protected WebElement waitForElementToBePresent(By locator, Duration timeout) {
+        return waitFor(timeout).until(ExpectedConditions.presenceOfElementLocated(locator));
+    }
+
     /**
      * Wait for text to be present in element
      */
     protected boolean waitForTextToBePresentInElement(By locator, String text) {
-        return wait.until(ExpectedConditions.textToBePresentInElementLocated(locator, text));
+        return waitForTextToBePresentInElement(locator, text, Duration.ofSeconds(config.getExplicitWait()));
+    }
+
+    /**
+     * Wait for text to be present in element within the given timeout
+     */
+    protected boolean waitForTextToBePresentInElement(By locator, String text, Duration timeout) {
+        if (usePushWaits(locator)) {
+            return DomWaiter.waitForText(driver, (LocatorCompiler.CompiledLocator) locator, text, timeout);
+        }
+        return waitFor(timeout).until(ExpectedConditions.textToBePresentInElementLocated(locator, text));
     }
 
     /**
      * Wait for element to disappear
      */
     protected boolean waitForElementToDisappear(By locator) {
-        return wait.until(ExpectedConditions.invisibilityOfElementLocated(locator));
+        return waitForElementToDisappear(locator, Duration.ofSeconds(config.getExplicitWait()));
+    }
+
+    /**
+     * Wait for element to disappear within the given timeout
+     */
+    protected boolean waitForElementToDisappear(By locator, Duration timeout) {
+        if (usePushWaits(locator)) {
+            return DomWaiter.waitForHidden(driver, (LocatorCompiler.CompiledLocator) locator, timeout);
+        }
+        return waitFor(timeout).until(ExpectedConditions.invisibilityOfElementLocated(locator));
+    }
+
+    /**
+     * Push waits need the compiled CSS/XPath form of a locator to evaluate it in the page
+     */
+    private boolean usePushWaits(By locator) {
+        return "push".equals(config.getWaitMode()) && locator instanceof LocatorCompiler.CompiledLocator;
+    }
+
+    /**
+     * Wait for the first of several outcomes of an action, e.g. a dashboard or an error banner.
+     * Returns as soon as one appears, or once network requests and DOM changes have stopped.
+     *
+     * @return name of the outcome, {@link OutcomeDetector#SETTLED} or {@link OutcomeDetector#TIMED_OUT}
+     */
+    protected String waitForOutcome(Outcome... outcomes) {
+        String outcome = OutcomeDetector.waitForFirst(driver, Arrays.asList(outcomes),
+                Duration.ofMillis(config.getOutcomeIdleMillis()), Duration.ofSeconds(config.getOutcomeTimeout()));
+        logger.debug("Outcome of last action: {}", outcome);
+        return outcome;
+    }
+
+    /**
+     * Wait until network requests and DOM changes have stopped, e.g. after moving to the next step
+     */
+    protected void waitForPageToSettle() {
+        waitForOutcome();
     }
 
     /**
@@ -84,6 +177,21 @@ public abstract class BasePage {
         logger.debug("Entered text '{}' in element: {}", text, locator);
     }
 
+    /**
+     * Fill several form fields in one browser call, typing only where the page needs real keystrokes
+     *
+     * @param fields field locators keyed by field name
+     * @param values values keyed by field name
+     */
+    protected FillResult fillForm(Map<String, By> fields, Map<String, String> values) {
+        FillResult result = FormFiller.fill(driver, fields, values);
+        if (!result.getAbsent().isEmpty()) {
+            logger.warn("Form fields not found: {}", result.getAbsent());
+        }
+        logger.debug("Filled form fields: {}", result.getFilled());
+        return result;
+    }
+
     /**
      * Get text from element
      */
@@ -95,24 +203,95 @@ public abstract class BasePage {
     }
 
     /**
-     * Check if element is displayed
+     * Check if element is present right now, without waiting
+     */
+    protected boolean isElementPresent(By locator) {
+        try {
+            return !driver.findElements(locator).isEmpty();
+        } catch (Exception e) {
+            return false;
+        }
+    }
+
+    /**
+     * Check if element is displayed right now, without waiting
      */
     protected boolean isElementDisplayed(By locator) {
         try {
-            WebElement element = driver.findElement(locator);
-            return element.isDisplayed();
+            for (WebElement element : driver.findElements(locator)) {
+                if (element.isDisplayed()) {
+                    return true;
+                }
+            }
+            return false;
+        } catch (Exception e) {
+            return false;
+        }
+    }
+
+    /**
+     * Check if element becomes displayed within the given timeout
+     */
+    protected boolean isElementDisplayed(By locator, Duration timeout) {
+        try {
+            waitForElementToBeVisible(locator, timeout);
+            return true;
         } catch (Exception e) {
             return false;
         }
     }
 
     /**
-     * Check if element is enabled
+     * Resolve several named locators in a single browser round trip
+     */
+    protected Map<String, ElementState> resolveLocators(Map<String, By> locators) {
+        try {
+            return BatchLocatorResolver.resolve(driver, locators);
+        } catch (Exception e) {
+            logger.debug("Batch locator resolution failed: {}", e.getMessage());
+            Map<String, ElementState> absent = new LinkedHashMap<>();
+            locators.keySet().forEach(name -> absent.put(name, ElementState.ABSENT));
+            return absent;
+        }
+    }
+
+    /**
+     * Check if any of the locators is displayed right now, in a single browser round trip
+     */
+    protected boolean isAnyElementDisplayed(By... locators) {
+        Map<String, By> named = new LinkedHashMap<>();
+        for (int i = 0; i < locators.length; i++) {
+            named.put(String.valueOf(i), locators[i]);
+        }
+        return resolveLocators(named).values().stream().anyMatch(ElementState::isVisible);
+    }
+
+    /**
+     * Check if any of the locators becomes displayed within the given timeout, polling in
+     * single round trips. Used for messages that render only once the server has answered.
+     */
+    protected boolean isAnyElementDisplayed(Duration timeout, By... locators) {
+        try {
+            return waitFor(timeout).until(webDriver -> isAnyElementDisplayed(locators) ? Boolean.TRUE : null);
+        } catch (TimeoutException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Bounded wait for checks that follow a page transition or a form submit
+     */
+    protected Duration transitionTimeout() {
+        return Duration.ofSeconds(config.getTransitionTimeout());
+    }
+
+    /**
+     * Check if element is enabled right now, without waiting
      */
     protected boolean isElementEnabled(By locator) {
         try {
-            WebElement element = waitForElementToBePresent(locator);
-            return element.isEnabled();
+            List<WebElement> elements = driver.findElements(locator);
+            return !elements.isEmpty() && elements.get(0).isEnabled();
         } catch (Exception e) {
             return false;
         }
@@ -170,6 +349,7 @@ public abstract class BasePage {
      * Navigate to URL
      */
     public void navigateToUrl(String url) {
+        PageReadinessTracker.flush(driver);
         driver.get(url);
         logger.info("Navigated to URL: {}", url);
     }
@@ -178,8 +358,35 @@ public abstract class BasePage {
      * Wait for page to load completely
      */
     protected void waitForPageToLoad() {
+        long start = System.currentTimeMillis();
         wait.until(webDriver -> ((JavascriptExecutor) webDriver)
                 .executeScript("return document.readyState").equals("complete"));
+        logger.debug("Page load completed in {} ms", System.currentTimeMillis() - start);
+    }
+
+    /**
+     * Element that signals this page is usable. Pages return null to always
+     * wait for the full document load.
+     */
+    protected By getReadyIndicator() {
+        return null;
+    }
+
+    /**
+     * Wait until the page is ready according to its configured readiness mode
+     */
+    protected void waitForPageReady() {
+        String pageName = getClass().getSimpleName();
+        By readyIndicator = getReadyIndicator();
+        if (readyIndicator == null || !"element".equals(config.getPageReadinessMode(pageName))) {
+            waitForPageToLoad();
+            return;
+        }
+
+        long start = System.currentTimeMillis();
+        waitForElementToBeClickable(readyIndicator);
+        PageReadinessTracker.recordReady(driver, pageName);
+        logger.debug("{} ready in {} ms", pageName, System.currentTimeMillis() - start);
     }
 
     /**
@@ -190,9 +397,34 @@ public abstract class BasePage {
     }
 
     /**
-     * Check if text is present on page
+     * Check if text is present in the visible text of the page
      */
     protected boolean isTextPresentOnPage(String text) {
-        return driver.getPageSource().contains(text);
+        return PageTextSearch.contains(driver, text, null, false, true);
+    }
+
+    /**
+     * Check if text is present in the visible text of a container, optionally ignoring case
+     *
+     * @param container container to search in, or null for the whole page
+     */
+    protected boolean isTextPresentOnPage(String text, By container, boolean ignoreCase) {
+        return PageTextSearch.contains(driver, text, container, ignoreCase, true);
+    }
+
+    /**
+     * Count occurrences of text in the visible text of a container, optionally ignoring case
+     *
+     * @param container container to search in, or null for the whole page
+     */
+    protected int countTextOnPage(String text, By container, boolean ignoreCase) {
+        return PageTextSearch.countMatches(driver, text, container, ignoreCase, true);
+    }
+
+    /**
+     * Capture the current DOM as gzip-compressed HTML, for callers that really need the markup
+     */
+    protected byte[] captureDomSnapshot() {
+        return PageTextSearch.captureCompressedDom(driver);
     }
 }
\ No newline at end of file
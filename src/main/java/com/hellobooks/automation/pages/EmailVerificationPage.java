@@ -1,5 +1,7 @@
 package com.hellobooks.automation.pages;
 
+import com.hellobooks.automation.utils.LocatorCompiler;
+import com.hellobooks.automation.utils.OutcomeDetector.Outcome;
 import org.openqa.selenium.By;
 import org.openqa.selenium.WebDriver;
 
@@ -9,31 +11,36 @@ import org.openqa.selenium.WebDriver;
 public class EmailVerificationPage extends BasePage {
 
     // Locators for email verification elements
-    private final By verificationCodeField = By.cssSelector("input[name*='code'], input[name*='otp'], input[placeholder*='code' i], input[placeholder*='verification' i], #verificationCode, #otp");
-    private final By verifyButton = By.cssSelector("button[type='submit'], button:contains('Verify'), button:contains('Confirm'), input[type='submit']");
-    private final By resendCodeLink = By.cssSelector("a:contains('Resend'), button:contains('Resend'), [data-testid*='resend']");
-    private final By changeEmailLink = By.cssSelector("a:contains('Change Email'), a:contains('Different Email'), [data-testid*='change-email']");
+    private final By verificationCodeField = LocatorCompiler.compile("input[name*='code'], input[name*='otp'], input[placeholder*='code' i], input[placeholder*='verification' i], #verificationCode, #otp");
+    private final By verifyButton = LocatorCompiler.compile("button[type='submit'], button:contains('Verify'), button:contains('Confirm'), input[type='submit']");
+    private final By resendCodeLink = LocatorCompiler.compile("a:contains('Resend'), button:contains('Resend'), [data-testid*='resend']");
+    private final By changeEmailLink = LocatorCompiler.compile("a:contains('Change Email'), a:contains('Different Email'), [data-testid*='change-email']");
     
     // Message locators
-    private final By verificationMessage = By.cssSelector("*:contains('verification code'), *:contains('enter the code'), *:contains('check your email')");
-    private final By errorMessage = By.cssSelector(".error, .alert-error, .notification-error, [data-testid*='error']");
-    private final By successMessage = By.cssSelector(".success, .alert-success, .notification-success, [data-testid*='success']");
+    private final By verificationMessage = LocatorCompiler.compile("*:contains('verification code'), *:contains('enter the code'), *:contains('check your email')");
+    private final By errorMessage = LocatorCompiler.compile(".error, .alert-error, .notification-error, [data-testid*='error']");
+    private final By successMessage = LocatorCompiler.compile(".success, .alert-success, .notification-success, [data-testid*='success']");
     
     // Navigation indicators
-    private final By onboardingIndicator = By.cssSelector("[data-testid*='onboarding'], .onboarding, *:contains('Welcome'), h1:contains('Setup')");
-    private final By dashboardIndicator = By.cssSelector("[data-testid='dashboard'], .dashboard, h1:contains('Dashboard')");
+    private final By onboardingIndicator = LocatorCompiler.compile("[data-testid*='onboarding'], .onboarding, *:contains('Welcome'), h1:contains('Setup')");
+    private final By dashboardIndicator = LocatorCompiler.compile("[data-testid='dashboard'], .dashboard, h1:contains('Dashboard')");
 
     public EmailVerificationPage(WebDriver driver) {
         super(driver);
     }
 
+    @Override
+    protected By getReadyIndicator() {
+        return verificationCodeField;
+    }
+
     /**
      * Check if on verification page
      */
     public boolean isOnVerificationPage() {
         return getCurrentUrl().contains("verify") || 
                getCurrentUrl().contains("confirmation") ||
-               isElementDisplayed(verificationCodeField) ||
+               isElementDisplayed(verificationCodeField, transitionTimeout()) ||
                isElementDisplayed(verificationMessage);
     }
 
@@ -77,6 +84,8 @@ public class EmailVerificationPage extends BasePage {
      * Complete verification with code
      */
     public void verifyWithCode(String code) {
+        // Signup has just redirected here; the code field may not be usable yet
+        waitForPageReady();
         enterVerificationCode(code);
         clickVerifyButton();
         logger.info("Completed verification with provided code");
@@ -105,7 +114,7 @@ public class EmailVerificationPage extends BasePage {
      * Get error message
      */
     public String getErrorMessage() {
-        if (isElementDisplayed(errorMessage)) {
+        if (isElementDisplayed(errorMessage, transitionTimeout())) {
             return getText(errorMessage);
         }
         return "";
@@ -115,25 +124,26 @@ public class EmailVerificationPage extends BasePage {
      * Check if verification was successful
      */
     public boolean isVerificationSuccessful() {
-        // Wait for potential redirect
-        try {
-            Thread.sleep(3000);
-        } catch (InterruptedException e) {
-            Thread.currentThread().interrupt();
-        }
+        waitForOutcome(
+                Outcome.url("onboarding", "onboarding"),
+                Outcome.url("dashboard", "dashboard"),
+                Outcome.url("home", "home"),
+                Outcome.element("onboarding", onboardingIndicator),
+                Outcome.element("dashboard", dashboardIndicator),
+                Outcome.element("success", successMessage),
+                Outcome.element("error", errorMessage));
         
-        return isElementDisplayed(successMessage) ||
-               isElementDisplayed(onboardingIndicator) ||
-               isElementDisplayed(dashboardIndicator) ||
-               getCurrentUrl().contains("onboarding") ||
-               getCurrentUrl().contains("dashboard") ||
-               getCurrentUrl().contains("home");
+        String currentUrl = getCurrentUrl();
+        return currentUrl.contains("onboarding") ||
+               currentUrl.contains("dashboard") ||
+               currentUrl.contains("home") ||
+               isAnyElementDisplayed(successMessage, onboardingIndicator, dashboardIndicator);
     }
 
     /**
      * Check if error is displayed
      */
     public boolean isErrorDisplayed() {
-        return isElementDisplayed(errorMessage);
+        return isElementDisplayed(errorMessage, transitionTimeout());
     }
 }
\ No newline at end of file
@@ -0,0 +1,23 @@
+package com.hellobooks.automation.pages;
+
+import org.openqa.selenium.WebDriver;
+
+/**
+ * Page object for the application entry point (base URL). It has no ready indicator of
+ * its own, since it may redirect, so readiness means the full document load.
+ */
+public class HomePage extends BasePage {
+
+    public HomePage(WebDriver driver) {
+        super(driver);
+    }
+
+    /**
+     * Navigate to the base URL and wait until the page is ready
+     */
+    public void navigateToHomePage() {
+        navigateToUrl(config.getBaseUrl());
+        waitForPageReady();
+        logger.info("Navigated to home page: {}", config.getBaseUrl());
+    }
+}
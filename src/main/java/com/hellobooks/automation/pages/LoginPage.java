@@ -1,5 +1,8 @@
 package com.hellobooks.automation.pages;
 
+import com.hellobooks.automation.utils.LocatorCompiler;
+import com.hellobooks.automation.utils.OutcomeDetector.Outcome;
+import com.hellobooks.automation.utils.SessionCache;
 import org.openqa.selenium.By;
 import org.openqa.selenium.WebDriver;
 import org.openqa.selenium.WebElement;
@@ -10,33 +13,38 @@ import org.openqa.selenium.WebElement;
 public class LoginPage extends BasePage {
 
     // Locators - These will need to be updated based on actual application elements
-    private final By emailField = By.cssSelector("input[type='email'], input[name='email'], #email, input[placeholder*='email' i]");
-    private final By passwordField = By.cssSelector("input[type='password'], input[name='password'], #password");
-    private final By loginButton = By.cssSelector("button[type='submit'], button:contains('Login'), button:contains('Sign In'), input[type='submit']");
-    private final By rememberMeCheckbox = By.cssSelector("input[type='checkbox'][name*='remember'], input[type='checkbox'][id*='remember']");
-    private final By forgotPasswordLink = By.cssSelector("a[href*='forgot'], a:contains('Forgot Password'), a:contains('Reset Password')");
-    private final By signupLink = By.cssSelector("a[href*='signup'], a[href*='register'], a:contains('Sign Up'), a:contains('Register')");
+    private final By emailField = LocatorCompiler.compile("input[type='email'], input[name='email'], #email, input[placeholder*='email' i]");
+    private final By passwordField = LocatorCompiler.compile("input[type='password'], input[name='password'], #password");
+    private final By loginButton = LocatorCompiler.compile("button[type='submit'], button:contains('Login'), button:contains('Sign In'), input[type='submit']");
+    private final By rememberMeCheckbox = LocatorCompiler.compile("input[type='checkbox'][name*='remember'], input[type='checkbox'][id*='remember']");
+    private final By forgotPasswordLink = LocatorCompiler.compile("a[href*='forgot'], a:contains('Forgot Password'), a:contains('Reset Password')");
+    private final By signupLink = LocatorCompiler.compile("a[href*='signup'], a[href*='register'], a:contains('Sign Up'), a:contains('Register')");
     
     // Error message locators
-    private final By emailErrorMessage = By.cssSelector(".error:contains('email'), .field-error:contains('email'), [data-testid*='email-error']");
-    private final By passwordErrorMessage = By.cssSelector(".error:contains('password'), .field-error:contains('password'), [data-testid*='password-error']");
-    private final By generalErrorMessage = By.cssSelector(".error, .alert-error, .notification-error, [data-testid*='error']");
+    private final By emailErrorMessage = LocatorCompiler.compile(".error:contains('email'), .field-error:contains('email'), [data-testid*='email-error']");
+    private final By passwordErrorMessage = LocatorCompiler.compile(".error:contains('password'), .field-error:contains('password'), [data-testid*='password-error']");
+    private final By generalErrorMessage = LocatorCompiler.compile(".error, .alert-error, .notification-error, [data-testid*='error']");
     
     // Success indicators
-    private final By successMessage = By.cssSelector(".success, .alert-success, .notification-success");
-    private final By dashboardIndicator = By.cssSelector("[data-testid='dashboard'], .dashboard, h1:contains('Dashboard')");
+    private final By successMessage = LocatorCompiler.compile(".success, .alert-success, .notification-success");
+    private final By dashboardIndicator = LocatorCompiler.compile("[data-testid='dashboard'], .dashboard, h1:contains('Dashboard')");
 
     public LoginPage(WebDriver driver) {
         super(driver);
     }
 
+    @Override
+    protected By getReadyIndicator() {
+        return emailField;
+    }
+
     /**
      * Navigate to login page
      */
     public void navigateToLoginPage() {
         String loginUrl = config.getBaseUrl() + "/login";
         navigateToUrl(loginUrl);
-        waitForPageToLoad();
+        waitForPageReady();
         logger.info("Navigated to login page");
     }
 
@@ -115,6 +123,32 @@ public class LoginPage extends BasePage {
         logger.info("Performed login for user: {}", email);
     }
 
+    /**
+     * Log in for tests whose subject is not login: restores the cached session of the user
+     * when one is available, otherwise logs in through the UI and caches the session
+     *
+     * @return whether the browser ended up logged in
+     */
+    public boolean loginWithSessionCache(String email, String password) {
+        return SessionCache.authenticate(driver, email,
+                () -> {
+                    navigateToLoginPage();
+                    login(email, password);
+                    return isLoginSuccessful();
+                },
+                () -> {
+                    waitForPageToSettle();
+                    return !isOnLoginPage();
+                });
+    }
+
+    /**
+     * Cache the session of a successful UI login for later {@link #loginWithSessionCache} calls
+     */
+    public void rememberSession(String email) {
+        SessionCache.remember(driver, email);
+    }
+
     /**
      * Perform login with remember me
      */
@@ -166,7 +200,7 @@ public class LoginPage extends BasePage {
      * Get email error message
      */
     public String getEmailErrorMessage() {
-        if (isElementDisplayed(emailErrorMessage)) {
+        if (isElementDisplayed(emailErrorMessage, transitionTimeout())) {
             return getText(emailErrorMessage);
         }
         return "";
@@ -176,7 +210,7 @@ public class LoginPage extends BasePage {
      * Get password error message
      */
     public String getPasswordErrorMessage() {
-        if (isElementDisplayed(passwordErrorMessage)) {
+        if (isElementDisplayed(passwordErrorMessage, transitionTimeout())) {
             return getText(passwordErrorMessage);
         }
         return "";
@@ -186,7 +220,7 @@ public class LoginPage extends BasePage {
      * Get general error message
      */
     public String getGeneralErrorMessage() {
-        if (isElementDisplayed(generalErrorMessage)) {
+        if (isElementDisplayed(generalErrorMessage, transitionTimeout())) {
             return getText(generalErrorMessage);
         }
         return "";
@@ -196,21 +230,19 @@ public class LoginPage extends BasePage {
      * Check if error message is displayed
      */
     public boolean isErrorMessageDisplayed() {
-        return isElementDisplayed(generalErrorMessage) || 
-               isElementDisplayed(emailErrorMessage) || 
-               isElementDisplayed(passwordErrorMessage);
+        // Invalid credentials are reported only after the server answers the submit
+        return isAnyElementDisplayed(transitionTimeout(), generalErrorMessage, emailErrorMessage, passwordErrorMessage);
     }
 
     /**
      * Check if login was successful
      */
     public boolean isLoginSuccessful() {
-        // Wait a bit for potential redirect
-        try {
-            Thread.sleep(2000);
-        } catch (InterruptedException e) {
-            Thread.currentThread().interrupt();
-        }
+        waitForOutcome(
+                Outcome.element("dashboard", dashboardIndicator),
+                Outcome.url("dashboard", "dashboard"),
+                Outcome.url("home", "home"),
+                Outcome.element("error", generalErrorMessage));
         
         // Check multiple indicators of successful login
         return isElementDisplayed(dashboardIndicator) || 
@@ -1,59 +1,92 @@
 package com.hellobooks.automation.pages;
 
+import com.hellobooks.automation.utils.BatchLocatorResolver.ElementState;
+import com.hellobooks.automation.utils.FormFiller.FillResult;
+import com.hellobooks.automation.utils.LocatorCompiler;
+import com.hellobooks.automation.utils.OutcomeDetector.Outcome;
 import org.openqa.selenium.By;
+import org.openqa.selenium.NoSuchElementException;
 import org.openqa.selenium.WebDriver;
 import org.openqa.selenium.WebElement;
 import org.openqa.selenium.support.ui.Select;
 
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
 /**
  * Page object for Onboarding functionality
  */
 public class OnboardingPage extends BasePage {
 
     // Step navigation
-    private final By nextButton = By.cssSelector("button:contains('Next'), button:contains('Continue'), [data-testid*='next']");
-    private final By backButton = By.cssSelector("button:contains('Back'), button:contains('Previous'), [data-testid*='back']");
-    private final By skipButton = By.cssSelector("button:contains('Skip'), a:contains('Skip'), [data-testid*='skip']");
-    private final By finishButton = By.cssSelector("button:contains('Finish'), button:contains('Complete'), button:contains('Get Started'), [data-testid*='finish']");
+    private final By nextButton = LocatorCompiler.compile("button:contains('Next'), button:contains('Continue'), [data-testid*='next']");
+    private final By backButton = LocatorCompiler.compile("button:contains('Back'), button:contains('Previous'), [data-testid*='back']");
+    private final By skipButton = LocatorCompiler.compile("button:contains('Skip'), a:contains('Skip'), [data-testid*='skip']");
+    private final By finishButton = LocatorCompiler.compile("button:contains('Finish'), button:contains('Complete'), button:contains('Get Started'), [data-testid*='finish']");
     
     // Organization/Company setup fields
-    private final By organizationNameField = By.cssSelector("input[name*='organization'], input[name*='company'], input[placeholder*='organization' i], input[placeholder*='company' i], #organizationName, #companyName");
-    private final By industryDropdown = By.cssSelector("select[name*='industry'], select[name*='sector'], [data-testid*='industry']");
-    private final By companySizeDropdown = By.cssSelector("select[name*='size'], select[name*='employees'], [data-testid*='company-size']");
-    private final By countryDropdown = By.cssSelector("select[name*='country'], [data-testid*='country']");
-    private final By timezoneDropdown = By.cssSelector("select[name*='timezone'], [data-testid*='timezone']");
-    private final By currencyDropdown = By.cssSelector("select[name*='currency'], [data-testid*='currency']");
+    private final By organizationNameField = LocatorCompiler.compile("input[name*='organization'], input[name*='company'], input[placeholder*='organization' i], input[placeholder*='company' i], #organizationName, #companyName");
+    private final By industryDropdown = LocatorCompiler.compile("select[name*='industry'], select[name*='sector'], [data-testid*='industry']");
+    private final By companySizeDropdown = LocatorCompiler.compile("select[name*='size'], select[name*='employees'], [data-testid*='company-size']");
+    private final By countryDropdown = LocatorCompiler.compile("select[name*='country'], [data-testid*='country']");
+    private final By timezoneDropdown = LocatorCompiler.compile("select[name*='timezone'], [data-testid*='timezone']");
+    private final By currencyDropdown = LocatorCompiler.compile("select[name*='currency'], [data-testid*='currency']");
     
     // User profile fields
-    private final By jobTitleField = By.cssSelector("input[name*='title'], input[name*='position'], input[placeholder*='title' i], #jobTitle");
-    private final By departmentField = By.cssSelector("input[name*='department'], select[name*='department'], [data-testid*='department']");
+    private final By jobTitleField = LocatorCompiler.compile("input[name*='title'], input[name*='position'], input[placeholder*='title' i], #jobTitle");
+    private final By departmentField = LocatorCompiler.compile("input[name*='department'], select[name*='department'], [data-testid*='department']");
     
     // Progress indicators
-    private final By progressBar = By.cssSelector(".progress, .stepper, [data-testid*='progress']");
-    private final By stepIndicator = By.cssSelector(".step, .step-indicator, [data-testid*='step']");
+    private final By progressBar = LocatorCompiler.compile(".progress, .stepper, [data-testid*='progress']");
+    private final By stepIndicator = LocatorCompiler.compile(".step, .step-indicator, [data-testid*='step']");
     
     // Messages and validation
-    private final By errorMessage = By.cssSelector(".error, .alert-error, .field-error, [data-testid*='error']");
-    private final By successMessage = By.cssSelector(".success, .alert-success, [data-testid*='success']");
-    private final By welcomeMessage = By.cssSelector("h1:contains('Welcome'), h2:contains('Welcome'), [data-testid*='welcome']");
+    private final By errorMessage = LocatorCompiler.compile(".error, .alert-error, .field-error, [data-testid*='error']");
+    private final By successMessage = LocatorCompiler.compile(".success, .alert-success, [data-testid*='success']");
+    private final By welcomeMessage = LocatorCompiler.compile("h1:contains('Welcome'), h2:contains('Welcome'), [data-testid*='welcome']");
     
     // Completion indicators
-    private final By dashboardIndicator = By.cssSelector("[data-testid='dashboard'], .dashboard, h1:contains('Dashboard')");
-    private final By completionMessage = By.cssSelector("*:contains('setup complete'), *:contains('onboarding complete'), [data-testid*='complete']");
+    private final By dashboardIndicator = LocatorCompiler.compile("[data-testid='dashboard'], .dashboard, h1:contains('Dashboard')");
+    private final By completionMessage = LocatorCompiler.compile("*:contains('setup complete'), *:contains('onboarding complete'), [data-testid*='complete']");
+
+    // Form fields by name, for bulk filling
+    private final Map<String, By> formFields = new LinkedHashMap<>();
 
     public OnboardingPage(WebDriver driver) {
         super(driver);
+        formFields.put("organizationName", organizationNameField);
+        formFields.put("industry", industryDropdown);
+        formFields.put("companySize", companySizeDropdown);
+        formFields.put("country", countryDropdown);
+        formFields.put("timezone", timezoneDropdown);
+        formFields.put("currency", currencyDropdown);
+        formFields.put("jobTitle", jobTitleField);
+        formFields.put("department", departmentField);
+    }
+
+    @Override
+    protected By getReadyIndicator() {
+        return organizationNameField;
+    }
+
+    /**
+     * Navigate to onboarding directly, for users who were not redirected there
+     */
+    public void navigateToOnboardingPage() {
+        navigateToUrl(config.getBaseUrl() + "/onboarding");
+        waitForPageReady();
+        logger.info("Navigated to onboarding page");
     }
 
     /**
      * Check if on onboarding page
      */
     public boolean isOnOnboardingPage() {
-        return getCurrentUrl().contains("onboarding") ||
-               getCurrentUrl().contains("setup") ||
-               isElementDisplayed(welcomeMessage) ||
-               isElementDisplayed(progressBar) ||
-               isElementDisplayed(nextButton);
+        String currentUrl = getCurrentUrl();
+        return currentUrl.contains("onboarding") ||
+               currentUrl.contains("setup") ||
+               isAnyElementDisplayed(welcomeMessage, progressBar, nextButton);
     }
 
     /**
@@ -197,23 +230,47 @@ public class OnboardingPage extends BasePage {
      * Complete organization setup with minimal data
      */
     public void completeOrganizationSetupMinimal(String organizationName) {
+        waitForPageReady();
         enterOrganizationName(organizationName);
         clickNext();
         logger.info("Completed minimal organization setup");
     }
 
     /**
-     * Complete organization setup with full data
+     * Complete organization setup with full data; optional fields missing from the step are
+     * skipped, the organization name is required
      */
     public void completeOrganizationSetupFull(String organizationName, String industry, String size, String country) {
-        enterOrganizationName(organizationName);
-        selectIndustry(industry);
-        selectCompanySize(size);
-        selectCountry(country);
+        Map<String, String> values = new LinkedHashMap<>();
+        values.put("organizationName", organizationName);
+        values.put("industry", industry);
+        values.put("companySize", size);
+        values.put("country", country);
+        waitForPageReady();
+        List<String> absent = fillOnboardingForm(values);
+        if (absent.contains("organizationName")) {
+            throw new NoSuchElementException("Organization setup is missing required fields: " + absent);
+        }
+        if (!absent.isEmpty()) {
+            logger.info("Organization setup fields not on this step: {}", absent);
+        }
         clickNext();
         logger.info("Completed full organization setup");
     }
 
+    /**
+     * Fill the current onboarding step in one browser call. Keys are organizationName, industry,
+     * companySize, country, timezone, currency, jobTitle and department; dropdowns take the
+     * visible option text.
+     *
+     * @return names of the fields that were not found on the current step
+     */
+    public List<String> fillOnboardingForm(Map<String, String> values) {
+        FillResult result = fillForm(formFields, values);
+        logger.info("Filled onboarding fields: {}", result.getFilled());
+        return result.getAbsent();
+    }
+
     /**
      * Skip current step
      */
@@ -234,28 +291,30 @@ public class OnboardingPage extends BasePage {
         int currentStep = 0;
         
         while (isOnOnboardingPage() && currentStep < maxSteps) {
+            Map<String, By> controls = new LinkedHashMap<>();
+            controls.put("organizationName", organizationNameField);
+            controls.put("finish", finishButton);
+            controls.put("next", nextButton);
+            controls.put("skip", skipButton);
+            Map<String, ElementState> step = resolveLocators(controls);
+
             // Fill minimal required data if present
-            if (isElementDisplayed(organizationNameField)) {
+            if (step.get("organizationName").isVisible()) {
                 enterOrganizationName("Test Company");
             }
             
             // Try to proceed to next step
-            if (isElementDisplayed(finishButton)) {
+            if (step.get("finish").isVisible()) {
                 clickFinish();
                 break;
-            } else if (isElementDisplayed(nextButton)) {
+            } else if (step.get("next").isVisible()) {
                 clickNext();
-            } else if (isElementDisplayed(skipButton)) {
+            } else if (step.get("skip").isVisible()) {
                 clickSkip();
             }
             
             currentStep++;
-            // Wait for page transition
-            try {
-                Thread.sleep(1000);
-            } catch (InterruptedException e) {
-                Thread.currentThread().interrupt();
-            }
+            waitForPageToSettle();
         }
         logger.info("Completed onboarding process");
     }
@@ -288,7 +347,7 @@ public class OnboardingPage extends BasePage {
      * Get error message
      */
     public String getErrorMessage() {
-        if (isElementDisplayed(errorMessage)) {
+        if (isElementDisplayed(errorMessage, transitionTimeout())) {
             return getText(errorMessage);
         }
         return "";
@@ -298,24 +357,24 @@ public class OnboardingPage extends BasePage {
      * Check if onboarding is completed
      */
     public boolean isOnboardingCompleted() {
-        // Wait for potential redirect
-        try {
-            Thread.sleep(2000);
-        } catch (InterruptedException e) {
-            Thread.currentThread().interrupt();
-        }
+        waitForOutcome(
+                Outcome.url("dashboard", "dashboard"),
+                Outcome.url("home", "home"),
+                Outcome.element("dashboard", dashboardIndicator),
+                Outcome.element("complete", completionMessage),
+                Outcome.element("error", errorMessage));
         
-        return isElementDisplayed(dashboardIndicator) ||
-               isElementDisplayed(completionMessage) ||
-               getCurrentUrl().contains("dashboard") ||
-               getCurrentUrl().contains("home") ||
-               !getCurrentUrl().contains("onboarding");
+        String currentUrl = getCurrentUrl();
+        return currentUrl.contains("dashboard") ||
+               currentUrl.contains("home") ||
+               !currentUrl.contains("onboarding") ||
+               isAnyElementDisplayed(dashboardIndicator, completionMessage);
     }
 
     /**
      * Check if error is displayed
      */
     public boolean isErrorDisplayed() {
-        return isElementDisplayed(errorMessage);
+        return isElementDisplayed(errorMessage, transitionTimeout());
     }
 }
\ No newline at end of file
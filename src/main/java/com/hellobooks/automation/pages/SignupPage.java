@@ -1,42 +1,67 @@
 package com.hellobooks.automation.pages;
 
+import com.hellobooks.automation.utils.BatchLocatorResolver.ElementState;
+import com.hellobooks.automation.utils.FormFiller.FillResult;
+import com.hellobooks.automation.utils.LocatorCompiler;
+import com.hellobooks.automation.utils.OutcomeDetector.Outcome;
 import org.openqa.selenium.By;
+import org.openqa.selenium.NoSuchElementException;
 import org.openqa.selenium.WebDriver;
 import org.openqa.selenium.WebElement;
 
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
 /**
  * Page object for Signup/Registration functionality
  */
 public class SignupPage extends BasePage {
 
     // Form field locators - Generic selectors that should work with most applications
-    private final By firstNameField = By.cssSelector("input[name*='firstName'], input[name*='first_name'], input[placeholder*='first name' i], #firstName, #first_name");
-    private final By lastNameField = By.cssSelector("input[name*='lastName'], input[name*='last_name'], input[placeholder*='last name' i], #lastName, #last_name");
-    private final By emailField = By.cssSelector("input[type='email'], input[name*='email'], input[placeholder*='email' i], #email");
-    private final By passwordField = By.cssSelector("input[type='password'], input[name*='password'], input[placeholder*='password' i], #password");
-    private final By confirmPasswordField = By.cssSelector("input[name*='confirm'], input[name*='repeat'], input[placeholder*='confirm' i], #confirmPassword, #confirm_password");
-    private final By phoneField = By.cssSelector("input[type='tel'], input[name*='phone'], input[placeholder*='phone' i], #phone");
-    private final By companyField = By.cssSelector("input[name*='company'], input[name*='organization'], input[placeholder*='company' i], #company");
+    private final By firstNameField = LocatorCompiler.compile("input[name*='firstName'], input[name*='first_name'], input[placeholder*='first name' i], #firstName, #first_name");
+    private final By lastNameField = LocatorCompiler.compile("input[name*='lastName'], input[name*='last_name'], input[placeholder*='last name' i], #lastName, #last_name");
+    private final By emailField = LocatorCompiler.compile("input[type='email'], input[name*='email'], input[placeholder*='email' i], #email");
+    private final By passwordField = LocatorCompiler.compile("input[type='password'], input[name*='password'], input[placeholder*='password' i], #password");
+    private final By confirmPasswordField = LocatorCompiler.compile("input[name*='confirm'], input[name*='repeat'], input[placeholder*='confirm' i], #confirmPassword, #confirm_password");
+    private final By phoneField = LocatorCompiler.compile("input[type='tel'], input[name*='phone'], input[placeholder*='phone' i], #phone");
+    private final By companyField = LocatorCompiler.compile("input[name*='company'], input[name*='organization'], input[placeholder*='company' i], #company");
     
     // Checkboxes and buttons
-    private final By termsCheckbox = By.cssSelector("input[type='checkbox'][name*='terms'], input[type='checkbox'][id*='terms'], input[type='checkbox'][name*='agree']");
-    private final By signupButton = By.cssSelector("button[type='submit'], button:contains('Sign Up'), button:contains('Register'), button:contains('Create Account'), input[type='submit']");
-    private final By loginLink = By.cssSelector("a[href*='login'], a:contains('Login'), a:contains('Sign In')");
+    private final By termsCheckbox = LocatorCompiler.compile("input[type='checkbox'][name*='terms'], input[type='checkbox'][id*='terms'], input[type='checkbox'][name*='agree']");
+    private final By signupButton = LocatorCompiler.compile("button[type='submit'], button:contains('Sign Up'), button:contains('Register'), button:contains('Create Account'), input[type='submit']");
+    private final By loginLink = LocatorCompiler.compile("a[href*='login'], a:contains('Login'), a:contains('Sign In')");
     
     // Error message locators
-    private final By emailErrorMessage = By.cssSelector(".error:contains('email'), .field-error:contains('email'), [data-testid*='email-error'], .invalid-feedback:contains('email')");
-    private final By passwordErrorMessage = By.cssSelector(".error:contains('password'), .field-error:contains('password'), [data-testid*='password-error'], .invalid-feedback:contains('password')");
-    private final By confirmPasswordErrorMessage = By.cssSelector(".error:contains('confirm'), .field-error:contains('confirm'), [data-testid*='confirm-error']");
-    private final By firstNameErrorMessage = By.cssSelector(".error:contains('first'), .field-error:contains('name'), [data-testid*='firstname-error']");
-    private final By generalErrorMessage = By.cssSelector(".error, .alert-error, .notification-error, [data-testid*='error'], .invalid-feedback");
+    private final By emailErrorMessage = LocatorCompiler.compile(".error:contains('email'), .field-error:contains('email'), [data-testid*='email-error'], .invalid-feedback:contains('email')");
+    private final By passwordErrorMessage = LocatorCompiler.compile(".error:contains('password'), .field-error:contains('password'), [data-testid*='password-error'], .invalid-feedback:contains('password')");
+    private final By confirmPasswordErrorMessage = LocatorCompiler.compile(".error:contains('confirm'), .field-error:contains('confirm'), [data-testid*='confirm-error']");
+    private final By firstNameErrorMessage = LocatorCompiler.compile(".error:contains('first'), .field-error:contains('name'), [data-testid*='firstname-error']");
+    private final By generalErrorMessage = LocatorCompiler.compile(".error, .alert-error, .notification-error, [data-testid*='error'], .invalid-feedback");
     
     // Success and navigation indicators
-    private final By successMessage = By.cssSelector(".success, .alert-success, .notification-success, [data-testid*='success']");
-    private final By verificationMessage = By.cssSelector("*:contains('verification'), *:contains('confirm your email'), *:contains('check your email')");
-    private final By onboardingIndicator = By.cssSelector("[data-testid*='onboarding'], .onboarding, *:contains('Welcome'), *:contains('Setup')");
+    private final By successMessage = LocatorCompiler.compile(".success, .alert-success, .notification-success, [data-testid*='success']");
+    private final By verificationMessage = LocatorCompiler.compile("*:contains('verification'), *:contains('confirm your email'), *:contains('check your email')");
+    private final By onboardingIndicator = LocatorCompiler.compile("[data-testid*='onboarding'], .onboarding, *:contains('Welcome'), *:contains('Setup')");
+
+    // Form fields by name, for bulk filling
+    private final Map<String, By> formFields = new LinkedHashMap<>();
 
     public SignupPage(WebDriver driver) {
         super(driver);
+        formFields.put("firstName", firstNameField);
+        formFields.put("lastName", lastNameField);
+        formFields.put("email", emailField);
+        formFields.put("password", passwordField);
+        formFields.put("confirmPassword", confirmPasswordField);
+        formFields.put("phone", phoneField);
+        formFields.put("company", companyField);
+        formFields.put("terms", termsCheckbox);
+    }
+
+    @Override
+    protected By getReadyIndicator() {
+        return emailField;
     }
 
     /**
@@ -45,7 +70,7 @@ public class SignupPage extends BasePage {
     public void navigateToSignupPage() {
         String signupUrl = config.getBaseUrl() + "/signup";
         navigateToUrl(signupUrl);
-        waitForPageToLoad();
+        waitForPageReady();
         logger.info("Navigated to signup page");
     }
 
@@ -55,7 +80,7 @@ public class SignupPage extends BasePage {
     public void navigateToRegisterPage() {
         String registerUrl = config.getBaseUrl() + "/register";
         navigateToUrl(registerUrl);
-        waitForPageToLoad();
+        waitForPageReady();
         logger.info("Navigated to register page");
     }
 
@@ -176,14 +201,12 @@ public class SignupPage extends BasePage {
      * Perform complete signup with minimal required fields
      */
     public void signupMinimal(String email, String password) {
-        enterEmail(email);
-        enterPassword(password);
-        if (isElementDisplayed(confirmPasswordField)) {
-            enterConfirmPassword(password);
-        }
-        if (isElementDisplayed(termsCheckbox)) {
-            acceptTerms(true);
-        }
+        Map<String, String> values = new LinkedHashMap<>();
+        values.put("email", email);
+        values.put("password", password);
+        values.put("confirmPassword", password);
+        values.put("terms", "true");
+        fillSignupForm(values);
         clickSignupButton();
         logger.info("Performed minimal signup for email: {}", email);
     }
@@ -192,22 +215,37 @@ public class SignupPage extends BasePage {
      * Perform complete signup with all fields
      */
     public void signupComplete(String firstName, String lastName, String email, String password, String phone, String company) {
-        enterFirstName(firstName);
-        enterLastName(lastName);
-        enterEmail(email);
-        enterPassword(password);
-        if (isElementDisplayed(confirmPasswordField)) {
-            enterConfirmPassword(password);
-        }
-        enterPhone(phone);
-        enterCompany(company);
-        if (isElementDisplayed(termsCheckbox)) {
-            acceptTerms(true);
-        }
+        Map<String, String> values = new LinkedHashMap<>();
+        values.put("firstName", firstName);
+        values.put("lastName", lastName);
+        values.put("email", email);
+        values.put("password", password);
+        values.put("confirmPassword", password);
+        values.put("phone", phone);
+        values.put("company", company);
+        values.put("terms", "true");
+        fillSignupForm(values);
         clickSignupButton();
         logger.info("Performed complete signup for email: {}", email);
     }
 
+    /**
+     * Fill the signup form in one browser call. Keys are firstName, lastName, email, password,
+     * confirmPassword, phone, company and terms ("true"/"false"); fields missing from the page
+     * are skipped, except email and password which the form must have.
+     *
+     * @return names of the fields that were not found on the page
+     */
+    public List<String> fillSignupForm(Map<String, String> values) {
+        waitForElementToBeVisible(emailField);
+        FillResult result = fillForm(formFields, values);
+        if (result.isAbsent("email") || result.isAbsent("password")) {
+            throw new NoSuchElementException("Signup form is missing required fields: " + result.getAbsent());
+        }
+        logger.info("Filled signup form fields: {}", result.getFilled());
+        return result.getAbsent();
+    }
+
     /**
      * Check if password is masked
      */
@@ -238,7 +276,7 @@ public class SignupPage extends BasePage {
      * Get email error message
      */
     public String getEmailErrorMessage() {
-        if (isElementDisplayed(emailErrorMessage)) {
+        if (isElementDisplayed(emailErrorMessage, transitionTimeout())) {
             return getText(emailErrorMessage);
         }
         return "";
@@ -248,7 +286,7 @@ public class SignupPage extends BasePage {
      * Get password error message
      */
     public String getPasswordErrorMessage() {
-        if (isElementDisplayed(passwordErrorMessage)) {
+        if (isElementDisplayed(passwordErrorMessage, transitionTimeout())) {
             return getText(passwordErrorMessage);
         }
         return "";
@@ -258,7 +296,7 @@ public class SignupPage extends BasePage {
      * Get confirm password error message
      */
     public String getConfirmPasswordErrorMessage() {
-        if (isElementDisplayed(confirmPasswordErrorMessage)) {
+        if (isElementDisplayed(confirmPasswordErrorMessage, transitionTimeout())) {
             return getText(confirmPasswordErrorMessage);
         }
         return "";
@@ -268,7 +306,7 @@ public class SignupPage extends BasePage {
      * Get first name error message
      */
     public String getFirstNameErrorMessage() {
-        if (isElementDisplayed(firstNameErrorMessage)) {
+        if (isElementDisplayed(firstNameErrorMessage, transitionTimeout())) {
             return getText(firstNameErrorMessage);
         }
         return "";
@@ -278,7 +316,7 @@ public class SignupPage extends BasePage {
      * Get general error message
      */
     public String getGeneralErrorMessage() {
-        if (isElementDisplayed(generalErrorMessage)) {
+        if (isElementDisplayed(generalErrorMessage, transitionTimeout())) {
             return getText(generalErrorMessage);
         }
         return "";
@@ -288,30 +326,29 @@ public class SignupPage extends BasePage {
      * Check if any error message is displayed
      */
     public boolean isErrorMessageDisplayed() {
-        return isElementDisplayed(generalErrorMessage) || 
-               isElementDisplayed(emailErrorMessage) || 
-               isElementDisplayed(passwordErrorMessage) ||
-               isElementDisplayed(confirmPasswordErrorMessage) ||
-               isElementDisplayed(firstNameErrorMessage);
+        // Server-side validation (e.g. a duplicate email) renders only after the submit is answered
+        return isAnyElementDisplayed(transitionTimeout(), generalErrorMessage, emailErrorMessage, passwordErrorMessage,
+                confirmPasswordErrorMessage, firstNameErrorMessage);
     }
 
     /**
      * Check if signup was successful
      */
     public boolean isSignupSuccessful() {
-        // Wait a bit for potential redirect or success message
-        try {
-            Thread.sleep(2000);
-        } catch (InterruptedException e) {
-            Thread.currentThread().interrupt();
-        }
+        waitForOutcome(
+                Outcome.url("verification", "verify"),
+                Outcome.url("verification", "confirmation"),
+                Outcome.url("onboarding", "onboarding"),
+                Outcome.element("verification", verificationMessage),
+                Outcome.element("onboarding", onboardingIndicator),
+                Outcome.element("success", successMessage),
+                Outcome.element("error", generalErrorMessage));
         
-        return isElementDisplayed(successMessage) || 
-               isElementDisplayed(verificationMessage) ||
-               getCurrentUrl().contains("verify") ||
-               getCurrentUrl().contains("confirmation") ||
-               getCurrentUrl().contains("onboarding") ||
-               isElementDisplayed(onboardingIndicator);
+        String currentUrl = getCurrentUrl();
+        return currentUrl.contains("verify") ||
+               currentUrl.contains("confirmation") ||
+               currentUrl.contains("onboarding") ||
+               isAnyElementDisplayed(successMessage, verificationMessage, onboardingIndicator);
     }
 
     /**
@@ -343,13 +380,20 @@ public class SignupPage extends BasePage {
      * Clear all form fields
      */
     public void clearAllFields() {
-        if (isElementDisplayed(firstNameField)) driver.findElement(firstNameField).clear();
-        if (isElementDisplayed(lastNameField)) driver.findElement(lastNameField).clear();
-        if (isElementDisplayed(emailField)) driver.findElement(emailField).clear();
-        if (isElementDisplayed(passwordField)) driver.findElement(passwordField).clear();
-        if (isElementDisplayed(confirmPasswordField)) driver.findElement(confirmPasswordField).clear();
-        if (isElementDisplayed(phoneField)) driver.findElement(phoneField).clear();
-        if (isElementDisplayed(companyField)) driver.findElement(companyField).clear();
+        Map<String, By> fields = new LinkedHashMap<>();
+        fields.put("firstName", firstNameField);
+        fields.put("lastName", lastNameField);
+        fields.put("email", emailField);
+        fields.put("password", passwordField);
+        fields.put("confirmPassword", confirmPasswordField);
+        fields.put("phone", phoneField);
+        fields.put("company", companyField);
+
+        for (ElementState field : resolveLocators(fields).values()) {
+            if (field.isVisible()) {
+                field.getElement().clear();
+            }
+        }
         logger.info("Cleared all signup form fields");
     }
 
@@ -357,6 +401,10 @@ public class SignupPage extends BasePage {
      * Check if all required fields are present
      */
     public boolean areRequiredFieldsPresent() {
-        return isElementDisplayed(emailField) && isElementDisplayed(passwordField) && isElementDisplayed(signupButton);
+        Map<String, By> requiredFields = new LinkedHashMap<>();
+        requiredFields.put("email", emailField);
+        requiredFields.put("password", passwordField);
+        requiredFields.put("signupButton", signupButton);
+        return resolveLocators(requiredFields).values().stream().allMatch(ElementState::isVisible);
     }
 }
\ No newline at end of file
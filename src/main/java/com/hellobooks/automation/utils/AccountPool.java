@@ -0,0 +1,155 @@
+package com.hellobooks.automation.utils;
+
+import com.hellobooks.automation.config.ConfigManager;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Pool of verified users created ahead of time, in bulk and in the background, so tests
+ * that only need a logged-in fresh user skip the UI signup, email verification and OTP
+ * wait. Every lease hands out a user that no other test has seen. The pool is filled to
+ * account.pool.size up front and only provisions another batch when a lease finds it
+ * empty, so no users are wasted beyond the configured size. Returns null when the pool
+ * is disabled or provisioning fails, in which case callers fall back to UI signup.
+ */
+public class AccountPool {
+    private static final Logger logger = LoggerFactory.getLogger(AccountPool.class);
+    private static final ConfigManager config = ConfigManager.getInstance();
+
+    /** Consecutive failed batches after which the pool stops provisioning */
+    private static final int MAX_CONSECUTIVE_FAILURES = 3;
+
+    private static final BlockingQueue<TestAccount> available = new LinkedBlockingQueue<>();
+    /** Accounts requested from the provisioner but not yet returned */
+    private static final AtomicInteger pending = new AtomicInteger();
+    private static final AtomicInteger consecutiveFailures = new AtomicInteger();
+    private static final LongAdder provisioned = new LongAdder();
+    private static final LongAdder leased = new LongAdder();
+    private static final LongAdder fallbacks = new LongAdder();
+    private static final LongAdder leaseWaitNanos = new LongAdder();
+    private static volatile boolean disabled;
+
+    private static final ExecutorService provisioning = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "account-provisioning");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private static final AccountProvisioner provisioner = AccountProvisioner.forMode(config.getAccountProvisioningMode());
+
+    static {
+        Runtime.getRuntime().addShutdownHook(new Thread(AccountPool::logSummary, "account-pool-summary"));
+    }
+
+    private AccountPool() {
+    }
+
+    public static boolean isEnabled() {
+        return config.isAccountPoolEnabled() && !disabled;
+    }
+
+    /**
+     * Start provisioning users in the background, e.g. before the first test of a class
+     */
+    public static void prewarm() {
+        if (isEnabled()) {
+            refill();
+        }
+    }
+
+    /**
+     * Take a fresh verified user, waiting for provisioning in flight up to account.pool.lease.timeout;
+     * fills the pool on first use if {@link #prewarm()} was not called
+     *
+     * @return the user, or null when none can be provided and the caller should sign up through the UI
+     */
+    public static TestAccount lease() {
+        if (!isEnabled()) {
+            return null;
+        }
+        if (leased.sum() == 0) {
+            refill();
+        } else if (available.isEmpty() && pending.get() == 0) {
+            provisionMore(config.getAccountPoolBatchSize());
+        }
+
+        long start = System.nanoTime();
+        long deadline = start + TimeUnit.SECONDS.toNanos(config.getAccountPoolLeaseTimeout());
+        TestAccount account = null;
+        try {
+            // Stop waiting as soon as nothing is in flight that could still fill the pool
+            while (account == null && System.nanoTime() < deadline && (pending.get() > 0 || !available.isEmpty())) {
+                account = available.poll(200, TimeUnit.MILLISECONDS);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        leaseWaitNanos.add(System.nanoTime() - start);
+
+        if (account == null) {
+            fallbacks.increment();
+            logger.warn("No pre-provisioned account available, falling back to UI signup");
+            return null;
+        }
+        leased.increment();
+        logger.info("Leased pre-provisioned account: {}", account);
+        return account;
+    }
+
+    private static synchronized void refill() {
+        provisionMore(config.getAccountPoolSize() - available.size() - pending.get());
+    }
+
+    private static synchronized void provisionMore(int deficit) {
+        if (disabled) {
+            return;
+        }
+        while (deficit > 0) {
+            int batch = Math.min(deficit, config.getAccountPoolBatchSize());
+            pending.addAndGet(batch);
+            provisioning.submit(() -> provisionBatch(batch));
+            deficit -= batch;
+        }
+    }
+
+    private static void provisionBatch(int count) {
+        try {
+            List<TestAccount> created = provisioner.provision(count);
+            available.addAll(created);
+            provisioned.add(created.size());
+            consecutiveFailures.set(0);
+        } catch (IllegalStateException e) {
+            disabled = true;
+            logger.warn("Account pool disabled: {}", e.getMessage());
+        } catch (Exception e) {
+            logger.warn("Failed to provision {} accounts: {}", count, e.getMessage());
+            if (consecutiveFailures.incrementAndGet() >= MAX_CONSECUTIVE_FAILURES) {
+                disabled = true;
+                logger.warn("Account pool disabled after {} failed batches", MAX_CONSECUTIVE_FAILURES);
+            }
+        } finally {
+            pending.addAndGet(-count);
+        }
+    }
+
+    /**
+     * Log how many users were provisioned and leased and how long tests waited for them
+     */
+    public static void logSummary() {
+        if (provisioned.sum() == 0 && fallbacks.sum() == 0) {
+            return;
+        }
+        long leases = leased.sum() + fallbacks.sum();
+        logger.info("Account pool: {} provisioned, {} leased, {} UI signup fallbacks, {} unused, avg lease wait {} ms",
+                provisioned.sum(), leased.sum(), fallbacks.sum(), available.size(),
+                leases == 0 ? 0 : TimeUnit.NANOSECONDS.toMillis(leaseWaitNanos.sum() / leases));
+    }
+}
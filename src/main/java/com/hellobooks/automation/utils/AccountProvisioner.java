@@ -0,0 +1,39 @@
+package com.hellobooks.automation.utils;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * Backend creating verified test users in bulk, outside the browser
+ */
+public interface AccountProvisioner {
+
+    /**
+     * Create verified users that can log in immediately
+     *
+     * @param count number of users to create
+     * @return the created users; may be fewer than requested
+     */
+    List<TestAccount> provision(int count) throws IOException;
+
+    /**
+     * Provisioner for a configured mode
+     *
+     * @param mode "api" for the account provisioning API, "local" for offline runs
+     */
+    static AccountProvisioner forMode(String mode) {
+        switch (mode.toLowerCase()) {
+            case "api":
+                return new ApiAccountProvisioner();
+            case "local":
+                return new LocalAccountProvisioner();
+            default:
+                Logger logger = LoggerFactory.getLogger(AccountProvisioner.class);
+                logger.warn("Unknown account provisioning mode: {}. Using local provisioning", mode);
+                return new LocalAccountProvisioner();
+        }
+    }
+}
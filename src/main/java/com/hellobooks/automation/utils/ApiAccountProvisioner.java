@@ -0,0 +1,81 @@
+package com.hellobooks.automation.utils;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.hellobooks.automation.config.ConfigManager;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Creates verified users through the test-account provisioning endpoint
+ * (account.provisioning.api.url). Credentials are generated here and sent in one bulk
+ * request, so the caller knows every password; the endpoint creates the users with their
+ * email already verified and answers 2xx when all of them exist.
+ */
+public class ApiAccountProvisioner implements AccountProvisioner {
+    private static final Logger logger = LoggerFactory.getLogger(ApiAccountProvisioner.class);
+    private static final ConfigManager config = ConfigManager.getInstance();
+    private static final ObjectMapper objectMapper = new ObjectMapper();
+
+    private final HttpClient httpClient = HttpClient.newBuilder()
+            .connectTimeout(Duration.ofSeconds(10))
+            .build();
+
+    @Override
+    public List<TestAccount> provision(int count) throws IOException {
+        String url = config.getAccountProvisioningApiUrl();
+        if (url.isEmpty()) {
+            throw new IllegalStateException("account.provisioning.api.url is not set");
+        }
+
+        List<TestAccount> accounts = new ArrayList<>(count);
+        List<Map<String, Object>> users = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            TestAccount account = TestAccount.generate();
+            accounts.add(account);
+
+            Map<String, Object> user = new LinkedHashMap<>();
+            user.put("email", account.getEmail());
+            user.put("password", account.getPassword());
+            user.put("firstName", account.getFirstName());
+            user.put("lastName", account.getLastName());
+            user.put("emailVerified", true);
+            users.add(user);
+        }
+
+        HttpRequest.Builder request = HttpRequest.newBuilder(URI.create(url))
+                .timeout(Duration.ofSeconds(config.getAccountProvisioningTimeout()))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofByteArray(objectMapper.writeValueAsBytes(Map.of("users", users))));
+        String apiKey = config.getAccountProvisioningApiKey();
+        if (!apiKey.isEmpty()) {
+            request.header("Authorization", "Bearer " + apiKey);
+        }
+
+        // The request throws checked exceptions, so the span is closed by hand instead of via ExecutionTracer.trace
+        ExecutionTracer.Span span = ExecutionTracer.span("provision " + count + " accounts", "framework");
+        try {
+            HttpResponse<String> response = httpClient.send(request.build(), HttpResponse.BodyHandlers.ofString());
+            if (response.statusCode() / 100 != 2) {
+                throw new IOException("Account provisioning returned HTTP " + response.statusCode() + ": " + response.body());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while provisioning accounts", e);
+        } finally {
+            span.close();
+        }
+        logger.info("Provisioned {} verified accounts via {}", count, url);
+        return accounts;
+    }
+}
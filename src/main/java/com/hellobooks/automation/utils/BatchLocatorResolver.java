@@ -0,0 +1,149 @@
+package com.hellobooks.automation.utils;
+
+import org.openqa.selenium.By;
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebElement;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Resolves a set of named locators with a single executeScript round trip.
+ * Locators built by {@link LocatorCompiler} are evaluated in the browser;
+ * any other locator falls back to a regular findElements call.
+ */
+public class BatchLocatorResolver {
+
+    private static final String RESOLVE_SCRIPT =
+            "var specs = arguments[0], result = {};" +
+            "function query(spec) {" +
+            "  var out = [];" +
+            "  try {" +
+            "    if (spec.css) { out = Array.prototype.slice.call(document.querySelectorAll(spec.css)); }" +
+            "    if (spec.xpath) {" +
+            "      var r = document.evaluate(spec.xpath, document, null, XPathResult.ORDERED_NODE_SNAPSHOT_TYPE, null);" +
+            "      for (var i = 0; i < r.snapshotLength; i++) {" +
+            "        if (out.indexOf(r.snapshotItem(i)) < 0) { out.push(r.snapshotItem(i)); }" +
+            "      }" +
+            "    }" +
+            "  } catch (e) {}" +
+            "  return out;" +
+            "}" +
+            LocatorCompiler.VISIBLE_FUNCTION +
+            "for (var i = 0; i < specs.length; i++) {" +
+            "  var matches = query(specs[i]), el = null;" +
+            "  for (var j = 0; j < matches.length && !el; j++) { if (visible(matches[j])) { el = matches[j]; } }" +
+            "  if (!el && matches.length) { el = matches[0]; }" +
+            "  result[specs[i].name] = el ? {" +
+            "    element: el, visible: visible(el), enabled: !el.disabled," +
+            "    text: (el.innerText || el.value || '').trim()" +
+            "  } : null;" +
+            "}" +
+            "return result;";
+
+    private BatchLocatorResolver() {
+    }
+
+    /**
+     * Resolve every locator in one browser round trip
+     *
+     * @param driver driver to evaluate the locators in
+     * @param locators locators keyed by a caller-chosen name; iteration order is preserved in the result
+     * @return state of the first visible (or else first) match per name
+     */
+    @SuppressWarnings("unchecked")
+    public static Map<String, ElementState> resolve(WebDriver driver, Map<String, By> locators) {
+        Map<String, ElementState> states = new LinkedHashMap<>();
+        List<Map<String, Object>> specs = new ArrayList<>();
+
+        for (Map.Entry<String, By> entry : locators.entrySet()) {
+            if (entry.getValue() instanceof LocatorCompiler.CompiledLocator) {
+                LocatorCompiler.CompiledLocator locator = (LocatorCompiler.CompiledLocator) entry.getValue();
+                Map<String, Object> spec = new HashMap<>();
+                spec.put("name", entry.getKey());
+                spec.put("css", locator.getCss());
+                spec.put("xpath", locator.getXpath());
+                specs.add(spec);
+            }
+        }
+
+        Map<String, Object> browserResult = specs.isEmpty() ? new HashMap<>()
+                : (Map<String, Object>) ((JavascriptExecutor) driver).executeScript(RESOLVE_SCRIPT, specs);
+
+        for (Map.Entry<String, By> entry : locators.entrySet()) {
+            String name = entry.getKey();
+            if (entry.getValue() instanceof LocatorCompiler.CompiledLocator) {
+                states.put(name, toState((Map<String, Object>) browserResult.get(name)));
+            } else {
+                states.put(name, resolveIndividually(driver, entry.getValue()));
+            }
+        }
+        return states;
+    }
+
+    private static ElementState toState(Map<String, Object> raw) {
+        if (raw == null) {
+            return ElementState.ABSENT;
+        }
+        return new ElementState((WebElement) raw.get("element"),
+                Boolean.TRUE.equals(raw.get("visible")),
+                Boolean.TRUE.equals(raw.get("enabled")),
+                String.valueOf(raw.get("text")));
+    }
+
+    private static ElementState resolveIndividually(WebDriver driver, By locator) {
+        try {
+            List<WebElement> elements = driver.findElements(locator);
+            if (elements.isEmpty()) {
+                return ElementState.ABSENT;
+            }
+            WebElement element = elements.get(0);
+            return new ElementState(element, element.isDisplayed(), element.isEnabled(), element.getText());
+        } catch (Exception e) {
+            return ElementState.ABSENT;
+        }
+    }
+
+    /**
+     * Snapshot of a resolved element taken in the same round trip that located it
+     */
+    public static class ElementState {
+        public static final ElementState ABSENT = new ElementState(null, false, false, "");
+
+        private final WebElement element;
+        private final boolean visible;
+        private final boolean enabled;
+        private final String text;
+
+        ElementState(WebElement element, boolean visible, boolean enabled, String text) {
+            this.element = element;
+            this.visible = visible;
+            this.enabled = enabled;
+            this.text = text;
+        }
+
+        public WebElement getElement() {
+            return element;
+        }
+
+        public boolean isPresent() {
+            return element != null;
+        }
+
+        public boolean isVisible() {
+            return visible;
+        }
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public String getText() {
+            return text;
+        }
+    }
+}
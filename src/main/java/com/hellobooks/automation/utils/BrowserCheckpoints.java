@@ -0,0 +1,463 @@
+package com.hellobooks.automation.utils;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.hellobooks.automation.config.ConfigManager;
+import org.openqa.selenium.Cookie;
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebDriverException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.BooleanSupplier;
+
+/**
+ * Named snapshots of browser state (URL, cookies, localStorage, sessionStorage and
+ * IndexedDB) taken at a point of a multi-step flow, e.g. "after-signup-verified", so later
+ * tests on any thread restore that point instead of replaying the steps leading to it.
+ * Checkpoints are cached in memory, and under checkpoint.dir when checkpoint.persist is set,
+ * and are discarded when the base URL or the application version changes, after
+ * checkpoint.ttl.minutes, or when a restored checkpoint does not land where it should.
+ * Checkpoints hold the session cookies and tokens of their account, so they are only
+ * written to disk on request.
+ *
+ * Only browser state is restored; server-side state reached after the checkpoint is not
+ * rolled back. Tests that change that state (e.g. complete onboarding for the user) must
+ * take checkpoints exclusively. A checkpoint is only taken while no running test uses its
+ * account; tests hold the checkpoints they reached until {@link #release()}.
+ */
+public class BrowserCheckpoints {
+    private static final Logger logger = LoggerFactory.getLogger(BrowserCheckpoints.class);
+    private static final ConfigManager config = ConfigManager.getInstance();
+    private static final ObjectMapper objectMapper = new ObjectMapper();
+
+    /** Version from a meta tag, or a hash of the script bundles, which change with each deployment */
+    private static final String APP_VERSION_SCRIPT =
+            "var meta = document.querySelector('meta[name=\"version\"], meta[name=\"app-version\"], meta[name=\"build-version\"]');" +
+            "if (meta && meta.content) { return meta.content; }" +
+            "return Array.prototype.map.call(document.querySelectorAll('script[src]'), function(s) { return s.src; }).sort().join('|');";
+
+    /** Dumps every database with its stores, indexes, keys and JSON-serialisable values */
+    private static final String CAPTURE_INDEXED_DB_SCRIPT =
+            "var done = arguments[arguments.length - 1];" +
+            "if (!window.indexedDB || !indexedDB.databases) { done('[]'); return; }" +
+            "indexedDB.databases().then(function(infos) {" +
+            "  return Promise.all(infos.map(function(info) {" +
+            "    return new Promise(function(resolve) {" +
+            "      var request = indexedDB.open(info.name);" +
+            "      request.onerror = function() { resolve(null); };" +
+            "      request.onsuccess = function() {" +
+            "        var db = request.result;" +
+            "        var names = Array.prototype.slice.call(db.objectStoreNames);" +
+            "        var dump = {name: info.name, version: db.version, stores: []};" +
+            "        if (!names.length) { db.close(); resolve(dump); return; }" +
+            "        var tx = db.transaction(names, 'readonly');" +
+            "        names.forEach(function(name) {" +
+            "          var store = tx.objectStore(name);" +
+            "          var entry = {name: name, keyPath: store.keyPath, autoIncrement: store.autoIncrement, indexes: [], keys: [], values: []};" +
+            "          Array.prototype.forEach.call(store.indexNames, function(indexName) {" +
+            "            var index = store.index(indexName);" +
+            "            entry.indexes.push({name: indexName, keyPath: index.keyPath, unique: index.unique, multiEntry: index.multiEntry});" +
+            "          });" +
+            "          store.getAllKeys().onsuccess = function(e) { entry.keys = e.target.result; };" +
+            "          store.getAll().onsuccess = function(e) { entry.values = e.target.result; };" +
+            "          dump.stores.push(entry);" +
+            "        });" +
+            "        tx.oncomplete = function() { db.close(); resolve(dump); };" +
+            "        tx.onerror = function() { db.close(); resolve(null); };" +
+            "      };" +
+            "    });" +
+            "  }));" +
+            "}).then(function(dumps) { done(JSON.stringify(dumps.filter(Boolean))); }, function() { done('[]'); });";
+
+    /** Recreates the dumped databases; runs on a page without application scripts holding them open */
+    private static final String RESTORE_INDEXED_DB_SCRIPT =
+            "var dumps = JSON.parse(arguments[0]);" +
+            "var done = arguments[arguments.length - 1];" +
+            "if (!window.indexedDB || !dumps.length) { done(true); return; }" +
+            "Promise.all(dumps.map(function(dump) {" +
+            "  return new Promise(function(resolve) {" +
+            "    var deletion = indexedDB.deleteDatabase(dump.name);" +
+            "    deletion.onerror = function() { resolve(false); };" +
+            "    deletion.onsuccess = function() {" +
+            "      var request = indexedDB.open(dump.name, dump.version);" +
+            "      request.onerror = function() { resolve(false); };" +
+            "      request.onupgradeneeded = function() {" +
+            "        var db = request.result;" +
+            "        dump.stores.forEach(function(entry) {" +
+            "          var store = db.createObjectStore(entry.name, {keyPath: entry.keyPath, autoIncrement: entry.autoIncrement});" +
+            "          entry.indexes.forEach(function(index) {" +
+            "            store.createIndex(index.name, index.keyPath, {unique: index.unique, multiEntry: index.multiEntry});" +
+            "          });" +
+            "        });" +
+            "      };" +
+            "      request.onsuccess = function() {" +
+            "        var db = request.result;" +
+            "        if (!dump.stores.length) { db.close(); resolve(true); return; }" +
+            "        var tx = db.transaction(dump.stores.map(function(entry) { return entry.name; }), 'readwrite');" +
+            "        dump.stores.forEach(function(entry) {" +
+            "          var store = tx.objectStore(entry.name);" +
+            "          entry.values.forEach(function(value, i) {" +
+            "            if (entry.keyPath !== null) { store.put(value); } else { store.put(value, entry.keys[i]); }" +
+            "          });" +
+            "        });" +
+            "        tx.oncomplete = function() { db.close(); resolve(true); };" +
+            "        tx.onerror = function() { db.close(); resolve(false); };" +
+            "      };" +
+            "    };" +
+            "  });" +
+            "})).then(function(results) { done(results.every(Boolean)); });";
+
+    private static final Map<String, Checkpoint> checkpoints = new ConcurrentHashMap<>();
+    /** One lock per checkpoint, held to build, restore or take it, so parallel tests wait for one thread to build it */
+    private static final Map<String, Object> locks = new ConcurrentHashMap<>();
+    /** Running tests on the account of each checkpoint, changed under the checkpoint's lock */
+    private static final Map<String, Integer> users = new ConcurrentHashMap<>();
+    /** Checkpoints reached by the test running on this thread */
+    private static final ThreadLocal<List<String>> held = ThreadLocal.withInitial(ArrayList::new);
+    private static final LongAdder restored = new LongAdder();
+    private static final LongAdder built = new LongAdder();
+    private static final LongAdder invalidated = new LongAdder();
+
+    static {
+        Runtime.getRuntime().addShutdownHook(new Thread(BrowserCheckpoints::logSummary, "checkpoint-summary"));
+    }
+
+    private BrowserCheckpoints() {
+    }
+
+    /**
+     * Bring the browser to a checkpoint, restoring it when cached and otherwise running the
+     * steps leading to it and capturing the result for later tests
+     *
+     * @param name         checkpoint name, e.g. "after-signup-verified"
+     * @param exclusive    true when the test changes server-side state after the checkpoint; an
+     *                     idle checkpoint is then taken out of the cache and nothing is captured
+     *                     for others. Otherwise the test holds the checkpoint until {@link #release()}
+     * @param steps        replays the flow up to the checkpoint
+     * @param atCheckpoint checks that the browser is at the checkpoint
+     * @return whether the browser reached the checkpoint
+     */
+    public static boolean reach(WebDriver driver, String name, boolean exclusive, Runnable steps, BooleanSupplier atCheckpoint) {
+        if (!config.isCheckpointsEnabled()) {
+            steps.run();
+            return atCheckpoint.getAsBoolean();
+        }
+
+        if (exclusive) {
+            // Take the checkpoint out of the cache first so no other test restores the same account
+            Checkpoint checkpoint = take(name);
+            if (checkpoint != null && restore(driver, checkpoint) && verify(name, atCheckpoint)) {
+                return true;
+            }
+            runSteps(name, steps);
+            return atCheckpoint.getAsBoolean();
+        }
+
+        synchronized (lockOf(name)) {
+            Checkpoint checkpoint = get(name);
+            if (checkpoint != null && restore(driver, checkpoint) && verify(name, atCheckpoint)) {
+                hold(name);
+                return true;
+            }
+            runSteps(name, steps);
+            if (!atCheckpoint.getAsBoolean()) {
+                return false;
+            }
+            capture(driver, name);
+            hold(name);
+            return true;
+        }
+    }
+
+    /**
+     * Release the checkpoints reached by the test on this thread, so exclusive tests may take them
+     */
+    public static void release() {
+        for (String name : held.get()) {
+            synchronized (lockOf(name)) {
+                users.computeIfPresent(name, (key, count) -> count > 1 ? count - 1 : null);
+            }
+        }
+        held.remove();
+    }
+
+    private static void hold(String name) {
+        users.merge(name, 1, Integer::sum);
+        held.get().add(name);
+    }
+
+    /**
+     * Capture the current browser state as a checkpoint, replacing any previous one
+     */
+    public static void capture(WebDriver driver, String name) {
+        ExecutionTracer.trace("capture checkpoint " + name, "framework", () -> captureState(driver, name));
+    }
+
+    private static void captureState(WebDriver driver, String name) {
+        try {
+            Checkpoint checkpoint = new Checkpoint();
+            checkpoint.name = name;
+            checkpoint.baseUrl = config.getBaseUrl();
+            checkpoint.url = driver.getCurrentUrl();
+            checkpoint.capturedAt = System.currentTimeMillis();
+
+            JavascriptExecutor js = (JavascriptExecutor) driver;
+            checkpoint.appVersion = detectAppVersion(driver);
+            long expiresAt = checkpoint.capturedAt + config.getCheckpointTtlMinutes() * 60_000L;
+            for (Cookie cookie : driver.manage().getCookies()) {
+                checkpoint.cookies.add(toMap(cookie));
+                Date expiry = cookie.getExpiry();
+                if (expiry != null) {
+                    expiresAt = Math.min(expiresAt, expiry.getTime());
+                }
+            }
+            checkpoint.expiresAt = expiresAt;
+
+            Map<String, Map<String, Object>> storage = BrowserStorage.captureWebStorage(driver);
+            checkpoint.localStorage = storage.get("local");
+            checkpoint.sessionStorage = storage.get("session");
+            checkpoint.indexedDb = (String) js.executeAsyncScript(CAPTURE_INDEXED_DB_SCRIPT);
+
+            checkpoints.put(name, checkpoint);
+            write(checkpoint);
+            built.increment();
+            logger.info("Captured checkpoint '{}' at {} ({} cookies, {} localStorage, {} sessionStorage items)",
+                    name, checkpoint.url, checkpoint.cookies.size(), checkpoint.localStorage.size(), checkpoint.sessionStorage.size());
+        } catch (WebDriverException | ClassCastException e) {
+            logger.warn("Failed to capture checkpoint '{}': {}", name, e.getMessage());
+        }
+    }
+
+    /**
+     * Discard a checkpoint from memory and disk
+     */
+    public static void invalidate(String name) {
+        checkpoints.remove(name);
+        File file = fileOf(name);
+        if (file.exists() && !file.delete()) {
+            logger.warn("Failed to delete checkpoint file {}", file);
+        }
+        invalidated.increment();
+        logger.info("Invalidated checkpoint '{}'", name);
+    }
+
+    private static void runSteps(String name, Runnable steps) {
+        ExecutionTracer.trace("build checkpoint " + name, "framework", steps);
+    }
+
+    private static boolean verify(String name, BooleanSupplier atCheckpoint) {
+        if (atCheckpoint.getAsBoolean()) {
+            restored.increment();
+            logger.info("Restored checkpoint '{}'", name);
+            return true;
+        }
+        logger.info("Checkpoint '{}' did not restore to the expected state", name);
+        invalidate(name);
+        return false;
+    }
+
+    private static Object lockOf(String name) {
+        return locks.computeIfAbsent(name, key -> new Object());
+    }
+
+    private static Checkpoint take(String name) {
+        synchronized (lockOf(name)) {
+            if (users.containsKey(name)) {
+                // The account is still in use; changing its server-side state would break that test
+                logger.info("Checkpoint '{}' is in use by {} running test(s); replaying the steps", name, users.get(name));
+                return null;
+            }
+            Checkpoint checkpoint = get(name);
+            if (checkpoint != null) {
+                checkpoints.remove(name);
+                File file = fileOf(name);
+                if (file.exists() && !file.delete()) {
+                    logger.warn("Failed to delete checkpoint file {}", file);
+                }
+            }
+            return checkpoint;
+        }
+    }
+
+    /**
+     * Checkpoint from memory or disk, or null when missing or no longer valid for this run
+     */
+    private static Checkpoint get(String name) {
+        Checkpoint checkpoint = checkpoints.computeIfAbsent(name, BrowserCheckpoints::read);
+        if (checkpoint == null) {
+            return null;
+        }
+        if (!config.getBaseUrl().equals(checkpoint.baseUrl)) {
+            logger.info("Checkpoint '{}' was captured for {}, not {}", name, checkpoint.baseUrl, config.getBaseUrl());
+            invalidate(name);
+            return null;
+        }
+        if (System.currentTimeMillis() > checkpoint.expiresAt) {
+            logger.info("Checkpoint '{}' expired", name);
+            invalidate(name);
+            return null;
+        }
+        return checkpoint;
+    }
+
+    private static boolean restore(WebDriver driver, Checkpoint checkpoint) {
+        return ExecutionTracer.trace("restore checkpoint " + checkpoint.name, "framework", () -> restoreState(driver, checkpoint));
+    }
+
+    private static boolean restoreState(WebDriver driver, Checkpoint checkpoint) {
+        try {
+            String origin = BrowserStorage.originOf(checkpoint.baseUrl);
+            if (!driver.getCurrentUrl().startsWith(origin)) {
+                driver.get(checkpoint.baseUrl);
+            }
+            String appVersion = detectAppVersion(driver);
+            if (!appVersion.equals(checkpoint.appVersion)) {
+                logger.info("Application version changed since checkpoint '{}' was captured", checkpoint.name);
+                invalidate(checkpoint.name);
+                return false;
+            }
+
+            // Inject from a page without application scripts, which could hold IndexedDB open or rewrite storage
+            List<Cookie> cookies = new ArrayList<>();
+            for (Map<String, Object> cookie : checkpoint.cookies) {
+                cookies.add(toCookie(cookie));
+            }
+            BrowserStorage.inject(driver, origin, config.getCheckpointBootstrapPath(), cookies,
+                    checkpoint.localStorage, checkpoint.sessionStorage);
+            if (!Boolean.TRUE.equals(((JavascriptExecutor) driver).executeAsyncScript(RESTORE_INDEXED_DB_SCRIPT, checkpoint.indexedDb))) {
+                logger.warn("IndexedDB of checkpoint '{}' was only partly restored", checkpoint.name);
+            }
+            BrowserStorage.open(driver, checkpoint.url);
+            return true;
+        } catch (WebDriverException | IllegalArgumentException e) {
+            logger.warn("Failed to restore checkpoint '{}': {}", checkpoint.name, e.getMessage());
+            invalidate(checkpoint.name);
+            return false;
+        }
+    }
+
+    private static String detectAppVersion(WebDriver driver) {
+        String configured = config.getAppVersion();
+        if (!configured.isEmpty()) {
+            return configured;
+        }
+        Object detected = ((JavascriptExecutor) driver).executeScript(APP_VERSION_SCRIPT);
+        String version = detected != null ? detected.toString() : "";
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(version.getBytes(StandardCharsets.UTF_8));
+            StringBuilder hex = new StringBuilder();
+            for (int i = 0; i < 8; i++) {
+                hex.append(String.format("%02x", digest[i]));
+            }
+            return hex.toString();
+        } catch (NoSuchAlgorithmException e) {
+            return Integer.toHexString(version.hashCode());
+        }
+    }
+
+    private static Map<String, Object> toMap(Cookie cookie) {
+        Map<String, Object> map = new LinkedHashMap<>();
+        map.put("name", cookie.getName());
+        map.put("value", cookie.getValue());
+        map.put("domain", cookie.getDomain());
+        map.put("path", cookie.getPath());
+        map.put("expiry", cookie.getExpiry() != null ? cookie.getExpiry().getTime() : null);
+        map.put("secure", cookie.isSecure());
+        map.put("httpOnly", cookie.isHttpOnly());
+        map.put("sameSite", cookie.getSameSite());
+        return map;
+    }
+
+    private static Cookie toCookie(Map<String, Object> map) {
+        Cookie.Builder builder = new Cookie.Builder((String) map.get("name"), (String) map.get("value"))
+                .domain((String) map.get("domain"))
+                .path((String) map.get("path"))
+                .isSecure(Boolean.TRUE.equals(map.get("secure")))
+                .isHttpOnly(Boolean.TRUE.equals(map.get("httpOnly")));
+        if (map.get("expiry") != null) {
+            builder.expiresOn(new Date(((Number) map.get("expiry")).longValue()));
+        }
+        if (map.get("sameSite") != null) {
+            builder.sameSite((String) map.get("sameSite"));
+        }
+        return builder.build();
+    }
+
+    private static File fileOf(String name) {
+        return new File(config.getCheckpointDir(), name.replaceAll("[^A-Za-z0-9._-]", "_") + ".json");
+    }
+
+    private static Checkpoint read(String name) {
+        File file = fileOf(name);
+        if (!config.isCheckpointPersistEnabled() || !file.exists()) {
+            return null;
+        }
+        try {
+            return objectMapper.readValue(file, Checkpoint.class);
+        } catch (IOException e) {
+            logger.warn("Ignoring unreadable checkpoint {}: {}", file, e.getMessage());
+            return null;
+        }
+    }
+
+    private static void write(Checkpoint checkpoint) {
+        if (!config.isCheckpointPersistEnabled()) {
+            return;
+        }
+        Path path = fileOf(checkpoint.name).toPath();
+        try {
+            Path parent = path.toAbsolutePath().getParent();
+            Files.createDirectories(parent);
+            Path tempFile = Files.createTempFile(parent, "checkpoint", ".tmp");
+            objectMapper.writeValue(tempFile.toFile(), checkpoint);
+            Files.move(tempFile, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            logger.warn("Failed to write checkpoint {}: {}", path, e.getMessage());
+        }
+    }
+
+    /**
+     * Log how often checkpoints replaced replaying a flow
+     */
+    public static void logSummary() {
+        if (restored.sum() == 0 && built.sum() == 0) {
+            return;
+        }
+        logger.info("Browser checkpoints: {} captured, {} restored, {} invalidated",
+                built.sum(), restored.sum(), invalidated.sum());
+    }
+
+    /**
+     * Browser state at a named point, stored as JSON
+     */
+    public static class Checkpoint {
+        public String name;
+        public String baseUrl;
+        public String appVersion;
+        public String url;
+        public long capturedAt;
+        public long expiresAt;
+        public List<Map<String, Object>> cookies = new ArrayList<>();
+        public Map<String, Object> localStorage = new HashMap<>();
+        public Map<String, Object> sessionStorage = new HashMap<>();
+        /** JSON dump of the IndexedDB databases, restored by the same page script that produced it */
+        public String indexedDb = "[]";
+    }
+}
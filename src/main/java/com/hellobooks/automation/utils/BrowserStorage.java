@@ -0,0 +1,87 @@
+package com.hellobooks.automation.utils;
+
+import com.hellobooks.automation.config.ConfigManager;
+import org.openqa.selenium.Cookie;
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.support.ui.WebDriverWait;
+
+import java.net.URI;
+import java.time.Duration;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Captures and injects the cookies and web storage of the application origin, shared by
+ * {@link SessionCache} and {@link BrowserCheckpoints}. Cookies and storage can only be set for
+ * the origin of the current document, so injection first loads a lightweight bootstrap
+ * resource of that origin, which runs no application scripts that could rewrite them.
+ */
+final class BrowserStorage {
+    private static final ConfigManager config = ConfigManager.getInstance();
+
+    private static final String CAPTURE_STORAGE_SCRIPT =
+            "var dump = function(storage) {" +
+            "  var items = {};" +
+            "  for (var i = 0; i < storage.length; i++) { var key = storage.key(i); items[key] = storage.getItem(key); }" +
+            "  return items;" +
+            "};" +
+            "return {local: dump(window.localStorage), session: dump(window.sessionStorage)};";
+
+    private static final String RESTORE_STORAGE_SCRIPT =
+            "var restore = function(storage, items) {" +
+            "  storage.clear();" +
+            "  Object.keys(items).forEach(function(key) { storage.setItem(key, items[key]); });" +
+            "};" +
+            "restore(window.localStorage, arguments[0]);" +
+            "restore(window.sessionStorage, arguments[1]);";
+
+    private BrowserStorage() {
+    }
+
+    /**
+     * Scheme and authority of a URL, e.g. https://dev.hellobooks.ai
+     */
+    static String originOf(String url) {
+        URI uri = URI.create(url);
+        return uri.getScheme() + "://" + uri.getAuthority();
+    }
+
+    /**
+     * localStorage and sessionStorage of the current document, keyed "local" and "session"
+     */
+    @SuppressWarnings("unchecked")
+    static Map<String, Map<String, Object>> captureWebStorage(WebDriver driver) {
+        Map<String, Map<String, Object>> storage =
+                (Map<String, Map<String, Object>>) ((JavascriptExecutor) driver).executeScript(CAPTURE_STORAGE_SCRIPT);
+        Map<String, Map<String, Object>> result = new HashMap<>();
+        result.put("local", storage != null && storage.get("local") != null ? storage.get("local") : new HashMap<>());
+        result.put("session", storage != null && storage.get("session") != null ? storage.get("session") : new HashMap<>());
+        return result;
+    }
+
+    /**
+     * Load the bootstrap resource of the origin and replace its cookies and web storage.
+     * The browser stays on the bootstrap resource, so callers can inject more before {@link #open}.
+     */
+    static void inject(WebDriver driver, String origin, String bootstrapPath, Collection<Cookie> cookies,
+                       Map<String, Object> localStorage, Map<String, Object> sessionStorage) {
+        driver.get(origin + bootstrapPath);
+        driver.manage().deleteAllCookies();
+        for (Cookie cookie : cookies) {
+            driver.manage().addCookie(cookie);
+        }
+        ((JavascriptExecutor) driver).executeScript(RESTORE_STORAGE_SCRIPT, localStorage, sessionStorage);
+    }
+
+    /**
+     * Navigate to the restored URL and wait until its document has loaded, since the eager and
+     * none page load strategies return from driver.get before the application starts
+     */
+    static void open(WebDriver driver, String url) {
+        driver.get(url);
+        new WebDriverWait(driver, Duration.ofSeconds(config.getExplicitWait())).until(webDriver ->
+                "complete".equals(((JavascriptExecutor) webDriver).executeScript("return document.readyState")));
+    }
+}
@@ -0,0 +1,296 @@
+package com.hellobooks.automation.utils;
+
+import org.openqa.selenium.Alert;
+import org.openqa.selenium.NoSuchWindowException;
+import org.openqa.selenium.PageLoadStrategy;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebDriverException;
+import org.openqa.selenium.WebElement;
+import org.openqa.selenium.WindowType;
+import org.openqa.selenium.chrome.ChromeDriver;
+import org.openqa.selenium.chrome.ChromeOptions;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Shares one Chrome process between several tests. Every test gets its own
+ * incognito-style browser context, created through the DevTools Target domain,
+ * and a ChromeDriver session attached to that context's tab.
+ *
+ * An attached session sees the tabs of every context in the process, so the driver
+ * scopes window handles, window switching and new windows to the targets of its own
+ * context, looked up with Target.getTargets.
+ */
+public class ChromeContextHost {
+    private static final Logger logger = LoggerFactory.getLogger(ChromeContextHost.class);
+    private static final List<ChromeContextHost> hosts = new ArrayList<>();
+
+    private final ChromeDriver hostDriver;
+    private final String debuggerAddress;
+    private final Object pageLoadStrategy;
+    private int activeContexts;
+
+    private ChromeContextHost(ChromeOptions baseOptions) {
+        int port = findFreePort();
+        ChromeOptions hostOptions = new ChromeOptions().merge(baseOptions);
+        hostOptions.addArguments("--remote-debugging-port=" + port);
+        this.hostDriver = new ChromeDriver(hostOptions);
+        this.debuggerAddress = "127.0.0.1:" + port;
+        this.pageLoadStrategy = baseOptions.getCapability("pageLoadStrategy");
+        logger.info("Launched shared Chrome process for browser contexts at {}", debuggerAddress);
+    }
+
+    /**
+     * Create a driver bound to a fresh browser context, launching another shared
+     * Chrome process only when every existing one already hosts the configured number of contexts.
+     *
+     * @param baseOptions options used to launch a new shared Chrome process
+     * @param contextsPerProcess maximum number of contexts per Chrome process
+     */
+    public static WebDriver createContextDriver(ChromeOptions baseOptions, int contextsPerProcess) {
+        ChromeContextHost host;
+        synchronized (hosts) {
+            host = hosts.stream()
+                    .filter(candidate -> candidate.activeContexts < contextsPerProcess)
+                    .findFirst()
+                    .orElse(null);
+            if (host == null) {
+                host = new ChromeContextHost(baseOptions);
+                hosts.add(host);
+            }
+            host.activeContexts++;
+        }
+
+        try {
+            return host.openContext();
+        } catch (RuntimeException e) {
+            synchronized (hosts) {
+                host.activeContexts--;
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Whether the driver is attached to a browser context of a shared Chrome process
+     */
+    public static boolean isContextDriver(WebDriver driver) {
+        return driver instanceof ContextChromeDriver;
+    }
+
+    /**
+     * Quit every shared Chrome process
+     */
+    public static void shutdownAll() {
+        synchronized (hosts) {
+            for (ChromeContextHost host : hosts) {
+                try {
+                    host.hostDriver.quit();
+                } catch (Exception e) {
+                    logger.debug("Ignoring error while quitting shared Chrome process: {}", e.getMessage());
+                }
+            }
+            hosts.clear();
+        }
+    }
+
+    private WebDriver openContext() {
+        Map<String, Object> contextParams = new HashMap<>();
+        contextParams.put("disposeOnDetach", false);
+        String browserContextId = (String) hostDriver
+                .executeCdpCommand("Target.createBrowserContext", contextParams)
+                .get("browserContextId");
+
+        String targetId = createTarget(browserContextId);
+
+        ChromeOptions attachOptions = new ChromeOptions();
+        attachOptions.setExperimentalOption("debuggerAddress", debuggerAddress);
+        if (pageLoadStrategy != null) {
+            attachOptions.setPageLoadStrategy(PageLoadStrategy.fromString(pageLoadStrategy.toString()));
+        }
+        ContextChromeDriver driver = new ContextChromeDriver(attachOptions, this, browserContextId);
+
+        String handle = driver.handleOf(targetId);
+        if (handle == null) {
+            driver.quit();
+            throw new WebDriverException("Tab for browser context " + browserContextId + " not found");
+        }
+        driver.switchTo().window(handle);
+
+        logger.info("Opened browser context {} in shared Chrome at {}", browserContextId, debuggerAddress);
+        return driver;
+    }
+
+    /**
+     * Target IDs of the pages that belong to a browser context, including tabs the test opened
+     */
+    @SuppressWarnings("unchecked")
+    private Set<String> targetsOf(String browserContextId) {
+        Map<String, Object> result = hostDriver.executeCdpCommand("Target.getTargets", new HashMap<>());
+        Set<String> targetIds = new LinkedHashSet<>();
+        for (Map<String, Object> target : (List<Map<String, Object>>) result.get("targetInfos")) {
+            if (browserContextId.equals(target.get("browserContextId")) && "page".equals(target.get("type"))) {
+                targetIds.add((String) target.get("targetId"));
+            }
+        }
+        return targetIds;
+    }
+
+    private String createTarget(String browserContextId) {
+        Map<String, Object> params = new HashMap<>();
+        params.put("url", "about:blank");
+        params.put("browserContextId", browserContextId);
+        return (String) hostDriver.executeCdpCommand("Target.createTarget", params).get("targetId");
+    }
+
+    private void disposeContext(String browserContextId) {
+        try {
+            Map<String, Object> params = new HashMap<>();
+            params.put("browserContextId", browserContextId);
+            hostDriver.executeCdpCommand("Target.disposeBrowserContext", params);
+            logger.debug("Disposed browser context {}", browserContextId);
+        } catch (Exception e) {
+            logger.warn("Failed to dispose browser context {}: {}", browserContextId, e.getMessage());
+        } finally {
+            synchronized (hosts) {
+                activeContexts--;
+            }
+        }
+    }
+
+    private static int findFreePort() {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        } catch (IOException e) {
+            throw new WebDriverException("Unable to allocate a remote debugging port", e);
+        }
+    }
+
+    /**
+     * ChromeDriver attached to a shared Chrome process; quitting it disposes its browser context
+     */
+    private static final class ContextChromeDriver extends ChromeDriver {
+        private final ChromeContextHost host;
+        private final String browserContextId;
+
+        private ContextChromeDriver(ChromeOptions options, ChromeContextHost host, String browserContextId) {
+            super(options);
+            this.host = host;
+            this.browserContextId = browserContextId;
+        }
+
+        /**
+         * Window handles of this context's tabs only; ChromeDriver handles are target IDs
+         */
+        @Override
+        public Set<String> getWindowHandles() {
+            Set<String> owned = host.targetsOf(browserContextId);
+            Set<String> handles = new LinkedHashSet<>();
+            for (String handle : super.getWindowHandles()) {
+                if (owned.stream().anyMatch(targetId -> matches(handle, targetId))) {
+                    handles.add(handle);
+                }
+            }
+            return handles;
+        }
+
+        @Override
+        public TargetLocator switchTo() {
+            return new ContextTargetLocator(super.switchTo());
+        }
+
+        private String handleOf(String targetId) {
+            return super.getWindowHandles().stream()
+                    .filter(handle -> matches(handle, targetId))
+                    .findFirst()
+                    .orElse(null);
+        }
+
+        private static boolean matches(String handle, String targetId) {
+            return handle.equals(targetId) || handle.endsWith(targetId);
+        }
+
+        /**
+         * Switches only to windows of this context and opens new windows inside it
+         */
+        private final class ContextTargetLocator implements TargetLocator {
+            private final TargetLocator delegate;
+
+            private ContextTargetLocator(TargetLocator delegate) {
+                this.delegate = delegate;
+            }
+
+            @Override
+            public WebDriver window(String nameOrHandle) {
+                if (!getWindowHandles().contains(nameOrHandle)) {
+                    throw new NoSuchWindowException("Window " + nameOrHandle + " does not belong to browser context "
+                            + browserContextId);
+                }
+                return delegate.window(nameOrHandle);
+            }
+
+            @Override
+            public WebDriver newWindow(WindowType typeHint) {
+                // ChromeDriver would open the window in the default context, shared by every test
+                String handle = handleOf(host.createTarget(browserContextId));
+                if (handle == null) {
+                    throw new NoSuchWindowException("New window of browser context " + browserContextId + " not found");
+                }
+                return delegate.window(handle);
+            }
+
+            @Override
+            public WebDriver frame(int index) {
+                return delegate.frame(index);
+            }
+
+            @Override
+            public WebDriver frame(String nameOrId) {
+                return delegate.frame(nameOrId);
+            }
+
+            @Override
+            public WebDriver frame(WebElement frameElement) {
+                return delegate.frame(frameElement);
+            }
+
+            @Override
+            public WebDriver parentFrame() {
+                return delegate.parentFrame();
+            }
+
+            @Override
+            public WebDriver defaultContent() {
+                return delegate.defaultContent();
+            }
+
+            @Override
+            public WebElement activeElement() {
+                return delegate.activeElement();
+            }
+
+            @Override
+            public Alert alert() {
+                return delegate.alert();
+            }
+        }
+
+        @Override
+        public void quit() {
+            try {
+                super.quit();
+            } finally {
+                host.disposeContext(browserContextId);
+            }
+        }
+    }
+}
@@ -0,0 +1,139 @@
+package com.hellobooks.automation.utils;
+
+import com.hellobooks.automation.config.ConfigManager;
+import org.openqa.selenium.support.events.WebDriverListener;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Times every WebDriver command into a histogram per command and browser, so slowness
+ * can be attributed to the app (waits and scripts), the browser or the driver transport.
+ * Histograms are exported in OpenMetrics text format and summarised as p50/p95/p99.
+ */
+public class CommandLatencyRecorder implements WebDriverListener {
+    private static final Logger logger = LoggerFactory.getLogger(CommandLatencyRecorder.class);
+    private static final ConfigManager config = ConfigManager.getInstance();
+
+    /** Calls answered by the client without a round trip to the browser */
+    private static final Set<String> LOCAL_METHODS = new HashSet<>(Arrays.asList(
+            "manage", "navigate", "switchTo", "timeouts", "window", "logs",
+            "getWrappedDriver", "getWrappedElement", "toString", "hashCode", "equals"));
+
+    /** Export every fourth bucket boundary, i.e. two buckets per doubling */
+    private static final int EXPORT_BUCKET_STEP = 4;
+
+    private static final Map<String, LatencyHistogram> histograms = new ConcurrentHashMap<>();
+    private static final ThreadLocal<Deque<Long>> startTimes = ThreadLocal.withInitial(ArrayDeque::new);
+
+    private final String browser;
+
+    public CommandLatencyRecorder(String browser) {
+        this.browser = browser;
+    }
+
+    @Override
+    public void beforeAnyCall(Object target, Method method, Object[] args) {
+        if (!LOCAL_METHODS.contains(method.getName())) {
+            startTimes.get().push(System.nanoTime());
+        }
+    }
+
+    @Override
+    public void afterAnyCall(Object target, Method method, Object[] args, Object result) {
+        record(method);
+    }
+
+    @Override
+    public void onError(Object target, Method method, Object[] args, InvocationTargetException e) {
+        record(method);
+    }
+
+    private void record(Method method) {
+        if (LOCAL_METHODS.contains(method.getName())) {
+            return;
+        }
+        Long start = startTimes.get().poll();
+        if (start != null) {
+            histograms.computeIfAbsent(method.getName() + "\u0000" + browser, key -> new LatencyHistogram())
+                    .record(System.nanoTime() - start);
+        }
+    }
+
+    /**
+     * Percentile summary per command and browser, slowest total time first:
+     * rows of {command, browser, count, p50 ms, p95 ms, p99 ms, total s}
+     */
+    public static List<String[]> summaryRows() {
+        List<Map.Entry<String, LatencyHistogram>> entries = new ArrayList<>(histograms.entrySet());
+        entries.sort((a, b) -> Double.compare(b.getValue().getSumSeconds(), a.getValue().getSumSeconds()));
+
+        List<String[]> rows = new ArrayList<>();
+        for (Map.Entry<String, LatencyHistogram> entry : entries) {
+            String[] labels = entry.getKey().split("\u0000");
+            LatencyHistogram histogram = entry.getValue();
+            rows.add(new String[] {labels[0], labels[1], String.valueOf(histogram.getCount()),
+                    String.format("%.1f", histogram.getPercentileMillis(50)),
+                    String.format("%.1f", histogram.getPercentileMillis(95)),
+                    String.format("%.1f", histogram.getPercentileMillis(99)),
+                    String.format("%.2f", histogram.getSumSeconds())});
+        }
+        return rows;
+    }
+
+    /**
+     * Write all histograms to the configured OpenMetrics text file
+     *
+     * @return path of the written file, or null when nothing was recorded or writing failed
+     */
+    public static Path exportOpenMetrics() {
+        if (histograms.isEmpty()) {
+            return null;
+        }
+        Path file = Paths.get(config.getCommandLatencyMetricsFile());
+        Map<String, LatencyHistogram> sorted = new TreeMap<>(histograms);
+        try {
+            Files.createDirectories(file.toAbsolutePath().getParent());
+            try (PrintWriter writer = new PrintWriter(Files.newBufferedWriter(file, StandardCharsets.UTF_8))) {
+                writer.println("# TYPE webdriver_command_duration_seconds histogram");
+                writer.println("# UNIT webdriver_command_duration_seconds seconds");
+                writer.println("# HELP webdriver_command_duration_seconds Client-side latency of WebDriver commands.");
+                for (Map.Entry<String, LatencyHistogram> entry : sorted.entrySet()) {
+                    String[] labels = entry.getKey().split("\u0000");
+                    String series = String.format("command=\"%s\",browser=\"%s\"", labels[0], labels[1]);
+                    LatencyHistogram histogram = entry.getValue();
+                    for (double[] bucket : histogram.cumulativeBuckets(EXPORT_BUCKET_STEP)) {
+                        String le = Double.isInfinite(bucket[0]) ? "+Inf" : String.format("%.6f", bucket[0]);
+                        writer.printf("webdriver_command_duration_seconds_bucket{%s,le=\"%s\"} %d%n", series, le, (long) bucket[1]);
+                    }
+                    writer.printf("webdriver_command_duration_seconds_count{%s} %d%n", series, histogram.getCount());
+                    writer.printf("webdriver_command_duration_seconds_sum{%s} %.6f%n", series, histogram.getSumSeconds());
+                }
+                writer.println("# EOF");
+            }
+            logger.info("WebDriver command latency histograms written to {}", file);
+            return file;
+        } catch (IOException e) {
+            logger.warn("Failed to write command latency metrics {}: {}", file, e.getMessage());
+            return null;
+        }
+    }
+}
@@ -0,0 +1,216 @@
+package com.hellobooks.automation.utils;
+
+import com.hellobooks.automation.config.ConfigManager;
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.NoSuchSessionException;
+import org.openqa.selenium.ScriptTimeoutException;
+import org.openqa.selenium.TimeoutException;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebDriverException;
+import org.openqa.selenium.WebElement;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Push-based waits: a MutationObserver installed in the page resolves a single
+ * executeAsyncScript call as soon as the condition holds, instead of polling
+ * the driver every 500 ms from the JVM.
+ */
+public class DomWaiter {
+    private static final Logger logger = LoggerFactory.getLogger(DomWaiter.class);
+    private static final ConfigManager config = ConfigManager.getInstance();
+
+    /** Poll interval of WebDriverWait, used to estimate the latency saved */
+    private static final long POLLING_INTERVAL_MILLIS = 500;
+
+    private static final LongAdder waits = new LongAdder();
+    private static final LongAdder savedMillis = new LongAdder();
+    private static final LongAdder savedPolls = new LongAdder();
+
+    private static final String WAIT_SCRIPT =
+            "var spec = arguments[0], done = arguments[arguments.length - 1];" +
+            "var start = performance.now(), finished = false, observer, backstop, timer;" +
+            "function query() {" +
+            "  var out = [];" +
+            "  try {" +
+            "    if (spec.css) { out = Array.prototype.slice.call(document.querySelectorAll(spec.css)); }" +
+            "    if (spec.xpath) {" +
+            "      var r = document.evaluate(spec.xpath, document, null, XPathResult.ORDERED_NODE_SNAPSHOT_TYPE, null);" +
+            "      for (var i = 0; i < r.snapshotLength; i++) { out.push(r.snapshotItem(i)); }" +
+            "    }" +
+            "  } catch (e) {}" +
+            "  return out;" +
+            "}" +
+            LocatorCompiler.VISIBLE_FUNCTION +
+            "function evaluate() {" +
+            "  if (spec.condition === 'url') { return location.href.indexOf(spec.text) >= 0 ? true : null; }" +
+            "  var matches = query();" +
+            "  if (spec.condition === 'hidden') {" +
+            "    for (var i = 0; i < matches.length; i++) { if (visible(matches[i])) { return null; } }" +
+            "    return true;" +
+            "  }" +
+            "  for (var j = 0; j < matches.length; j++) {" +
+            "    if (!visible(matches[j])) { continue; }" +
+            "    if (spec.condition === 'text' && (matches[j].innerText || matches[j].value || '').indexOf(spec.text) < 0) { continue; }" +
+            "    return matches[j];" +
+            "  }" +
+            "  return null;" +
+            "}" +
+            "function finish(ok, value) {" +
+            "  if (finished) { return; }" +
+            "  finished = true;" +
+            "  if (observer) { observer.disconnect(); }" +
+            "  clearInterval(backstop); clearTimeout(timer);" +
+            "  window.removeEventListener('popstate', check); window.removeEventListener('hashchange', check);" +
+            "  done({ok: ok, element: value === true ? null : value, elapsed: performance.now() - start});" +
+            "}" +
+            "function check() { var value = evaluate(); if (value) { finish(true, value); } }" +
+            "check();" +
+            "if (!finished) {" +
+            "  observer = new MutationObserver(check);" +
+            "  observer.observe(document, {childList: true, subtree: true, attributes: true, characterData: true});" +
+            "  window.addEventListener('popstate', check); window.addEventListener('hashchange', check);" +
+            "  backstop = setInterval(check, 250);" +
+            "  timer = setTimeout(function () { finish(false, null); }, spec.timeout);" +
+            "}";
+
+    static {
+        Runtime.getRuntime().addShutdownHook(new Thread(DomWaiter::logSummary, "dom-waiter-summary"));
+    }
+
+    private DomWaiter() {
+    }
+
+    /**
+     * Wait until an element matching the locator is visible
+     */
+    public static WebElement waitForVisible(WebDriver driver, LocatorCompiler.CompiledLocator locator, Duration timeout) {
+        return (WebElement) await(driver, spec(locator, "visible", null), timeout, locator.toString());
+    }
+
+    /**
+     * Wait until no element matching the locator is visible
+     */
+    public static boolean waitForHidden(WebDriver driver, LocatorCompiler.CompiledLocator locator, Duration timeout) {
+        await(driver, spec(locator, "hidden", null), timeout, locator.toString());
+        return true;
+    }
+
+    /**
+     * Wait until a visible element matching the locator contains the text
+     */
+    public static boolean waitForText(WebDriver driver, LocatorCompiler.CompiledLocator locator, String text, Duration timeout) {
+        await(driver, spec(locator, "text", text), timeout, locator.toString());
+        return true;
+    }
+
+    /**
+     * Wait until the current URL contains the given fragment
+     */
+    public static boolean waitForUrlContains(WebDriver driver, String fragment, Duration timeout) {
+        await(driver, urlSpec(fragment), timeout, "url containing " + fragment);
+        return true;
+    }
+
+    static Map<String, Object> urlSpec(String fragment) {
+        Map<String, Object> spec = new HashMap<>();
+        spec.put("condition", "url");
+        spec.put("text", fragment);
+        return spec;
+    }
+
+    static Map<String, Object> spec(LocatorCompiler.CompiledLocator locator, String condition, String text) {
+        Map<String, Object> spec = new HashMap<>();
+        spec.put("css", locator.getCss());
+        spec.put("xpath", locator.getXpath());
+        spec.put("condition", condition);
+        spec.put("text", text);
+        return spec;
+    }
+
+    private static Object await(WebDriver driver, Map<String, Object> spec, Duration timeout, String description) {
+        Map<String, Object> result = runAsyncWait(driver, WAIT_SCRIPT, spec, timeout, description);
+        recordSaving(result.get("elapsed"));
+        return result.get("element");
+    }
+
+    /**
+     * Run an async wait script until it reports {@code ok: true}, splitting long timeouts into
+     * chunks that fit the script timeout and re-running the script when a navigation unloads
+     * the document mid-wait. The script receives the spec (with a "timeout" entry) and must
+     * call back with a map containing at least an "ok" flag. Any other driver error, e.g. a
+     * JavaScript error in the script or a dead session, is rethrown at once.
+     */
+    @SuppressWarnings("unchecked")
+    static Map<String, Object> runAsyncWait(WebDriver driver, String script, Map<String, Object> spec,
+                                            Duration timeout, String description) {
+        long deadline = System.currentTimeMillis() + timeout.toMillis();
+        long maxChunkMillis = Math.max(1000, config.getExplicitWait() * 1000L);
+
+        while (true) {
+            long remaining = deadline - System.currentTimeMillis();
+            if (remaining <= 0) {
+                throw new TimeoutException("Timed out after " + timeout.toMillis() + " ms waiting for " + description);
+            }
+            spec.put("timeout", Math.min(remaining, maxChunkMillis));
+
+            Map<String, Object> result;
+            try {
+                result = (Map<String, Object>) ((JavascriptExecutor) driver).executeAsyncScript(script, spec);
+            } catch (ScriptTimeoutException | TimeoutException e) {
+                continue;
+            } catch (WebDriverException e) {
+                if (!isDocumentReplaced(e)) {
+                    // Script errors and dead sessions will not go away by waiting longer
+                    throw e;
+                }
+                logger.debug("Push wait interrupted by navigation, retrying: {}", e.getMessage());
+                continue;
+            }
+
+            if (result != null && Boolean.TRUE.equals(result.get("ok"))) {
+                return result;
+            }
+        }
+    }
+
+    /**
+     * Whether the script failed because a navigation unloaded the document it was running in.
+     * Chromium reports this as a JavaScript error, so it is recognised by its message.
+     */
+    static boolean isDocumentReplaced(WebDriverException e) {
+        if (e instanceof NoSuchSessionException || e.getMessage() == null) {
+            return false;
+        }
+        String message = e.getMessage().toLowerCase();
+        return message.contains("document unloaded")
+                || message.contains("target navigated or closed")
+                || message.contains("execution context was destroyed")
+                || message.contains("cannot find context with specified id");
+    }
+
+    private static void recordSaving(Object elapsed) {
+        long elapsedMillis = elapsed instanceof Number ? Math.round(((Number) elapsed).doubleValue()) : 0;
+        waits.increment();
+        if (elapsedMillis > 0) {
+            // A poller would only have noticed the change at its next poll boundary
+            savedMillis.add(POLLING_INTERVAL_MILLIS - (elapsedMillis % POLLING_INTERVAL_MILLIS));
+            savedPolls.add(elapsedMillis / POLLING_INTERVAL_MILLIS);
+        }
+    }
+
+    /**
+     * Log the estimated latency and driver commands saved compared with 500 ms polling
+     */
+    public static void logSummary() {
+        if (waits.sum() > 0) {
+            logger.info("Push waits: {} completed, ~{} ms latency and ~{} polling commands saved compared with WebDriverWait",
+                    waits.sum(), savedMillis.sum(), savedPolls.sum());
+        }
+    }
+}
@@ -0,0 +1,192 @@
+package com.hellobooks.automation.utils;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.hellobooks.automation.config.ConfigManager;
+import io.github.bonigarcia.wdm.WebDriverManager;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Resolves browser driver binaries once per JVM and remembers them across runs
+ * in a local manifest keyed by the installed browser version.
+ */
+public class DriverBinaryResolver {
+    private static final Logger logger = LoggerFactory.getLogger(DriverBinaryResolver.class);
+    private static final ConfigManager config = ConfigManager.getInstance();
+    private static final ObjectMapper objectMapper = new ObjectMapper();
+    private static final Pattern VERSION_PATTERN = Pattern.compile("(\\d+(?:\\.\\d+)+)");
+
+    private static final Map<String, String> resolvedDrivers = new ConcurrentHashMap<>();
+
+    private DriverBinaryResolver() {
+    }
+
+    /**
+     * Make sure the driver binary for the given browser is available and registered.
+     * Only the first call per browser does any work; later calls return immediately.
+     *
+     * @param browser chrome, firefox or edge
+     * @return absolute path of the driver binary
+     */
+    public static String resolve(String browser) {
+        return resolvedDrivers.computeIfAbsent(browser.toLowerCase(), DriverBinaryResolver::resolveOnce);
+    }
+
+    private static String resolveOnce(String browser) {
+        long start = System.nanoTime();
+        String systemProperty = getDriverSystemProperty(browser);
+
+        // 1. Explicitly configured driver binary always wins
+        String configured = config.getProperty("driver.path." + browser, System.getProperty(systemProperty));
+        if (configured != null && new File(configured).canExecute()) {
+            System.setProperty(systemProperty, configured);
+            logResolution(browser, "configured path", configured, start);
+            return configured;
+        }
+
+        // 2. Manifest hit for the installed browser version
+        WebDriverManager manager = getManager(browser);
+        String browserVersion = detectBrowserVersion(manager);
+        String manifestKey = browser + "@" + browserVersion;
+        Map<String, String> manifest = readManifest();
+        String cachedPath = manifest.get(manifestKey);
+        if (cachedPath != null && new File(cachedPath).canExecute()) {
+            System.setProperty(systemProperty, cachedPath);
+            logResolution(browser, "manifest " + manifestKey, cachedPath, start);
+            return cachedPath;
+        }
+
+        // 3. Fall back to WebDriverManager and record the result for later runs
+        if (config.isDriverResolutionOffline()) {
+            manager.useLocalVersionsPropertiesFirst().avoidReadReleaseFromRepository();
+        }
+        manager.setup();
+        String driverPath = manager.getDownloadedDriverPath();
+        if (driverPath == null) {
+            throw new IllegalStateException("Unable to resolve " + browser + " driver binary");
+        }
+        System.setProperty(systemProperty, driverPath);
+        storeInManifest(manifestKey, driverPath);
+        logResolution(browser, "WebDriverManager", driverPath, start);
+        return driverPath;
+    }
+
+    private static WebDriverManager getManager(String browser) {
+        switch (browser) {
+            case "chrome":
+                return WebDriverManager.chromedriver();
+            case "firefox":
+                return WebDriverManager.firefoxdriver();
+            case "edge":
+                return WebDriverManager.edgedriver();
+            default:
+                throw new IllegalArgumentException("Browser not supported: " + browser);
+        }
+    }
+
+    private static String getDriverSystemProperty(String browser) {
+        switch (browser) {
+            case "chrome":
+                return "webdriver.chrome.driver";
+            case "firefox":
+                return "webdriver.gecko.driver";
+            case "edge":
+                return "webdriver.edge.driver";
+            default:
+                throw new IllegalArgumentException("Browser not supported: " + browser);
+        }
+    }
+
+    /**
+     * Detect the installed browser version without touching the network.
+     * Falls back to a fingerprint of the browser binary when it cannot report its version.
+     */
+    private static String detectBrowserVersion(WebDriverManager manager) {
+        Optional<Path> browserPath = manager.getBrowserPath();
+        if (browserPath.isEmpty()) {
+            return "unknown";
+        }
+
+        Path path = browserPath.get();
+        Path output = null;
+        try {
+            // Output goes to a file, so a browser that prints nothing and keeps running
+            // (e.g. Chrome on Windows, which starts a browser) cannot block a read
+            output = Files.createTempFile("browser-version", ".txt");
+            Process process = new ProcessBuilder(path.toString(), "--version")
+                    .redirectErrorStream(true)
+                    .redirectOutput(output.toFile())
+                    .start();
+            if (process.waitFor(5, TimeUnit.SECONDS)) {
+                Matcher matcher = VERSION_PATTERN.matcher(new String(Files.readAllBytes(output), StandardCharsets.UTF_8));
+                if (matcher.find()) {
+                    return matcher.group(1);
+                }
+            } else {
+                logger.debug("{} --version did not exit within 5 seconds", path);
+                process.destroyForcibly();
+            }
+        } catch (IOException e) {
+            logger.debug("Could not run {} --version: {}", path, e.getMessage());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            if (output != null) {
+                output.toFile().delete();
+            }
+        }
+
+        File binary = path.toFile();
+        return "build-" + binary.lastModified() + "-" + binary.length();
+    }
+
+    private static synchronized Map<String, String> readManifest() {
+        File manifestFile = new File(config.getDriverManifestPath());
+        if (!manifestFile.exists()) {
+            return new TreeMap<>();
+        }
+        try {
+            return objectMapper.readValue(manifestFile, new TypeReference<TreeMap<String, String>>() {});
+        } catch (IOException e) {
+            logger.warn("Ignoring unreadable driver manifest {}: {}", manifestFile, e.getMessage());
+            return new TreeMap<>();
+        }
+    }
+
+    private static synchronized void storeInManifest(String key, String driverPath) {
+        Map<String, String> manifest = readManifest();
+        manifest.put(key, driverPath);
+
+        Path manifestPath = Paths.get(config.getDriverManifestPath());
+        try {
+            Path parent = manifestPath.toAbsolutePath().getParent();
+            Files.createDirectories(parent);
+            Path tempFile = Files.createTempFile(parent, "driver-manifest", ".tmp");
+            objectMapper.writerWithDefaultPrettyPrinter().writeValue(tempFile.toFile(), manifest);
+            Files.move(tempFile, manifestPath, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            logger.warn("Failed to update driver manifest {}: {}", manifestPath, e.getMessage());
+        }
+    }
+
+    private static void logResolution(String browser, String source, String driverPath, long startNanos) {
+        long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos);
+        logger.info("Resolved {} driver from {} in {} ms: {}", browser, source, elapsedMillis, driverPath);
+    }
+}
@@ -0,0 +1,188 @@
+package com.hellobooks.automation.utils;
+
+import com.hellobooks.automation.config.ConfigManager;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Pre-flight checks of what every test depends on: the base URL answers, the driver binary
+ * for the browser resolves, and the OTP source is reachable. The checks run in parallel and
+ * together take as long as the slowest one, bounded by preflight.timeout.seconds.
+ */
+public class EnvironmentHealthCheck {
+    private static final Logger logger = LoggerFactory.getLogger(EnvironmentHealthCheck.class);
+    private static final ConfigManager config = ConfigManager.getInstance();
+
+    private EnvironmentHealthCheck() {
+    }
+
+    /**
+     * Run all pre-flight checks in parallel
+     *
+     * @param browser browser whose driver binary must resolve
+     * @return one result per check, in a fixed order
+     */
+    public static List<CheckResult> runPreflight(String browser) {
+        Map<String, Supplier<CheckResult>> checks = new LinkedHashMap<>();
+        checks.put("base URL", EnvironmentHealthCheck::checkBaseUrl);
+        checks.put("driver", () -> checkDriver(browser));
+        checks.put("OTP source", EnvironmentHealthCheck::checkOtpSource);
+
+        ExecutorService executor = Executors.newFixedThreadPool(checks.size(), runnable -> {
+            Thread thread = new Thread(runnable, "preflight-check");
+            thread.setDaemon(true);
+            return thread;
+        });
+        try {
+            return ExecutionTracer.trace("pre-flight health check", "framework", () -> collect(checks, executor));
+        } finally {
+            // Checks still running after the deadline are abandoned; their threads are daemons
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * Run the checks in parallel and collect their results, failing the ones without an answer by the deadline
+     */
+    private static List<CheckResult> collect(Map<String, Supplier<CheckResult>> checks, ExecutorService executor) {
+        Map<String, CompletableFuture<CheckResult>> futures = new LinkedHashMap<>();
+        checks.forEach((name, check) -> futures.put(name, CompletableFuture.supplyAsync(check, executor)));
+
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(config.getPreflightTimeoutSeconds());
+        List<CheckResult> results = new ArrayList<>();
+        for (Map.Entry<String, CompletableFuture<CheckResult>> entry : futures.entrySet()) {
+            try {
+                long remaining = Math.max(0, deadline - System.nanoTime());
+                results.add(entry.getValue().get(remaining, TimeUnit.NANOSECONDS));
+            } catch (java.util.concurrent.TimeoutException e) {
+                results.add(CheckResult.failed(entry.getKey(), "no answer within "
+                        + config.getPreflightTimeoutSeconds() + " s", config.getPreflightTimeoutSeconds() * 1000L));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                results.add(CheckResult.failed(entry.getKey(), "interrupted", 0));
+            } catch (Exception e) {
+                results.add(CheckResult.failed(entry.getKey(), describe(e.getCause() != null ? e.getCause() : e), 0));
+            }
+        }
+        return results;
+    }
+
+    /**
+     * Whether the base URL answers without a server error within preflight.http.timeout.seconds
+     */
+    public static CheckResult checkBaseUrl() {
+        return checkHttp("base URL", config.getBaseUrl());
+    }
+
+    private static CheckResult checkDriver(String browser) {
+        long start = System.currentTimeMillis();
+        try {
+            // Resolution is cached per JVM, so the first test no longer pays for it either
+            String path = DriverBinaryResolver.resolve(browser);
+            return CheckResult.passed("driver", browser + " driver at " + path, System.currentTimeMillis() - start);
+        } catch (Exception e) {
+            return CheckResult.failed("driver", browser + " driver unavailable: " + describe(e), System.currentTimeMillis() - start);
+        }
+    }
+
+    private static CheckResult checkOtpSource() {
+        String mode = config.getOtpMode().toLowerCase();
+        if (!"external_api".equals(mode)) {
+            return CheckResult.passed("OTP source", "otp.mode=" + mode + " needs no external service", 0);
+        }
+        String url = config.getProperty("external.otp.api.url", "");
+        if (url.isEmpty()) {
+            return CheckResult.passed("OTP source", "external.otp.api.url not set; OTPHandler uses the mock value", 0);
+        }
+        return checkHttp("OTP source", url);
+    }
+
+    private static CheckResult checkHttp(String name, String url) {
+        long start = System.currentTimeMillis();
+        Duration timeout = Duration.ofSeconds(config.getPreflightHttpTimeoutSeconds());
+        try {
+            HttpClient client = HttpClient.newBuilder()
+                    .connectTimeout(timeout)
+                    .followRedirects(HttpClient.Redirect.NORMAL)
+                    .build();
+            HttpRequest request = HttpRequest.newBuilder(URI.create(url)).timeout(timeout).GET().build();
+            int status = client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+            long millis = System.currentTimeMillis() - start;
+            if (status >= 500) {
+                return CheckResult.failed(name, url + " answered HTTP " + status, millis);
+            }
+            return CheckResult.passed(name, url + " answered HTTP " + status, millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return CheckResult.failed(name, url + " check interrupted", System.currentTimeMillis() - start);
+        } catch (Exception e) {
+            return CheckResult.failed(name, url + " unreachable: " + describe(e), System.currentTimeMillis() - start);
+        }
+    }
+
+    private static String describe(Throwable e) {
+        return e.getMessage() != null ? e.getClass().getSimpleName() + ": " + e.getMessage() : e.getClass().getSimpleName();
+    }
+
+    /**
+     * Outcome of one check
+     */
+    public static class CheckResult {
+        private final String name;
+        private final boolean healthy;
+        private final String detail;
+        private final long millis;
+
+        private CheckResult(String name, boolean healthy, String detail, long millis) {
+            this.name = name;
+            this.healthy = healthy;
+            this.detail = detail;
+            this.millis = millis;
+        }
+
+        static CheckResult passed(String name, String detail, long millis) {
+            return new CheckResult(name, true, detail, millis);
+        }
+
+        static CheckResult failed(String name, String detail, long millis) {
+            logger.warn("Pre-flight check '{}' failed: {}", name, detail);
+            return new CheckResult(name, false, detail, millis);
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public boolean isHealthy() {
+            return healthy;
+        }
+
+        public String getDetail() {
+            return detail;
+        }
+
+        public long getMillis() {
+            return millis;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%-10s %-4s %5d ms  %s", name, healthy ? "OK" : "FAIL", millis, detail);
+        }
+    }
+}
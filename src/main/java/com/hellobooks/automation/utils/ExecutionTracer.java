@@ -0,0 +1,261 @@
+package com.hellobooks.automation.utils;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.hellobooks.automation.config.ConfigManager;
+import org.openqa.selenium.support.events.WebDriverListener;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.File;
+import java.io.IOException;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.function.Supplier;
+
+/**
+ * Records spans for test methods, test steps, page-object methods, WebDriver commands
+ * and slow framework activities (browser launch, OTP delivery, report flushing), and
+ * writes them at JVM shutdown as a Chrome trace JSON file that opens in chrome://tracing
+ * or Perfetto. Each test thread is one track.
+ */
+public class ExecutionTracer {
+    private static final Logger logger = LoggerFactory.getLogger(ExecutionTracer.class);
+    private static final ConfigManager config = ConfigManager.getInstance();
+    private static final ObjectMapper objectMapper = new ObjectMapper();
+    private static final int PID = 1;
+
+    /** Calls answered by the client without a round trip to the browser */
+    private static final Set<String> LOCAL_METHODS = new HashSet<>(Arrays.asList(
+            "manage", "navigate", "switchTo", "timeouts", "window", "logs",
+            "getWrappedDriver", "getWrappedElement", "toString", "hashCode", "equals"));
+
+    private static final boolean enabled = config.isTraceEnabled();
+    private static final long originNanos = System.nanoTime();
+    private static final Queue<Map<String, Object>> events = new ConcurrentLinkedQueue<>();
+    private static final Map<Long, String> threadNames = new ConcurrentHashMap<>();
+    private static final ThreadLocal<Span> currentStep = new ThreadLocal<>();
+
+    private static final Span NOOP = new Span(null, null, null) {
+        @Override
+        public void close() {
+        }
+    };
+
+    static {
+        if (enabled) {
+            Runtime.getRuntime().addShutdownHook(new Thread(ExecutionTracer::write, "execution-trace"));
+        }
+    }
+
+    private ExecutionTracer() {
+    }
+
+    public static boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Start a span on the current thread; close it (e.g. with try-with-resources) to record it
+     *
+     * @param category trace category such as "test", "step", "page", "webdriver" or "framework"
+     */
+    public static Span span(String name, String category) {
+        return enabled ? new Span(name, category, null) : NOOP;
+    }
+
+    /**
+     * Start a span carrying extra arguments shown in the trace viewer
+     */
+    public static Span span(String name, String category, Map<String, Object> args) {
+        return enabled ? new Span(name, category, args) : NOOP;
+    }
+
+    /**
+     * Run an action inside a span
+     */
+    public static void trace(String name, String category, Runnable action) {
+        Span span = span(name, category);
+        try {
+            action.run();
+        } finally {
+            span.close();
+        }
+    }
+
+    /**
+     * Compute a value inside a span
+     */
+    public static <T> T trace(String name, String category, Supplier<T> action) {
+        Span span = span(name, category);
+        try {
+            return action.get();
+        } finally {
+            span.close();
+        }
+    }
+
+    /**
+     * Record a span whose start and end were measured elsewhere
+     */
+    public static void record(String name, String category, long startNanos, long endNanos, Map<String, Object> args) {
+        if (!enabled) {
+            return;
+        }
+        Thread thread = Thread.currentThread();
+        threadNames.putIfAbsent(thread.getId(), thread.getName());
+
+        Map<String, Object> event = new LinkedHashMap<>();
+        event.put("name", name);
+        event.put("cat", category);
+        event.put("ph", "X");
+        event.put("ts", (startNanos - originNanos) / 1000.0);
+        event.put("dur", Math.max(0, endNanos - startNanos) / 1000.0);
+        event.put("pid", PID);
+        event.put("tid", thread.getId());
+        if (args != null && !args.isEmpty()) {
+            event.put("args", args);
+        }
+        events.add(event);
+    }
+
+    /**
+     * Start a test step span on the current thread, ending the previous step
+     */
+    public static void step(String description) {
+        endStep();
+        if (enabled) {
+            currentStep.set(span(description, "step"));
+        }
+    }
+
+    /**
+     * End the current test step span, if any; call when the test method finishes
+     */
+    public static void endStep() {
+        Span step = currentStep.get();
+        if (step != null) {
+            currentStep.remove();
+            step.close();
+        }
+    }
+
+    /**
+     * Listener recording a span per WebDriver command, attributed to the browser
+     */
+    public static WebDriverListener commandListener(String browser) {
+        return new CommandSpans(browser);
+    }
+
+    /**
+     * Write all recorded spans to a new trace file under the configured directory
+     */
+    static synchronized void write() {
+        if (events.isEmpty()) {
+            return;
+        }
+        List<Map<String, Object>> traceEvents = new ArrayList<>();
+        traceEvents.add(metadata("process_name", 0, "HelloBooks test suite"));
+        threadNames.forEach((tid, name) -> traceEvents.add(metadata("thread_name", tid, name)));
+        traceEvents.addAll(events);
+
+        Map<String, Object> trace = new LinkedHashMap<>();
+        trace.put("traceEvents", traceEvents);
+        trace.put("displayTimeUnit", "ms");
+
+        String timestamp = LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyyMMdd_HHmmss"));
+        File file = new File(config.getTraceDir(), "trace_" + timestamp + "_" + ProcessHandle.current().pid() + ".json");
+        try {
+            file.getParentFile().mkdirs();
+            objectMapper.writeValue(file, trace);
+            logger.info("Execution trace with {} spans written to {}", events.size(), file.getPath());
+        } catch (IOException e) {
+            logger.warn("Failed to write execution trace {}: {}", file, e.getMessage());
+        }
+    }
+
+    private static Map<String, Object> metadata(String name, long tid, String value) {
+        Map<String, Object> event = new LinkedHashMap<>();
+        event.put("name", name);
+        event.put("ph", "M");
+        event.put("pid", PID);
+        event.put("tid", tid);
+        event.put("args", Map.of("name", value));
+        return event;
+    }
+
+    /**
+     * An open span; recorded when closed
+     */
+    public static class Span implements AutoCloseable {
+        private final String name;
+        private final String category;
+        private final Map<String, Object> args;
+        private final long startNanos = System.nanoTime();
+
+        private Span(String name, String category, Map<String, Object> args) {
+            this.name = name;
+            this.category = category;
+            this.args = args;
+        }
+
+        @Override
+        public void close() {
+            record(name, category, startNanos, System.nanoTime(), args);
+        }
+    }
+
+    private static final class CommandSpans implements WebDriverListener {
+        private static final ThreadLocal<Deque<Long>> startTimes = ThreadLocal.withInitial(ArrayDeque::new);
+        private final Map<String, Object> args;
+
+        private CommandSpans(String browser) {
+            this.args = Map.of("browser", browser);
+        }
+
+        @Override
+        public void beforeAnyCall(Object target, Method method, Object[] args) {
+            if (!LOCAL_METHODS.contains(method.getName())) {
+                startTimes.get().push(System.nanoTime());
+            }
+        }
+
+        @Override
+        public void afterAnyCall(Object target, Method method, Object[] args, Object result) {
+            end(method, false);
+        }
+
+        @Override
+        public void onError(Object target, Method method, Object[] args, InvocationTargetException e) {
+            end(method, true);
+        }
+
+        private void end(Method method, boolean failed) {
+            if (LOCAL_METHODS.contains(method.getName())) {
+                return;
+            }
+            Long start = startTimes.get().poll();
+            if (start != null) {
+                Map<String, Object> spanArgs = args;
+                if (failed) {
+                    spanArgs = new LinkedHashMap<>(args);
+                    spanArgs.put("error", true);
+                }
+                record(method.getName(), "webdriver", start, System.nanoTime(), spanArgs);
+            }
+        }
+    }
+}
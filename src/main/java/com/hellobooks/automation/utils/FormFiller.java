@@ -0,0 +1,204 @@
+package com.hellobooks.automation.utils;
+
+import org.openqa.selenium.By;
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebElement;
+import org.openqa.selenium.support.ui.Select;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Fills a whole form with a single executeScript round trip. Values are written
+ * through the native value setters and followed by input/change/blur events, so
+ * frameworks that track input state (e.g. React) still run their validation.
+ * Fields the script cannot fill faithfully fall back to real keystrokes.
+ */
+public class FormFiller {
+    private static final Logger logger = LoggerFactory.getLogger(FormFiller.class);
+
+    private static final String FILL_SCRIPT =
+            "var specs = arguments[0], result = {filled: [], absent: [], fallback: {}};" +
+            "function query(spec) {" +
+            "  var out = [];" +
+            "  try {" +
+            "    if (spec.css) { out = Array.prototype.slice.call(document.querySelectorAll(spec.css)); }" +
+            "    if (spec.xpath) {" +
+            "      var r = document.evaluate(spec.xpath, document, null, XPathResult.ORDERED_NODE_SNAPSHOT_TYPE, null);" +
+            "      for (var i = 0; i < r.snapshotLength; i++) { out.push(r.snapshotItem(i)); }" +
+            "    }" +
+            "  } catch (e) {}" +
+            "  return out;" +
+            "}" +
+            LocatorCompiler.VISIBLE_FUNCTION +
+            "function fire(el, type) { el.dispatchEvent(new Event(type, {bubbles: true})); }" +
+            "function setNative(el, proto, property, value) {" +
+            "  var descriptor = Object.getOwnPropertyDescriptor(proto, property);" +
+            "  descriptor.set.call(el, value);" +
+            "}" +
+            "function fill(el, value) {" +
+            "  var tag = el.tagName.toLowerCase(), type = (el.type || '').toLowerCase();" +
+            "  if (el.disabled || el.readOnly) { return false; }" +
+            "  if (tag === 'input' && (type === 'checkbox' || type === 'radio')) {" +
+            "    if (el.checked !== (value === 'true')) { el.click(); }" +
+            "    return el.checked === (value === 'true');" +
+            "  }" +
+            "  if (tag === 'select') {" +
+            "    for (var i = 0; i < el.options.length; i++) {" +
+            "      var option = el.options[i];" +
+            "      if (option.text.trim() === value || option.value === value) {" +
+            "        el.focus();" +
+            "        setNative(el, HTMLSelectElement.prototype, 'value', option.value);" +
+            "        fire(el, 'input'); fire(el, 'change'); el.blur();" +
+            "        return true;" +
+            "      }" +
+            "    }" +
+            "    return false;" +
+            "  }" +
+            "  if ((tag !== 'input' && tag !== 'textarea') || type === 'file') { return false; }" +
+            "  var proto = tag === 'textarea' ? HTMLTextAreaElement.prototype : HTMLInputElement.prototype;" +
+            "  el.focus();" +
+            "  setNative(el, proto, 'value', value);" +
+            "  fire(el, 'input'); fire(el, 'change'); el.blur();" +
+            "  return el.value === value;" +
+            "}" +
+            "for (var i = 0; i < specs.length; i++) {" +
+            "  var matches = query(specs[i]), el = null;" +
+            "  for (var j = 0; j < matches.length && !el; j++) { if (visible(matches[j])) { el = matches[j]; } }" +
+            "  if (!el) { result.absent.push(specs[i].name); continue; }" +
+            "  var ok = false;" +
+            "  try { ok = fill(el, specs[i].value); } catch (e) {}" +
+            "  if (ok) { result.filled.push(specs[i].name); } else { result.fallback[specs[i].name] = el; }" +
+            "}" +
+            "return result;";
+
+    private FormFiller() {
+    }
+
+    /**
+     * Fill every visible field in one browser round trip. Checkboxes take "true"/"false",
+     * selects take the visible option text. Fields whose locator was not built with
+     * {@link LocatorCompiler}, or whose value the page rewrote, are typed with sendKeys.
+     *
+     * @param locators field locators keyed by field name
+     * @param values values keyed by field name; names without a locator or with a null value are skipped
+     * @return which fields were filled and which were not found on the page
+     */
+    @SuppressWarnings("unchecked")
+    public static FillResult fill(WebDriver driver, Map<String, By> locators, Map<String, String> values) {
+        List<Map<String, Object>> specs = new ArrayList<>();
+        Map<String, By> individual = new LinkedHashMap<>();
+
+        for (Map.Entry<String, String> entry : values.entrySet()) {
+            By locator = locators.get(entry.getKey());
+            if (locator == null || entry.getValue() == null) {
+                continue;
+            }
+            if (locator instanceof LocatorCompiler.CompiledLocator) {
+                LocatorCompiler.CompiledLocator compiled = (LocatorCompiler.CompiledLocator) locator;
+                Map<String, Object> spec = new HashMap<>();
+                spec.put("name", entry.getKey());
+                spec.put("css", compiled.getCss());
+                spec.put("xpath", compiled.getXpath());
+                spec.put("value", entry.getValue());
+                specs.add(spec);
+            } else {
+                individual.put(entry.getKey(), locator);
+            }
+        }
+
+        List<String> filled = new ArrayList<>();
+        List<String> absent = new ArrayList<>();
+        Map<String, WebElement> fallback = new LinkedHashMap<>();
+
+        if (!specs.isEmpty()) {
+            Map<String, Object> result = (Map<String, Object>) ((JavascriptExecutor) driver).executeScript(FILL_SCRIPT, specs);
+            filled.addAll((List<String>) result.get("filled"));
+            absent.addAll((List<String>) result.get("absent"));
+            fallback.putAll((Map<String, WebElement>) result.get("fallback"));
+        }
+
+        for (Map.Entry<String, By> entry : individual.entrySet()) {
+            List<WebElement> elements = driver.findElements(entry.getValue());
+            if (elements.isEmpty() || !elements.get(0).isDisplayed()) {
+                absent.add(entry.getKey());
+            } else {
+                fallback.put(entry.getKey(), elements.get(0));
+            }
+        }
+
+        for (Map.Entry<String, WebElement> entry : fallback.entrySet()) {
+            type(entry.getValue(), values.get(entry.getKey()));
+            filled.add(entry.getKey());
+        }
+
+        logger.debug("Form fill: {} filled ({} with keystrokes), absent: {}", filled.size(), fallback.size(), absent);
+        return new FillResult(filled, absent, new ArrayList<>(fallback.keySet()));
+    }
+
+    /**
+     * Fill a single element with real user input
+     */
+    private static void type(WebElement element, String value) {
+        String tag = element.getTagName().toLowerCase();
+        String type = String.valueOf(element.getAttribute("type")).toLowerCase();
+
+        if ("select".equals(tag)) {
+            new Select(element).selectByVisibleText(value);
+        } else if ("checkbox".equals(type) || "radio".equals(type)) {
+            if (element.isSelected() != Boolean.parseBoolean(value)) {
+                element.click();
+            }
+        } else {
+            element.clear();
+            element.sendKeys(value);
+        }
+    }
+
+    /**
+     * Outcome of a bulk form fill
+     */
+    public static class FillResult {
+        private final List<String> filled;
+        private final List<String> absent;
+        private final List<String> typed;
+
+        FillResult(List<String> filled, List<String> absent, List<String> typed) {
+            this.filled = Collections.unmodifiableList(filled);
+            this.absent = Collections.unmodifiableList(absent);
+            this.typed = Collections.unmodifiableList(typed);
+        }
+
+        /**
+         * Names of the fields that were filled, in either way
+         */
+        public List<String> getFilled() {
+            return filled;
+        }
+
+        /**
+         * Names of the fields that were not visible on the page
+         */
+        public List<String> getAbsent() {
+            return absent;
+        }
+
+        /**
+         * Names of the fields that needed real keystrokes
+         */
+        public List<String> getTyped() {
+            return typed;
+        }
+
+        public boolean isAbsent(String field) {
+            return absent.contains(field);
+        }
+    }
+}
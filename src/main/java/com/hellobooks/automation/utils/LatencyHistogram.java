@@ -0,0 +1,100 @@
+package com.hellobooks.automation.utils;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Lock-free latency histogram with logarithmic buckets, eight per power of two
+ * (about 9% relative resolution) from 50 microseconds to about 95 seconds. Recording is
+ * a single atomic increment, so it is safe and cheap to share between test threads.
+ */
+public class LatencyHistogram {
+    private static final double MIN_MICROS = 50;
+    private static final int BUCKETS_PER_DOUBLING = 8;
+    private static final int BUCKET_COUNT = 21 * BUCKETS_PER_DOUBLING + 1;
+    private static final double[] UPPER_BOUNDS_MICROS = new double[BUCKET_COUNT];
+
+    static {
+        for (int i = 0; i < BUCKET_COUNT - 1; i++) {
+            UPPER_BOUNDS_MICROS[i] = MIN_MICROS * Math.pow(2, (double) i / BUCKETS_PER_DOUBLING);
+        }
+        UPPER_BOUNDS_MICROS[BUCKET_COUNT - 1] = Double.POSITIVE_INFINITY;
+    }
+
+    private final AtomicLongArray counts = new AtomicLongArray(BUCKET_COUNT);
+    private final LongAdder count = new LongAdder();
+    private final LongAdder sumNanos = new LongAdder();
+
+    /**
+     * Record one observation
+     */
+    public void record(long nanos) {
+        double micros = nanos / 1000.0;
+        int bucket = micros <= MIN_MICROS ? 0
+                : (int) Math.ceil(Math.log(micros / MIN_MICROS) / Math.log(2) * BUCKETS_PER_DOUBLING);
+        counts.incrementAndGet(Math.min(bucket, BUCKET_COUNT - 1));
+        count.increment();
+        sumNanos.add(nanos);
+    }
+
+    public long getCount() {
+        return count.sum();
+    }
+
+    public double getSumSeconds() {
+        return sumNanos.sum() / 1e9;
+    }
+
+    /**
+     * Estimate a percentile, in milliseconds, as the upper bound of the bucket holding it
+     *
+     * @param percentile value between 0 and 100
+     */
+    public double getPercentileMillis(double percentile) {
+        long total = 0;
+        long[] snapshot = snapshot();
+        for (long bucketCount : snapshot) {
+            total += bucketCount;
+        }
+        if (total == 0) {
+            return 0;
+        }
+        long rank = (long) Math.ceil(percentile / 100.0 * total);
+        long seen = 0;
+        for (int i = 0; i < snapshot.length; i++) {
+            seen += snapshot[i];
+            if (seen >= Math.max(1, rank)) {
+                double bound = i == BUCKET_COUNT - 1 ? UPPER_BOUNDS_MICROS[i - 1] : UPPER_BOUNDS_MICROS[i];
+                return bound / 1000.0;
+            }
+        }
+        return UPPER_BOUNDS_MICROS[BUCKET_COUNT - 2] / 1000.0;
+    }
+
+    /**
+     * Cumulative counts at every {@code step}-th bucket boundary, as {upper bound in seconds, count} pairs,
+     * ending with the +Inf bucket
+     */
+    public double[][] cumulativeBuckets(int step) {
+        long[] snapshot = snapshot();
+        int exported = (BUCKET_COUNT - 2) / step + 2;
+        double[][] buckets = new double[exported][];
+        long cumulative = 0;
+        int next = 0;
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            cumulative += snapshot[i];
+            if (i == BUCKET_COUNT - 1 || i % step == 0) {
+                buckets[next++] = new double[] {UPPER_BOUNDS_MICROS[i] / 1e6, cumulative};
+            }
+        }
+        return buckets;
+    }
+
+    private long[] snapshot() {
+        long[] snapshot = new long[BUCKET_COUNT];
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            snapshot[i] = counts.get(i);
+        }
+        return snapshot;
+    }
+}
@@ -0,0 +1,25 @@
+package com.hellobooks.automation.utils;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Stand-in provisioner for offline runs: generates credentials without contacting any
+ * service, for environments (local mocks, stubbed backends) that accept any account
+ */
+public class LocalAccountProvisioner implements AccountProvisioner {
+    private static final Logger logger = LoggerFactory.getLogger(LocalAccountProvisioner.class);
+
+    @Override
+    public List<TestAccount> provision(int count) {
+        List<TestAccount> accounts = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            accounts.add(TestAccount.generate());
+        }
+        logger.debug("Generated {} local test accounts", count);
+        return accounts;
+    }
+}
@@ -0,0 +1,376 @@
+package com.hellobooks.automation.utils;
+
+import org.openqa.selenium.By;
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.NoSuchElementException;
+import org.openqa.selenium.SearchContext;
+import org.openqa.selenium.WebElement;
+import org.openqa.selenium.WrapsDriver;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Compiles comma-separated selector lists that mix plain CSS with jQuery-style
+ * {@code :contains('text')} pseudo-selectors into a single valid browser query.
+ * Plain CSS alternatives stay CSS, {@code :contains()} alternatives are translated
+ * to XPath, and mixed lists are resolved with one script call. Compiled locators
+ * are cached, so each selector list is parsed only once per JVM.
+ */
+public class LocatorCompiler {
+    private static final Logger logger = LoggerFactory.getLogger(LocatorCompiler.class);
+    private static final Map<String, CompiledLocator> cache = new ConcurrentHashMap<>();
+
+    private static final Pattern TAG = Pattern.compile("^(\\*|[a-zA-Z][a-zA-Z0-9-]*)");
+    private static final Pattern CLASS = Pattern.compile("^\\.([a-zA-Z0-9_-]+)");
+    private static final Pattern ID = Pattern.compile("^#([a-zA-Z0-9_-]+)");
+    private static final Pattern ATTRIBUTE = Pattern.compile(
+            "^\\[\\s*([a-zA-Z0-9_:-]+)\\s*(?:([*^$|~]?=)\\s*(?:'([^']*)'|\"([^\"]*)\"|([^\\]\\s]+))\\s*(i)?\\s*)?]");
+    private static final Pattern CONTAINS = Pattern.compile("^:contains\\(\\s*(?:'([^']*)'|\"([^\"]*)\")\\s*\\)");
+
+    /**
+     * Visibility check shared by every in-browser script, so locators, waits, form fills and
+     * outcome detection agree on what is visible: an element needs a layout box and must not be
+     * hidden by display or visibility
+     */
+    static final String VISIBLE_FUNCTION =
+            "function visible(el) {" +
+            "  if (!el.getClientRects().length) { return false; }" +
+            "  var style = window.getComputedStyle(el);" +
+            "  return style.visibility !== 'hidden' && style.display !== 'none';" +
+            "}";
+
+    private static final String MIXED_QUERY_SCRIPT =
+            "var root = arguments[2] || document, out = [];" +
+            "if (arguments[0]) { out = Array.prototype.slice.call(root.querySelectorAll(arguments[0])); }" +
+            "if (arguments[1]) {" +
+            "  var r = document.evaluate(arguments[1], root, null, XPathResult.ORDERED_NODE_SNAPSHOT_TYPE, null);" +
+            "  for (var i = 0; i < r.snapshotLength; i++) {" +
+            "    if (out.indexOf(r.snapshotItem(i)) < 0) { out.push(r.snapshotItem(i)); }" +
+            "  }" +
+            "}" +
+            "out.sort(function (a, b) { return a === b ? 0 : (a.compareDocumentPosition(b) & 4 ? -1 : 1); });" +
+            "return out;";
+
+    private static final String FALLBACK_QUERY_SCRIPT =
+            "var specs = arguments[0], root = arguments[1] || document, union = [], firstMatched = null;" +
+            VISIBLE_FUNCTION +
+            "for (var i = 0; i < specs.length; i++) {" +
+            "  var out = [];" +
+            "  try {" +
+            "    if (specs[i].css) { out = Array.prototype.slice.call(root.querySelectorAll(specs[i].css)); }" +
+            "    else {" +
+            "      var r = document.evaluate(specs[i].xpath, root, null, XPathResult.ORDERED_NODE_SNAPSHOT_TYPE, null);" +
+            "      for (var j = 0; j < r.snapshotLength; j++) { out.push(r.snapshotItem(j)); }" +
+            "    }" +
+            "  } catch (e) {}" +
+            "  if (out.some(visible)) { return {alternative: specs[i].alternative, elements: out, tried: i + 1}; }" +
+            "  if (out.length && firstMatched === null) { firstMatched = specs[i].alternative; }" +
+            "  for (var k = 0; k < out.length; k++) { if (union.indexOf(out[k]) < 0) { union.push(out[k]); } }" +
+            "}" +
+            "union.sort(function (a, b) { return a === b ? 0 : (a.compareDocumentPosition(b) & 4 ? -1 : 1); });" +
+            "return {alternative: firstMatched, elements: union, tried: specs.length};";
+
+    private LocatorCompiler() {
+    }
+
+    /**
+     * Compile a comma-separated selector list into a locator
+     */
+    public static By compile(String selectorList) {
+        return cache.computeIfAbsent(selectorList, CompiledLocator::new);
+    }
+
+    /**
+     * Split a selector list on top-level commas, ignoring commas inside quotes, brackets and parentheses
+     */
+    static List<String> splitSelectorList(String selectorList) {
+        List<String> parts = new ArrayList<>();
+        StringBuilder current = new StringBuilder();
+        int depth = 0;
+        char quote = 0;
+
+        for (char c : selectorList.toCharArray()) {
+            if (quote != 0) {
+                if (c == quote) {
+                    quote = 0;
+                }
+            } else if (c == '\'' || c == '"') {
+                quote = c;
+            } else if (c == '[' || c == '(') {
+                depth++;
+            } else if (c == ']' || c == ')') {
+                depth--;
+            } else if (c == ',' && depth == 0) {
+                addPart(parts, current);
+                current.setLength(0);
+                continue;
+            }
+            current.append(c);
+        }
+        addPart(parts, current);
+        return parts;
+    }
+
+    private static void addPart(List<String> parts, StringBuilder part) {
+        String trimmed = part.toString().trim();
+        if (!trimmed.isEmpty()) {
+            parts.add(trimmed);
+        }
+    }
+
+    /**
+     * Translate a compound selector containing :contains() into an XPath step, or null if unsupported
+     */
+    static String toXPath(String selector) {
+        String rest = selector;
+        String tag = "*";
+        List<String> predicates = new ArrayList<>();
+        String containsText = null;
+
+        Matcher matcher = TAG.matcher(rest);
+        if (matcher.find()) {
+            tag = matcher.group(1);
+            rest = rest.substring(matcher.end());
+        }
+
+        while (!rest.isEmpty()) {
+            if ((matcher = CLASS.matcher(rest)).find()) {
+                predicates.add("contains(concat(' ', normalize-space(@class), ' '), ' " + matcher.group(1) + " ')");
+            } else if ((matcher = ID.matcher(rest)).find()) {
+                predicates.add("@id=" + literal(matcher.group(1)));
+            } else if ((matcher = ATTRIBUTE.matcher(rest)).find()) {
+                String value = matcher.group(3) != null ? matcher.group(3)
+                        : matcher.group(4) != null ? matcher.group(4) : matcher.group(5);
+                predicates.add(attributePredicate(matcher.group(1), matcher.group(2), value, matcher.group(6) != null));
+            } else if ((matcher = CONTAINS.matcher(rest)).find()) {
+                containsText = matcher.group(1) != null ? matcher.group(1) : matcher.group(2);
+            } else {
+                return null;
+            }
+            rest = rest.substring(matcher.end());
+        }
+
+        if (containsText != null) {
+            // For a bare universal selector only match elements whose own text contains the value,
+            // otherwise every ancestor up to <html> would match as well
+            predicates.add("*".equals(tag) && predicates.isEmpty()
+                    ? "text()[contains(., " + literal(containsText) + ")]"
+                    : "contains(normalize-space(.), " + literal(containsText) + ")");
+        }
+
+        StringBuilder xpath = new StringBuilder("//").append(tag);
+        for (String predicate : predicates) {
+            xpath.append('[').append(predicate).append(']');
+        }
+        return xpath.toString();
+    }
+
+    private static String attributePredicate(String name, String operator, String value, boolean ignoreCase) {
+        String attribute = "@" + name;
+        if (operator == null) {
+            return attribute;
+        }
+        String expected = value;
+        if (ignoreCase) {
+            attribute = "translate(" + attribute + ", 'ABCDEFGHIJKLMNOPQRSTUVWXYZ', 'abcdefghijklmnopqrstuvwxyz')";
+            expected = value.toLowerCase();
+        }
+        String quoted = literal(expected);
+        switch (operator) {
+            case "*=":
+                return "contains(" + attribute + ", " + quoted + ")";
+            case "^=":
+                return "starts-with(" + attribute + ", " + quoted + ")";
+            case "$=":
+                return "substring(" + attribute + ", string-length(" + attribute + ") - " + (expected.length() - 1)
+                        + ") = " + quoted;
+            case "~=":
+                return "contains(concat(' ', normalize-space(" + attribute + "), ' '), " + literal(" " + expected + " ") + ")";
+            case "|=":
+                return "(" + attribute + " = " + quoted + " or starts-with(" + attribute + ", " + literal(expected + "-") + "))";
+            default:
+                return attribute + " = " + quoted;
+        }
+    }
+
+    private static String literal(String value) {
+        if (!value.contains("'")) {
+            return "'" + value + "'";
+        }
+        if (!value.contains("\"")) {
+            return "\"" + value + "\"";
+        }
+        return "concat('" + value.replace("'", "', \"'\", '") + "')";
+    }
+
+    /**
+     * Locator holding the compiled CSS and XPath halves of a selector list
+     */
+    public static final class CompiledLocator extends By {
+        private final String source;
+        private final List<String> alternatives;
+        private final String css;
+        private final String xpath;
+        private final By delegate;
+        /** Browser query per resolvable alternative, in declaration order */
+        private final Map<String, String[]> queries = new LinkedHashMap<>();
+
+        private CompiledLocator(String source) {
+            this.source = source;
+            this.alternatives = Collections.unmodifiableList(splitSelectorList(source));
+
+            List<String> cssParts = new ArrayList<>();
+            List<String> xpathParts = new ArrayList<>();
+            for (String alternative : alternatives) {
+                if (!alternative.contains(":contains(")) {
+                    cssParts.add(alternative);
+                    queries.put(alternative, new String[] {alternative, null});
+                    continue;
+                }
+                String translated = toXPath(alternative);
+                if (translated != null) {
+                    xpathParts.add(translated);
+                    queries.put(alternative, new String[] {null, translated});
+                } else {
+                    logger.warn("Dropping unsupported selector '{}' from locator: {}", alternative, source);
+                }
+            }
+
+            this.css = cssParts.isEmpty() ? null : String.join(", ", cssParts);
+            this.xpath = xpathParts.isEmpty() ? null : String.join(" | ", xpathParts);
+
+            if (xpath == null) {
+                delegate = By.cssSelector(css != null ? css : source);
+            } else if (css == null) {
+                delegate = By.xpath(xpath);
+            } else {
+                delegate = null;
+            }
+
+            if (usesFallbackChain()) {
+                LocatorStats.register(source, new ArrayList<>(queries.keySet()));
+            }
+        }
+
+        /**
+         * Stats are only worth collecting when there is more than one alternative to order
+         */
+        private boolean usesFallbackChain() {
+            return queries.size() > 1 && LocatorStats.isEnabled();
+        }
+
+        public List<String> getAlternatives() {
+            return alternatives;
+        }
+
+        /**
+         * CSS half of the locator, or null when every alternative uses :contains()
+         */
+        public String getCss() {
+            return css;
+        }
+
+        /**
+         * XPath union of the translated :contains() alternatives, or null when there are none
+         */
+        public String getXpath() {
+            return xpath;
+        }
+
+        @Override
+        public List<WebElement> findElements(SearchContext context) {
+            if (usesFallbackChain()) {
+                return findWithFallbackChain(context);
+            }
+            if (delegate != null) {
+                return delegate.findElements(context);
+            }
+
+            JavascriptExecutor executor;
+            Object root = null;
+            String contextXpath = xpath;
+            if (context instanceof JavascriptExecutor) {
+                executor = (JavascriptExecutor) context;
+            } else if (context instanceof WrapsDriver) {
+                executor = (JavascriptExecutor) ((WrapsDriver) context).getWrappedDriver();
+                root = context;
+                contextXpath = "." + xpath.replace(" | //", " | .//");
+            } else {
+                throw new IllegalArgumentException("Cannot resolve " + this + " from " + context.getClass().getName());
+            }
+
+            @SuppressWarnings("unchecked")
+            List<WebElement> elements = (List<WebElement>) executor.executeScript(MIXED_QUERY_SCRIPT, css, contextXpath, root);
+            return elements != null ? elements : Collections.emptyList();
+        }
+
+        /**
+         * Try the alternatives in one script call, historically winning ones first, and return the
+         * matches of the first alternative with a visible element. When no alternative has one, the
+         * union of all matches is returned, as without stats. The stats only decide the order;
+         * alternatives after the winning one are not evaluated and are recorded as not reached.
+         */
+        @SuppressWarnings("unchecked")
+        private List<WebElement> findWithFallbackChain(SearchContext context) {
+            JavascriptExecutor executor;
+            Object root = null;
+            if (context instanceof JavascriptExecutor) {
+                executor = (JavascriptExecutor) context;
+            } else if (context instanceof WrapsDriver) {
+                executor = (JavascriptExecutor) ((WrapsDriver) context).getWrappedDriver();
+                root = context;
+            } else {
+                throw new IllegalArgumentException("Cannot resolve " + this + " from " + context.getClass().getName());
+            }
+
+            List<String> ordered = LocatorStats.order(source, new ArrayList<>(queries.keySet()));
+            List<Map<String, String>> specs = new ArrayList<>();
+            for (String alternative : ordered) {
+                String[] query = queries.get(alternative);
+                Map<String, String> spec = new HashMap<>();
+                spec.put("alternative", alternative);
+                spec.put("css", query[0]);
+                spec.put("xpath", query[1] != null && root != null ? "." + query[1] : query[1]);
+                specs.add(spec);
+            }
+
+            long start = System.nanoTime();
+            Map<String, Object> result = (Map<String, Object>) executor.executeScript(FALLBACK_QUERY_SCRIPT, specs, root);
+            long elapsedMillis = (System.nanoTime() - start) / 1_000_000;
+
+            String matched = result != null ? (String) result.get("alternative") : null;
+            int tried = result != null && result.get("tried") != null
+                    ? ((Number) result.get("tried")).intValue() : ordered.size();
+            LocatorStats.record(source, ordered.subList(0, Math.min(tried, ordered.size())), matched, elapsedMillis);
+            List<WebElement> elements = result != null ? (List<WebElement>) result.get("elements") : null;
+            return elements != null ? elements : Collections.emptyList();
+        }
+
+        @Override
+        public WebElement findElement(SearchContext context) {
+            if (delegate != null && !usesFallbackChain()) {
+                return delegate.findElement(context);
+            }
+            List<WebElement> elements = findElements(context);
+            if (elements.isEmpty()) {
+                throw new NoSuchElementException("Cannot locate an element using " + this);
+            }
+            return elements.get(0);
+        }
+
+        @Override
+        public String toString() {
+            return "By.compiled: " + source;
+        }
+    }
+}
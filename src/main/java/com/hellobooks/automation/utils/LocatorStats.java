@@ -0,0 +1,231 @@
+package com.hellobooks.automation.utils;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.hellobooks.automation.config.ConfigManager;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Records which alternative of a compiled selector list actually resolved and how
+ * long the lookup took. Stats are kept in a JSON store under target/, so later runs
+ * try the historically winning alternative first. At shutdown the store is updated
+ * and alternatives that have never matched, or were never reached because an earlier
+ * alternative always won, are written to a pruning report.
+ */
+public class LocatorStats {
+    private static final Logger logger = LoggerFactory.getLogger(LocatorStats.class);
+    private static final ConfigManager config = ConfigManager.getInstance();
+    private static final ObjectMapper objectMapper = new ObjectMapper();
+
+    /** Stats loaded from earlier runs, used only for ordering */
+    private static final Map<String, LocatorRecord> history = readStore();
+    /** Stats recorded in this run, merged into the store at shutdown */
+    private static final Map<String, LocatorRecord> session = new ConcurrentHashMap<>();
+
+    static {
+        Runtime.getRuntime().addShutdownHook(new Thread(LocatorStats::persist, "locator-stats"));
+    }
+
+    private LocatorStats() {
+    }
+
+    public static boolean isEnabled() {
+        return config.isLocatorStatsEnabled();
+    }
+
+    /**
+     * Order the alternatives of a locator by how often each one resolved, keeping
+     * declaration order for ties and for locators without history
+     */
+    public static List<String> order(String locator, List<String> alternatives) {
+        LocatorRecord past = history.get(locator);
+        LocatorRecord current = session.get(locator);
+        if (past == null && current == null) {
+            return alternatives;
+        }
+        List<String> ordered = new ArrayList<>(alternatives);
+        ordered.sort(Comparator.comparingLong((String alternative) -> hits(past, alternative) + hits(current, alternative))
+                .reversed());
+        return ordered;
+    }
+
+    /**
+     * Record a lookup of a locator
+     *
+     * @param tried       the alternatives evaluated by the lookup, in the order they were tried
+     * @param alternative the alternative that matched, or null when none did
+     */
+    public static void record(String locator, List<String> tried, String alternative, long elapsedMillis) {
+        LocatorRecord record = session.computeIfAbsent(locator, key -> new LocatorRecord());
+        synchronized (record) {
+            record.lookups++;
+            for (String evaluated : tried) {
+                record.alternatives.computeIfAbsent(evaluated, key -> new AlternativeRecord()).tries++;
+            }
+            if (alternative == null) {
+                record.misses++;
+                return;
+            }
+            AlternativeRecord stats = record.alternatives.computeIfAbsent(alternative, key -> new AlternativeRecord());
+            stats.hits++;
+            stats.totalMillis += elapsedMillis;
+        }
+    }
+
+    /**
+     * Register the alternatives of a locator, so ones that never match still appear in the store
+     */
+    public static void register(String locator, List<String> alternatives) {
+        LocatorRecord record = session.computeIfAbsent(locator, key -> new LocatorRecord());
+        synchronized (record) {
+            for (String alternative : alternatives) {
+                record.alternatives.computeIfAbsent(alternative, key -> new AlternativeRecord());
+            }
+        }
+    }
+
+    private static long hits(LocatorRecord record, String alternative) {
+        if (record == null) {
+            return 0;
+        }
+        synchronized (record) {
+            AlternativeRecord stats = record.alternatives.get(alternative);
+            return stats != null ? stats.hits : 0;
+        }
+    }
+
+    private static Map<String, LocatorRecord> readStore() {
+        File store = new File(config.getLocatorStatsFile());
+        if (!store.exists()) {
+            return new TreeMap<>();
+        }
+        try {
+            return objectMapper.readValue(store, new TypeReference<TreeMap<String, LocatorRecord>>() {});
+        } catch (IOException e) {
+            logger.warn("Ignoring unreadable locator stats {}: {}", store, e.getMessage());
+            return new TreeMap<>();
+        }
+    }
+
+    /**
+     * Merge this run's stats into the store and write the pruning report
+     */
+    static synchronized void persist() {
+        if (session.isEmpty()) {
+            return;
+        }
+        Path storePath = Paths.get(config.getLocatorStatsFile());
+        Path parent = storePath.toAbsolutePath().getParent();
+        try {
+            Files.createDirectories(parent);
+            // Lock around read-merge-move so runs finishing in parallel do not overwrite each other's stats
+            try (FileChannel channel = FileChannel.open(parent.resolve(storePath.getFileName() + ".lock"),
+                    StandardOpenOption.CREATE, StandardOpenOption.WRITE)) {
+                FileLock lock = channel.lock();
+                try {
+                    Map<String, LocatorRecord> merged = readStore();
+                    session.forEach((locator, record) -> merged.merge(locator, record, LocatorRecord::merge));
+                    write(merged, storePath);
+                } finally {
+                    lock.release();
+                }
+            }
+        } catch (IOException e) {
+            logger.warn("Failed to update locator stats {}: {}", storePath, e.getMessage());
+        }
+    }
+
+    private static void write(Map<String, LocatorRecord> merged, Path storePath) throws IOException {
+        Path parent = storePath.toAbsolutePath().getParent();
+        Path tempFile = Files.createTempFile(parent, "locator-stats", ".tmp");
+        objectMapper.writerWithDefaultPrettyPrinter().writeValue(tempFile.toFile(), merged);
+        Files.move(tempFile, storePath, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        writeUnusedReport(merged, parent.resolve("locator-unused-alternatives.txt"));
+    }
+
+    private static void writeUnusedReport(Map<String, LocatorRecord> records, Path reportPath) throws IOException {
+        int unused = 0;
+        try (PrintWriter writer = new PrintWriter(Files.newBufferedWriter(reportPath, StandardCharsets.UTF_8))) {
+            writer.println("# Alternatives that never matched, for locators that resolved at least once.");
+            writer.println("# 'not reached' alternatives were never evaluated because an earlier one always won.");
+            for (Map.Entry<String, LocatorRecord> entry : records.entrySet()) {
+                LocatorRecord record = entry.getValue();
+                if (record.lookups == record.misses) {
+                    continue;
+                }
+                for (Map.Entry<String, AlternativeRecord> alternative : record.alternatives.entrySet()) {
+                    AlternativeRecord stats = alternative.getValue();
+                    if (stats.hits > 0) {
+                        continue;
+                    }
+                    if (stats.tries == 0) {
+                        writer.printf("%s%n    not reached in %d lookups: %s%n",
+                                entry.getKey(), record.lookups, alternative.getKey());
+                    } else {
+                        writer.printf("%s%n    never matched in %d of %d lookups: %s%n",
+                                entry.getKey(), stats.tries, record.lookups, alternative.getKey());
+                    }
+                    unused++;
+                }
+            }
+        }
+        logger.info("Locator stats updated: {} locators, {} alternatives never matched or not reached (see {})",
+                records.size(), unused, reportPath);
+    }
+
+    /**
+     * Lookup counts of one selector list
+     */
+    public static class LocatorRecord {
+        public long lookups;
+        public long misses;
+        public Map<String, AlternativeRecord> alternatives = new TreeMap<>();
+
+        private static LocatorRecord merge(LocatorRecord stored, LocatorRecord recorded) {
+            synchronized (recorded) {
+                stored.lookups += recorded.lookups;
+                stored.misses += recorded.misses;
+                recorded.alternatives.forEach((alternative, stats) ->
+                        stored.alternatives.merge(alternative, stats, AlternativeRecord::merge));
+            }
+            return stored;
+        }
+    }
+
+    /**
+     * Resolution counts of one alternative within a selector list
+     */
+    public static class AlternativeRecord {
+        /** Lookups that evaluated this alternative */
+        public long tries;
+        public long hits;
+        public long totalMillis;
+
+        private static AlternativeRecord merge(AlternativeRecord stored, AlternativeRecord recorded) {
+            AlternativeRecord sum = new AlternativeRecord();
+            sum.tries = stored.tries + recorded.tries;
+            sum.hits = stored.hits + recorded.hits;
+            sum.totalMillis = stored.totalMillis + recorded.totalMillis;
+            return sum;
+        }
+    }
+}
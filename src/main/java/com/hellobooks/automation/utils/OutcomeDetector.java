@@ -0,0 +1,208 @@
+package com.hellobooks.automation.utils;
+
+import com.hellobooks.automation.config.ConfigManager;
+import org.openqa.selenium.By;
+import org.openqa.selenium.TimeoutException;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.chromium.ChromiumDriver;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.WeakHashMap;
+
+/**
+ * Waits for the first of several declared outcomes of a user action (a URL change
+ * or an element becoming visible). It tracks DOM mutations, and in-flight fetch/XHR
+ * requests when outcome.network.tracking.enabled is set, so when none of the outcomes
+ * appears it returns as soon as the page has settled instead of sleeping for a fixed time.
+ * Network tracking wraps the page's fetch and XMLHttpRequest.send, so it is off by default.
+ */
+public class OutcomeDetector {
+    private static final Logger logger = LoggerFactory.getLogger(OutcomeDetector.class);
+    private static final ConfigManager config = ConfigManager.getInstance();
+
+    /** Returned when no declared outcome appeared but the network and DOM went quiet */
+    public static final String SETTLED = "settled";
+    /** Returned when neither an outcome nor a quiet page was observed before the timeout */
+    public static final String TIMED_OUT = "timed-out";
+
+    private static final Set<WebDriver> instrumentedDrivers = Collections.synchronizedSet(
+            Collections.newSetFromMap(new WeakHashMap<>()));
+
+    private static final String NETWORK_TRACKER_SCRIPT =
+            "(function () {" +
+            "  if (window.__qaNetwork) { return; }" +
+            "  var net = window.__qaNetwork = {inflight: 0, last: Date.now()};" +
+            "  function begin() { net.inflight++; net.last = Date.now(); }" +
+            "  function end() { net.inflight = Math.max(0, net.inflight - 1); net.last = Date.now(); }" +
+            "  if (window.fetch) {" +
+            "    var originalFetch = window.fetch;" +
+            "    window.fetch = function () {" +
+            "      begin();" +
+            "      return originalFetch.apply(this, arguments).then(" +
+            "        function (response) { end(); return response; }," +
+            "        function (error) { end(); throw error; });" +
+            "    };" +
+            "  }" +
+            "  var originalSend = XMLHttpRequest.prototype.send;" +
+            "  XMLHttpRequest.prototype.send = function () {" +
+            "    begin();" +
+            "    this.addEventListener('loadend', end);" +
+            "    try {" +
+            "      return originalSend.apply(this, arguments);" +
+            "    } catch (e) {" +
+            "      this.removeEventListener('loadend', end); end(); throw e;" +
+            "    }" +
+            "  };" +
+            "})();";
+
+    private static final String OUTCOME_SCRIPT =
+            "var spec = arguments[0], done = arguments[arguments.length - 1];" +
+            "if (spec.trackNetwork) {" + NETWORK_TRACKER_SCRIPT + "}" +
+            "var net = window.__qaNetwork || {inflight: 0, last: 0}, start = Date.now(), lastMutation = start, finished = false, observer, backstop, timer;" +
+            LocatorCompiler.VISIBLE_FUNCTION +
+            "function matches(outcome) {" +
+            "  if (outcome.url) { return location.href.indexOf(outcome.url) >= 0; }" +
+            "  try {" +
+            "    var els = outcome.css ? Array.prototype.slice.call(document.querySelectorAll(outcome.css)) : [];" +
+            "    if (outcome.xpath) {" +
+            "      var r = document.evaluate(outcome.xpath, document, null, XPathResult.ORDERED_NODE_SNAPSHOT_TYPE, null);" +
+            "      for (var i = 0; i < r.snapshotLength; i++) { els.push(r.snapshotItem(i)); }" +
+            "    }" +
+            "    for (var j = 0; j < els.length; j++) { if (visible(els[j])) { return true; } }" +
+            "  } catch (e) {}" +
+            "  return false;" +
+            "}" +
+            "function finish(ok, outcome) {" +
+            "  if (finished) { return; }" +
+            "  finished = true;" +
+            "  if (observer) { observer.disconnect(); }" +
+            "  clearInterval(backstop); clearTimeout(timer);" +
+            "  done({ok: ok, outcome: outcome, elapsed: Date.now() - start});" +
+            "}" +
+            "function check() {" +
+            "  for (var i = 0; i < spec.outcomes.length; i++) {" +
+            "    if (matches(spec.outcomes[i])) { finish(true, spec.outcomes[i].name); return; }" +
+            "  }" +
+            "  var now = Date.now(), quietSince = Math.max(net.last, lastMutation, start);" +
+            "  if (net.inflight === 0 && now - quietSince >= spec.idleMillis) { finish(true, '" + SETTLED + "'); }" +
+            "}" +
+            "check();" +
+            "if (!finished) {" +
+            "  observer = new MutationObserver(function () { lastMutation = Date.now(); check(); });" +
+            "  observer.observe(document, {childList: true, subtree: true, attributes: true, characterData: true});" +
+            "  backstop = setInterval(check, 100);" +
+            "  timer = setTimeout(function () { finish(false, null); }, spec.timeout);" +
+            "}";
+
+    private OutcomeDetector() {
+    }
+
+    /**
+     * Install the fetch/XHR tracker into every document the driver loads, so requests
+     * started before a wait begins are counted too. Only possible on Chromium browsers;
+     * elsewhere the tracker is installed lazily when a wait starts.
+     */
+    public static void install(WebDriver driver) {
+        if (!config.isOutcomeNetworkTrackingEnabled() || !(driver instanceof ChromiumDriver)
+                || instrumentedDrivers.contains(driver)) {
+            return;
+        }
+        try {
+            Map<String, Object> params = new HashMap<>();
+            params.put("source", NETWORK_TRACKER_SCRIPT);
+            ((ChromiumDriver) driver).executeCdpCommand("Page.addScriptToEvaluateOnNewDocument", params);
+            instrumentedDrivers.add(driver);
+        } catch (Exception e) {
+            logger.debug("Could not install network tracker on new documents: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Wait for the first outcome to appear, checked in declaration order
+     *
+     * @param idle how long the network and DOM must be quiet before giving up on the outcomes
+     * @param timeout upper bound for the whole wait
+     * @return name of the outcome, {@link #SETTLED} or {@link #TIMED_OUT}
+     */
+    public static String waitForFirst(WebDriver driver, List<Outcome> outcomes, Duration idle, Duration timeout) {
+        List<Map<String, Object>> specs = new ArrayList<>();
+        for (Outcome outcome : outcomes) {
+            specs.add(outcome.toSpec());
+        }
+        Map<String, Object> spec = new HashMap<>();
+        spec.put("outcomes", specs);
+        spec.put("idleMillis", idle.toMillis());
+        spec.put("trackNetwork", config.isOutcomeNetworkTrackingEnabled());
+
+        try {
+            Map<String, Object> result = DomWaiter.runAsyncWait(driver, OUTCOME_SCRIPT, spec, timeout, "outcome " + outcomes);
+            String outcome = String.valueOf(result.get("outcome"));
+            logger.debug("Outcome '{}' after {} ms", outcome, result.get("elapsed"));
+            return outcome;
+        } catch (TimeoutException e) {
+            logger.debug("No outcome and no quiet period within {} ms", timeout.toMillis());
+            return TIMED_OUT;
+        }
+    }
+
+    /**
+     * A named result of a user action: either a URL fragment or a visible element
+     */
+    public static final class Outcome {
+        private final String name;
+        private final LocatorCompiler.CompiledLocator locator;
+        private final String urlFragment;
+
+        private Outcome(String name, LocatorCompiler.CompiledLocator locator, String urlFragment) {
+            this.name = name;
+            this.locator = locator;
+            this.urlFragment = urlFragment;
+        }
+
+        /**
+         * Outcome reached when an element matching the locator is visible
+         */
+        public static Outcome element(String name, By locator) {
+            if (!(locator instanceof LocatorCompiler.CompiledLocator)) {
+                throw new IllegalArgumentException("Outcome locators must be built with LocatorCompiler: " + locator);
+            }
+            return new Outcome(name, (LocatorCompiler.CompiledLocator) locator, null);
+        }
+
+        /**
+         * Outcome reached when the current URL contains the fragment
+         */
+        public static Outcome url(String name, String urlFragment) {
+            return new Outcome(name, null, urlFragment);
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        private Map<String, Object> toSpec() {
+            Map<String, Object> spec = new HashMap<>();
+            spec.put("name", name);
+            if (urlFragment != null) {
+                spec.put("url", urlFragment);
+            } else {
+                spec.put("css", locator.getCss());
+                spec.put("xpath", locator.getXpath());
+            }
+            return spec;
+        }
+
+        @Override
+        public String toString() {
+            return name;
+        }
+    }
+}
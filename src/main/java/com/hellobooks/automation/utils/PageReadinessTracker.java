@@ -0,0 +1,129 @@
+package com.hellobooks.automation.utils;
+
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.WebDriver;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Measures how much earlier pages become usable with readiness waits than
+ * with a full document load. The full-load time of a page is read from the
+ * Navigation Timing API just before the browser leaves it, so it costs no extra wait.
+ */
+public class PageReadinessTracker {
+    private static final Logger logger = LoggerFactory.getLogger(PageReadinessTracker.class);
+    private static final ThreadLocal<PendingPage> pendingPage = new ThreadLocal<>();
+    private static final Map<String, PageTotals> totals = new ConcurrentHashMap<>();
+
+    private static final String NAVIGATION_TIMING_SCRIPT =
+            "var nav = performance.getEntriesByType('navigation')[0];" +
+            "return [nav ? nav.loadEventEnd : 0, performance.now(), performance.timeOrigin];";
+
+    private static final String READY_SCRIPT = "return [performance.now(), performance.timeOrigin];";
+
+    static {
+        Runtime.getRuntime().addShutdownHook(new Thread(PageReadinessTracker::logSummary, "page-readiness-summary"));
+    }
+
+    private PageReadinessTracker() {
+    }
+
+    /**
+     * Record that a page reached its ready state. A page still pending from the same
+     * document (e.g. a client-side route change) is flushed first rather than overwritten.
+     */
+    public static void recordReady(WebDriver driver, String pageName) {
+        if (pendingPage.get() != null) {
+            flush(driver);
+        }
+        try {
+            Object result = ((JavascriptExecutor) driver).executeScript(READY_SCRIPT);
+            if (!(result instanceof List) || ((List<?>) result).size() < 2) {
+                return;
+            }
+            List<?> timings = (List<?>) result;
+            pendingPage.set(new PendingPage(pageName, toMillis(timings.get(0)), toDouble(timings.get(1))));
+        } catch (Exception e) {
+            logger.debug("Could not record readiness time for {}: {}", pageName, e.getMessage());
+        }
+    }
+
+    /**
+     * Compare the pending page's ready time with its full load time.
+     * Call before navigating away from the page.
+     */
+    public static void flush(WebDriver driver) {
+        PendingPage page = pendingPage.get();
+        if (page == null) {
+            return;
+        }
+        pendingPage.remove();
+
+        try {
+            Object result = ((JavascriptExecutor) driver).executeScript(NAVIGATION_TIMING_SCRIPT);
+            if (!(result instanceof List) || ((List<?>) result).size() < 3) {
+                return;
+            }
+            List<?> timings = (List<?>) result;
+            if (toDouble(timings.get(2)) != page.timeOrigin) {
+                // The browser already left the page, so its timings are gone and the baseline would be wrong
+                logger.debug("{} was left before its load time could be read, skipping", page.pageName);
+                return;
+            }
+            long loadEventEnd = toMillis(timings.get(0));
+            // If the load event has not fired yet, the current time is a lower bound for the saving
+            long fullLoad = loadEventEnd > 0 ? loadEventEnd : toMillis(timings.get(1));
+            long saved = Math.max(0, fullLoad - page.readyAtMillis);
+
+            totals.computeIfAbsent(page.pageName, name -> new PageTotals()).add(saved);
+            logger.debug("{} was ready at {} ms, full load at {} ms ({} ms saved)",
+                    page.pageName, page.readyAtMillis, fullLoad, saved);
+        } catch (Exception e) {
+            logger.debug("Could not read navigation timing for {}: {}", page.pageName, e.getMessage());
+        }
+    }
+
+    /**
+     * Log the time saved per page compared with full-load waiting
+     */
+    public static void logSummary() {
+        totals.forEach((pageName, pageTotals) -> logger.info(
+                "Readiness waits for {}: {} navigations, {} ms saved in total compared with full page load",
+                pageName, pageTotals.navigations.sum(), pageTotals.savedMillis.sum()));
+    }
+
+    private static long toMillis(Object value) {
+        return value instanceof Number ? Math.round(((Number) value).doubleValue()) : 0;
+    }
+
+    private static double toDouble(Object value) {
+        return value instanceof Number ? ((Number) value).doubleValue() : 0;
+    }
+
+    private static final class PendingPage {
+        private final String pageName;
+        private final long readyAtMillis;
+        private final double timeOrigin;
+
+        private PendingPage(String pageName, long readyAtMillis, double timeOrigin) {
+            this.pageName = pageName;
+            this.readyAtMillis = readyAtMillis;
+            this.timeOrigin = timeOrigin;
+        }
+    }
+
+    private static final class PageTotals {
+        private final LongAdder navigations = new LongAdder();
+        private final LongAdder savedMillis = new LongAdder();
+
+        private void add(long saved) {
+            navigations.increment();
+            savedMillis.add(saved);
+        }
+    }
+}
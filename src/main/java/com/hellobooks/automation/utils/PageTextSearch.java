@@ -0,0 +1,122 @@
+package com.hellobooks.automation.utils;
+
+import org.openqa.selenium.By;
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebElement;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Searches page text inside the browser, so only a match count crosses the wire
+ * instead of the serialized DOM. A full DOM snapshot is available explicitly,
+ * compressed in the browser where supported.
+ */
+public class PageTextSearch {
+    private static final Logger logger = LoggerFactory.getLogger(PageTextSearch.class);
+
+    private static final String COUNT_SCRIPT =
+            "var spec = arguments[0], roots = [];" +
+            "if (arguments[1]) { roots = [arguments[1]]; }" +
+            "else if (spec.css || spec.xpath) {" +
+            "  try {" +
+            "    if (spec.css) { roots = Array.prototype.slice.call(document.querySelectorAll(spec.css)); }" +
+            "    if (spec.xpath) {" +
+            "      var r = document.evaluate(spec.xpath, document, null, XPathResult.ORDERED_NODE_SNAPSHOT_TYPE, null);" +
+            "      for (var i = 0; i < r.snapshotLength; i++) { roots.push(r.snapshotItem(i)); }" +
+            "    }" +
+            "  } catch (e) {}" +
+            "  if (!roots.length) { return 0; }" +
+            "} else { roots = [document.body || document.documentElement]; }" +
+            "var needle = spec.ignoreCase ? spec.text.toLowerCase() : spec.text, count = 0;" +
+            "if (!needle) { return 0; }" +
+            "for (var j = 0; j < roots.length; j++) {" +
+            "  var text = (spec.visibleOnly ? roots[j].innerText : roots[j].textContent) || '';" +
+            "  if (spec.ignoreCase) { text = text.toLowerCase(); }" +
+            "  for (var at = text.indexOf(needle); at >= 0; at = text.indexOf(needle, at + needle.length)) { count++; }" +
+            "}" +
+            "return count;";
+
+    private static final String SNAPSHOT_SCRIPT =
+            "var done = arguments[arguments.length - 1];" +
+            "var html = '<!DOCTYPE html>' + document.documentElement.outerHTML;" +
+            "if (typeof CompressionStream === 'undefined') { done({gzip: false, data: html}); return; }" +
+            "var stream = new Blob([html]).stream().pipeThrough(new CompressionStream('gzip'));" +
+            "new Response(stream).arrayBuffer().then(function (buffer) {" +
+            "  var bytes = new Uint8Array(buffer), binary = '';" +
+            "  for (var i = 0; i < bytes.length; i += 0x8000) {" +
+            "    binary += String.fromCharCode.apply(null, bytes.subarray(i, i + 0x8000));" +
+            "  }" +
+            "  done({gzip: true, data: btoa(binary)});" +
+            "}, function () { done({gzip: false, data: html}); });";
+
+    private PageTextSearch() {
+    }
+
+    /**
+     * Count occurrences of the text in the page, or within the elements matching the scope
+     *
+     * @param scope container to search in, or null for the whole page
+     * @param ignoreCase match regardless of case
+     * @param visibleOnly only search rendered text, ignoring hidden elements, scripts and styles
+     */
+    public static int countMatches(WebDriver driver, String text, By scope, boolean ignoreCase, boolean visibleOnly) {
+        Map<String, Object> spec = new HashMap<>();
+        spec.put("text", text);
+        spec.put("ignoreCase", ignoreCase);
+        spec.put("visibleOnly", visibleOnly);
+
+        WebElement root = null;
+        if (scope instanceof LocatorCompiler.CompiledLocator) {
+            spec.put("css", ((LocatorCompiler.CompiledLocator) scope).getCss());
+            spec.put("xpath", ((LocatorCompiler.CompiledLocator) scope).getXpath());
+        } else if (scope != null) {
+            List<WebElement> containers = driver.findElements(scope);
+            if (containers.isEmpty()) {
+                return 0;
+            }
+            root = containers.get(0);
+        }
+
+        Object count = ((JavascriptExecutor) driver).executeScript(COUNT_SCRIPT, spec, root);
+        return count instanceof Number ? ((Number) count).intValue() : 0;
+    }
+
+    /**
+     * Check if the text appears in the page, or within the elements matching the scope
+     */
+    public static boolean contains(WebDriver driver, String text, By scope, boolean ignoreCase, boolean visibleOnly) {
+        return countMatches(driver, text, scope, ignoreCase, visibleOnly) > 0;
+    }
+
+    /**
+     * Capture the current DOM as gzip-compressed HTML. Compression happens in the browser
+     * when it supports CompressionStream, so the snapshot crosses the wire compressed.
+     */
+    @SuppressWarnings("unchecked")
+    public static byte[] captureCompressedDom(WebDriver driver) {
+        Map<String, Object> result = (Map<String, Object>) ((JavascriptExecutor) driver).executeAsyncScript(SNAPSHOT_SCRIPT);
+        String data = String.valueOf(result.get("data"));
+        if (Boolean.TRUE.equals(result.get("gzip"))) {
+            return Base64.getDecoder().decode(data);
+        }
+
+        logger.debug("Browser cannot compress, compressing DOM snapshot locally");
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (GZIPOutputStream gzip = new GZIPOutputStream(bytes)) {
+            gzip.write(data.getBytes(StandardCharsets.UTF_8));
+        } catch (IOException e) {
+            throw new IllegalStateException("Failed to compress DOM snapshot", e);
+        }
+        return bytes.toByteArray();
+    }
+}
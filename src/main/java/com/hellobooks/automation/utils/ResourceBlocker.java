@@ -0,0 +1,171 @@
+package com.hellobooks.automation.utils;
+
+import com.hellobooks.automation.config.ConfigManager;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.devtools.Command;
+import org.openqa.selenium.devtools.DevTools;
+import org.openqa.selenium.devtools.Event;
+import org.openqa.selenium.devtools.HasDevTools;
+import org.openqa.selenium.json.Json;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.WeakHashMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Drops third-party and heavy requests through DevTools Fetch interception
+ * and keeps per-test statistics about what was blocked.
+ *
+ * Blocked requests are dropped before they are sent, so their size is unknown; blocked
+ * requests are reported as counts per resource type, next to the bytes actually transferred.
+ */
+public class ResourceBlocker {
+    private static final Logger logger = LoggerFactory.getLogger(ResourceBlocker.class);
+    private static final ConfigManager config = ConfigManager.getInstance();
+    private static final Map<WebDriver, BlockingSession> sessions = Collections.synchronizedMap(new WeakHashMap<>());
+
+    private ResourceBlocker() {
+    }
+
+    /**
+     * Install request blocking on the driver (once per browser session) and reset its statistics
+     */
+    public static void attach(WebDriver driver) {
+        if (!config.isResourceBlockingEnabled() || !(driver instanceof HasDevTools)) {
+            return;
+        }
+
+        BlockingSession session = sessions.get(driver);
+        if (session == null) {
+            try {
+                session = new BlockingSession(driver);
+                sessions.put(driver, session);
+            } catch (Exception e) {
+                logger.warn("Resource blocking unavailable for this browser session: {}", e.getMessage());
+                return;
+            }
+        }
+        session.reset();
+    }
+
+    /**
+     * Get statistics collected since the last attach, or null when blocking is not active
+     */
+    public static BlockingStats getStats(WebDriver driver) {
+        BlockingSession session = driver != null ? sessions.get(WebDriverFactory.unwrap(driver)) : null;
+        return session != null ? session.snapshot() : null;
+    }
+
+    /**
+     * Snapshot of blocked requests and transferred bytes for one test
+     */
+    public static class BlockingStats {
+        private final long blockedRequests;
+        private final Map<String, Long> blockedByType;
+        private final long transferredBytes;
+
+        BlockingStats(long blockedRequests, Map<String, Long> blockedByType, long transferredBytes) {
+            this.blockedRequests = blockedRequests;
+            this.blockedByType = blockedByType;
+            this.transferredBytes = transferredBytes;
+        }
+
+        public long getBlockedRequests() {
+            return blockedRequests;
+        }
+
+        public Map<String, Long> getBlockedByType() {
+            return blockedByType;
+        }
+
+        public long getTransferredBytes() {
+            return transferredBytes;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("Blocked %d requests %s, transferred %d KB",
+                    blockedRequests, blockedByType, transferredBytes / 1024);
+        }
+    }
+
+    private static final class BlockingSession {
+        private final Map<String, LongAdder> blockedByType = new ConcurrentHashMap<>();
+        private final LongAdder blockedRequests = new LongAdder();
+        private final AtomicLong transferredBytes = new AtomicLong();
+
+        private BlockingSession(WebDriver driver) {
+            DevTools devTools = ((HasDevTools) driver).getDevTools();
+            devTools.createSessionIfThereIsNotOne(driver.getWindowHandle());
+
+            devTools.addListener(new Event<Map<String, Object>>("Fetch.requestPaused", input -> input.read(Json.MAP_TYPE)),
+                    paused -> {
+                        String resourceType = String.valueOf(paused.get("resourceType"));
+                        blockedRequests.increment();
+                        blockedByType.computeIfAbsent(resourceType, type -> new LongAdder()).increment();
+
+                        Map<String, Object> params = new HashMap<>();
+                        params.put("requestId", paused.get("requestId"));
+                        params.put("errorReason", "BlockedByClient");
+                        devTools.send(new Command<Void>("Fetch.failRequest", params));
+                    });
+            devTools.addListener(new Event<Map<String, Object>>("Network.loadingFinished", input -> input.read(Json.MAP_TYPE)),
+                    finished -> {
+                        Object length = finished.get("encodedDataLength");
+                        if (length instanceof Number) {
+                            transferredBytes.addAndGet(((Number) length).longValue());
+                        }
+                    });
+
+            devTools.send(new Command<Void>("Network.enable", new HashMap<>()));
+            List<Map<String, Object>> patterns = buildPatterns();
+            if (!patterns.isEmpty()) {
+                // An empty pattern list would pause every request, so only enable Fetch when something is blocked
+                Map<String, Object> fetchParams = new HashMap<>();
+                fetchParams.put("patterns", patterns);
+                devTools.send(new Command<Void>("Fetch.enable", fetchParams));
+            }
+            logger.info("Resource blocking enabled for URL patterns {} and resource types {}",
+                    config.getBlockedUrlPatterns(), config.getBlockedResourceTypes());
+        }
+
+        private static List<Map<String, Object>> buildPatterns() {
+            List<Map<String, Object>> patterns = new ArrayList<>();
+            for (String urlPattern : config.getBlockedUrlPatterns()) {
+                Map<String, Object> pattern = new HashMap<>();
+                pattern.put("urlPattern", urlPattern);
+                pattern.put("requestStage", "Request");
+                patterns.add(pattern);
+            }
+            for (String resourceType : config.getBlockedResourceTypes()) {
+                Map<String, Object> pattern = new HashMap<>();
+                pattern.put("urlPattern", "*");
+                pattern.put("resourceType", resourceType);
+                pattern.put("requestStage", "Request");
+                patterns.add(pattern);
+            }
+            return patterns;
+        }
+
+        private void reset() {
+            blockedRequests.reset();
+            blockedByType.clear();
+            transferredBytes.set(0);
+        }
+
+        private BlockingStats snapshot() {
+            Map<String, Long> byType = new TreeMap<>();
+            blockedByType.forEach((type, count) -> byType.put(type, count.sum()));
+            return new BlockingStats(blockedRequests.sum(), byType, transferredBytes.get());
+        }
+    }
+}
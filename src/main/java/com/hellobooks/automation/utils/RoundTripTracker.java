@@ -0,0 +1,221 @@
+package com.hellobooks.automation.utils;
+
+import com.hellobooks.automation.config.ConfigManager;
+import org.openqa.selenium.support.events.WebDriverListener;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Collectors;
+
+/**
+ * Attributes every WebDriver command to the page-object methods that issued it and
+ * checks the count per invocation against budgets declared in config
+ * (roundtrip.budget.&lt;PageClass&gt;.&lt;method&gt;). Invocations are recognised from the call
+ * stack: an invocation ends when the next command is issued from a different call chain,
+ * or when {@link #endTest()} is called.
+ */
+public class RoundTripTracker implements WebDriverListener {
+    private static final Logger logger = LoggerFactory.getLogger(RoundTripTracker.class);
+    private static final ConfigManager config = ConfigManager.getInstance();
+    private static final String PAGE_PACKAGE = "com.hellobooks.automation.pages.";
+
+    /** Calls answered by the client without a round trip to the browser */
+    private static final Set<String> LOCAL_METHODS = new HashSet<>(Arrays.asList(
+            "manage", "navigate", "switchTo", "timeouts", "window", "logs",
+            "getWrappedDriver", "getWrappedElement", "toString", "hashCode", "equals"));
+
+    private static final ThreadLocal<List<Invocation>> openInvocations = ThreadLocal.withInitial(ArrayList::new);
+    private static final ThreadLocal<List<String>> violations = ThreadLocal.withInitial(ArrayList::new);
+    private static final Map<String, MethodTotals> totals = new ConcurrentHashMap<>();
+    private static final LongAdder unattributed = new LongAdder();
+
+    static {
+        Runtime.getRuntime().addShutdownHook(new Thread(RoundTripTracker::logSummary, "round-trip-summary"));
+    }
+
+    @Override
+    public void beforeAnyCall(Object target, Method method, Object[] args) {
+        if (LOCAL_METHODS.contains(method.getName())) {
+            return;
+        }
+
+        List<Invocation> chain = currentPageChain();
+        List<Invocation> open = openInvocations.get();
+
+        int common = 0;
+        while (common < open.size() && common < chain.size() && open.get(common).sameCall(chain.get(common))) {
+            common++;
+        }
+        closeFrom(open, common);
+        open.addAll(chain.subList(common, chain.size()));
+
+        if (open.isEmpty()) {
+            unattributed.increment();
+        }
+        for (Invocation invocation : open) {
+            invocation.commands++;
+        }
+    }
+
+    @Override
+    public void afterAnyCall(Object target, Method method, Object[] args, Object result) {
+        markCommandEnd(method);
+    }
+
+    @Override
+    public void onError(Object target, Method method, Object[] args, InvocationTargetException e) {
+        markCommandEnd(method);
+    }
+
+    private static void markCommandEnd(Method method) {
+        if (LOCAL_METHODS.contains(method.getName())) {
+            return;
+        }
+        long now = System.nanoTime();
+        for (Invocation invocation : openInvocations.get()) {
+            invocation.endNanos = now;
+        }
+    }
+
+    /**
+     * Close the invocations still open on this thread; call when a test method finishes
+     */
+    public static void endTest() {
+        closeFrom(openInvocations.get(), 0);
+    }
+
+    /**
+     * Budget violations recorded on this thread since the last call, cleared on return
+     */
+    public static List<String> drainViolations() {
+        List<String> recorded = new ArrayList<>(violations.get());
+        violations.get().clear();
+        return recorded;
+    }
+
+    /**
+     * Reset the state of this thread, e.g. before a test method starts
+     */
+    public static void reset() {
+        openInvocations.get().clear();
+        violations.get().clear();
+    }
+
+    /**
+     * Page-object frames on the current stack, outermost first, each keyed by its call site
+     */
+    private static List<Invocation> currentPageChain() {
+        List<StackWalker.StackFrame> frames = StackWalker.getInstance().walk(stream -> stream.collect(Collectors.toList()));
+        List<Invocation> chain = new ArrayList<>();
+        for (int i = frames.size() - 1; i >= 0; i--) {
+            StackWalker.StackFrame frame = frames.get(i);
+            if (!frame.getClassName().startsWith(PAGE_PACKAGE) || frame.getMethodName().startsWith("lambda$")) {
+                continue;
+            }
+            StackWalker.StackFrame caller = i + 1 < frames.size() ? frames.get(i + 1) : null;
+            String method = frame.getClassName().substring(PAGE_PACKAGE.length()) + "." + frame.getMethodName();
+            String callSite = caller == null ? "" : caller.getClassName() + "." + caller.getMethodName() + "@" + caller.getByteCodeIndex();
+            chain.add(new Invocation(method, callSite));
+        }
+        return chain;
+    }
+
+    private static void closeFrom(List<Invocation> open, int index) {
+        while (open.size() > index) {
+            close(open.remove(open.size() - 1));
+        }
+    }
+
+    private static void close(Invocation invocation) {
+        // The span runs from the first command's start to the last command's end
+        ExecutionTracer.record(invocation.method, "page", invocation.startNanos,
+                Math.max(invocation.startNanos, invocation.endNanos), Map.of("commands", invocation.commands));
+        if (!config.isRoundTripTrackingEnabled()) {
+            // Installed for the execution trace's attribution only; counts and budgets stay off
+            return;
+        }
+
+        totals.computeIfAbsent(invocation.method, name -> new MethodTotals()).add(invocation.commands);
+        int budget = config.getRoundTripBudget(invocation.method);
+        if (budget >= 0 && invocation.commands > budget) {
+            String violation = String.format("%s issued %d WebDriver commands (budget %d)",
+                    invocation.method, invocation.commands, budget);
+            logger.warn("Round-trip budget exceeded: {}", violation);
+            violations.get().add(violation);
+        }
+    }
+
+    /**
+     * Log command counts per page-object method, most expensive first
+     */
+    public static void logSummary() {
+        if (totals.isEmpty()) {
+            return;
+        }
+        List<Map.Entry<String, MethodTotals>> entries = new ArrayList<>(totals.entrySet());
+        entries.sort(Collections.reverseOrder(Map.Entry.comparingByValue()));
+
+        StringBuilder summary = new StringBuilder("WebDriver round trips per page-object method:");
+        for (Map.Entry<String, MethodTotals> entry : entries) {
+            MethodTotals methodTotals = entry.getValue();
+            int budget = config.getRoundTripBudget(entry.getKey());
+            summary.append(String.format("%n  %-55s %5d calls, avg %6.1f, max %4d%s", entry.getKey(),
+                    methodTotals.invocations.sum(), methodTotals.average(), methodTotals.max,
+                    budget >= 0 ? ", budget " + budget : ""));
+        }
+        summary.append(String.format("%n  %d commands were issued outside page objects", unattributed.sum()));
+        logger.info(summary.toString());
+    }
+
+    private static final class Invocation {
+        private final String method;
+        private final String callSite;
+        private final long startNanos = System.nanoTime();
+        private long endNanos;
+        private int commands;
+
+        private Invocation(String method, String callSite) {
+            this.method = method;
+            this.callSite = callSite;
+        }
+
+        private boolean sameCall(Invocation other) {
+            return method.equals(other.method) && callSite.equals(other.callSite);
+        }
+    }
+
+    private static final class MethodTotals implements Comparable<MethodTotals> {
+        private final LongAdder invocations = new LongAdder();
+        private final LongAdder commands = new LongAdder();
+        private volatile int max;
+
+        private void add(int count) {
+            invocations.increment();
+            commands.add(count);
+            synchronized (this) {
+                max = Math.max(max, count);
+            }
+        }
+
+        private double average() {
+            long calls = invocations.sum();
+            return calls == 0 ? 0 : (double) commands.sum() / calls;
+        }
+
+        @Override
+        public int compareTo(MethodTotals other) {
+            return Long.compare(commands.sum(), other.commands.sum());
+        }
+    }
+}
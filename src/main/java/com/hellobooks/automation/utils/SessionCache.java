@@ -0,0 +1,184 @@
+package com.hellobooks.automation.utils;
+
+import com.hellobooks.automation.config.ConfigManager;
+import org.openqa.selenium.Cookie;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebDriverException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.BooleanSupplier;
+
+/**
+ * Caches authenticated browser sessions per user. The first test needing a user logs in
+ * through the UI; its cookies, localStorage and sessionStorage are captured and injected
+ * into later browsers, so they start authenticated after loading one page of the
+ * application origin. Sessions expire after session.cache.ttl.minutes or at the earliest
+ * cookie expiry, and are dropped when an injected session turns out to be rejected.
+ * Sessions are kept in memory only, so credentials never end up on disk.
+ */
+public class SessionCache {
+    private static final Logger logger = LoggerFactory.getLogger(SessionCache.class);
+    private static final ConfigManager config = ConfigManager.getInstance();
+
+    private static final Map<String, Session> sessions = new ConcurrentHashMap<>();
+    /** One lock per user, so parallel tests wait for a single UI login instead of each logging in */
+    private static final Map<String, Object> loginLocks = new ConcurrentHashMap<>();
+    private static final LongAdder hits = new LongAdder();
+    private static final LongAdder logins = new LongAdder();
+    private static final LongAdder rejected = new LongAdder();
+
+    static {
+        Runtime.getRuntime().addShutdownHook(new Thread(SessionCache::logSummary, "session-cache-summary"));
+    }
+
+    private SessionCache() {
+    }
+
+    /**
+     * Authenticate the browser as a user, reusing a cached session when possible
+     *
+     * @param user            cache key, usually the email address
+     * @param uiLogin         logs in through the UI and returns whether it succeeded
+     * @param isAuthenticated checks whether the current page belongs to an authenticated session
+     * @return whether the browser ended up authenticated
+     */
+    public static boolean authenticate(WebDriver driver, String user, BooleanSupplier uiLogin, BooleanSupplier isAuthenticated) {
+        if (!config.isSessionCacheEnabled()) {
+            return uiLogin.getAsBoolean();
+        }
+
+        Session cached = sessions.get(user);
+        if (cached != null && restore(driver, user, cached, isAuthenticated)) {
+            return true;
+        }
+
+        synchronized (loginLocks.computeIfAbsent(user, key -> new Object())) {
+            // Another thread may have logged this user in while we waited
+            Session current = sessions.get(user);
+            if (current != null && current != cached && restore(driver, user, current, isAuthenticated)) {
+                return true;
+            }
+
+            boolean loggedIn = ExecutionTracer.trace("UI login " + user, "framework", uiLogin::getAsBoolean);
+            logins.increment();
+            if (loggedIn) {
+                capture(driver, user);
+            }
+            return loggedIn;
+        }
+    }
+
+    /**
+     * Cache the session of a user who just logged in through the UI, e.g. in a test whose subject
+     * is login, so later tests of the same user restore it instead of logging in again
+     */
+    public static void remember(WebDriver driver, String user) {
+        if (config.isSessionCacheEnabled()) {
+            capture(driver, user);
+        }
+    }
+
+    /**
+     * Drop the cached session of a user, e.g. after a test logged it out on the server
+     */
+    public static void invalidate(String user) {
+        if (sessions.remove(user) != null) {
+            logger.info("Invalidated cached session for {}", user);
+        }
+    }
+
+    private static boolean restore(WebDriver driver, String user, Session session, BooleanSupplier isAuthenticated) {
+        if (session.isExpired()) {
+            sessions.remove(user, session);
+            logger.info("Cached session for {} expired", user);
+            return false;
+        }
+        try {
+            boolean authenticated = ExecutionTracer.trace("restore session " + user, "framework", () -> {
+                BrowserStorage.inject(driver, session.origin, config.getSessionCacheBootstrapPath(), session.cookies,
+                        session.localStorage, session.sessionStorage);
+                BrowserStorage.open(driver, session.url);
+                return isAuthenticated.getAsBoolean();
+            });
+            if (authenticated) {
+                hits.increment();
+                logger.info("Restored cached session for {}", user);
+                return true;
+            }
+        } catch (WebDriverException e) {
+            logger.warn("Failed to restore cached session for {}: {}", user, e.getMessage());
+        }
+        // The server no longer accepts the session; clear what was injected and log in again
+        sessions.remove(user, session);
+        rejected.increment();
+        driver.manage().deleteAllCookies();
+        return false;
+    }
+
+    private static void capture(WebDriver driver, String user) {
+        try {
+            String url = driver.getCurrentUrl();
+            String origin = BrowserStorage.originOf(url);
+            Set<Cookie> cookies = driver.manage().getCookies();
+            Map<String, Map<String, Object>> storage = BrowserStorage.captureWebStorage(driver);
+
+            Instant expiresAt = Instant.now().plus(Duration.ofMinutes(config.getSessionCacheTtlMinutes()));
+            for (Cookie cookie : cookies) {
+                Date expiry = cookie.getExpiry();
+                if (expiry != null && expiry.toInstant().isBefore(expiresAt)) {
+                    expiresAt = expiry.toInstant();
+                }
+            }
+
+            Session session = new Session(origin, url, cookies, storage.get("local"), storage.get("session"), expiresAt);
+            sessions.put(user, session);
+            logger.info("Cached session for {} ({} cookies, {} localStorage and {} sessionStorage items, expires {})",
+                    user, cookies.size(), session.localStorage.size(), session.sessionStorage.size(), expiresAt);
+        } catch (WebDriverException | IllegalArgumentException e) {
+            logger.warn("Failed to capture session for {}: {}", user, e.getMessage());
+        }
+    }
+
+    /**
+     * Log how many logins were replaced by restored sessions
+     */
+    public static void logSummary() {
+        if (hits.sum() == 0 && logins.sum() == 0) {
+            return;
+        }
+        logger.info("Session cache: {} UI logins, {} restored sessions, {} rejected sessions",
+                logins.sum(), hits.sum(), rejected.sum());
+    }
+
+    private static final class Session {
+        private final String origin;
+        private final String url;
+        private final Set<Cookie> cookies;
+        private final Map<String, Object> localStorage;
+        private final Map<String, Object> sessionStorage;
+        private final Instant expiresAt;
+
+        private Session(String origin, String url, Set<Cookie> cookies, Map<String, Object> localStorage,
+                        Map<String, Object> sessionStorage, Instant expiresAt) {
+            this.origin = origin;
+            this.url = url;
+            this.cookies = cookies;
+            this.localStorage = localStorage != null ? localStorage : new HashMap<>();
+            this.sessionStorage = sessionStorage != null ? sessionStorage : new HashMap<>();
+            this.expiresAt = expiresAt;
+        }
+
+        private boolean isExpired() {
+            return Instant.now().isAfter(expiresAt);
+        }
+    }
+}
@@ -0,0 +1,153 @@
+package com.hellobooks.automation.utils;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.TreeSet;
+
+/**
+ * Splits test methods into shards of roughly equal historical duration. The plan only
+ * depends on the method names, the shard count and the duration history, so every
+ * shard computes the same plan independently as long as they share the history file.
+ * Shards never write that file (see {@link TestDurationHistory}), so it stays frozen
+ * until the merge step.
+ */
+public class ShardPlanner {
+    private static final Logger logger = LoggerFactory.getLogger(ShardPlanner.class);
+    private static final ObjectMapper objectMapper = new ObjectMapper();
+
+    /** Estimate for every test when no history exists, so shards get equal method counts */
+    private static final long DEFAULT_ESTIMATE_MILLIS = 1000;
+
+    private ShardPlanner() {
+    }
+
+    /**
+     * Assign each test to a shard, longest tests first, each to the shard with the least work so far
+     *
+     * @param testNames fully qualified test method names
+     */
+    public static ShardPlan plan(Iterable<String> testNames, int shardCount) {
+        if (shardCount < 1) {
+            throw new IllegalArgumentException("Shard count must be at least 1, got " + shardCount);
+        }
+        // Sorted, de-duplicated names keep the plan independent of discovery order
+        List<String> names = new ArrayList<>(new TreeSet<>(toList(testNames)));
+
+        Map<String, Long> estimates = new TreeMap<>();
+        long knownTotal = 0;
+        int known = 0;
+        for (String name : names) {
+            long millis = TestDurationHistory.getExpectedMillis(name);
+            estimates.put(name, millis);
+            if (millis >= 0) {
+                knownTotal += millis;
+                known++;
+            }
+        }
+        long unknownEstimate = known > 0 ? knownTotal / known : DEFAULT_ESTIMATE_MILLIS;
+        estimates.replaceAll((name, millis) -> millis >= 0 ? millis : unknownEstimate);
+
+        names.sort(Comparator.comparing((String name) -> estimates.get(name)).reversed()
+                .thenComparing(Comparator.naturalOrder()));
+
+        ShardPlan plan = new ShardPlan(shardCount);
+        for (String name : names) {
+            int lightest = 0;
+            for (int shard = 1; shard < shardCount; shard++) {
+                if (plan.predictedMillis[shard] < plan.predictedMillis[lightest]) {
+                    lightest = shard;
+                }
+            }
+            plan.assign(name, lightest, estimates.get(name));
+        }
+        return plan;
+    }
+
+    private static List<String> toList(Iterable<String> values) {
+        List<String> list = new ArrayList<>();
+        values.forEach(list::add);
+        return list;
+    }
+
+    /**
+     * Assignment of tests to shards with the predicted duration of each shard
+     */
+    public static class ShardPlan {
+        private final int shardCount;
+        private final Map<String, Integer> assignments = new TreeMap<>();
+        private final long[] predictedMillis;
+
+        private ShardPlan(int shardCount) {
+            this.shardCount = shardCount;
+            this.predictedMillis = new long[shardCount];
+        }
+
+        private void assign(String testName, int shard, long estimateMillis) {
+            assignments.put(testName, shard);
+            predictedMillis[shard] += estimateMillis;
+        }
+
+        public int getShardCount() {
+            return shardCount;
+        }
+
+        /**
+         * Shard a test belongs to, or -1 when it was not part of the plan
+         */
+        public int shardOf(String testName) {
+            return assignments.getOrDefault(testName, -1);
+        }
+
+        public long getPredictedMillis(int shard) {
+            return predictedMillis[shard];
+        }
+
+        /**
+         * Tests of one shard in name order
+         */
+        public List<String> getTests(int shard) {
+            List<String> tests = new ArrayList<>();
+            assignments.forEach((name, assigned) -> {
+                if (assigned == shard) {
+                    tests.add(name);
+                }
+            });
+            return Collections.unmodifiableList(tests);
+        }
+
+        /**
+         * Write the manifest of one shard. The content is deterministic, so manifests
+         * from different containers can be diffed to verify they agree on the plan.
+         */
+        public void writeManifest(int shard, File file) {
+            Map<String, Object> manifest = new LinkedHashMap<>();
+            manifest.put("shardIndex", shard);
+            manifest.put("shardCount", shardCount);
+            manifest.put("predictedMillis", predictedMillis[shard]);
+            List<Long> allShards = new ArrayList<>();
+            for (long millis : predictedMillis) {
+                allShards.add(millis);
+            }
+            manifest.put("predictedMillisPerShard", allShards);
+            manifest.put("tests", getTests(shard));
+            try {
+                file.getParentFile().mkdirs();
+                objectMapper.writerWithDefaultPrettyPrinter().writeValue(file, manifest);
+                logger.info("Shard manifest written to {}", file.getPath());
+            } catch (IOException e) {
+                logger.warn("Failed to write shard manifest {}: {}", file, e.getMessage());
+            }
+        }
+    }
+}
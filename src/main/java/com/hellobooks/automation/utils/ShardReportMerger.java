@@ -0,0 +1,121 @@
+package com.hellobooks.automation.utils;
+
+import com.aventstack.extentreports.ExtentReports;
+import com.aventstack.extentreports.reporter.ExtentSparkReporter;
+import com.aventstack.extentreports.reporter.configuration.Theme;
+import com.hellobooks.automation.config.ConfigManager;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Combines the reports of a sharded run into one. Each shard writes its Extent report and
+ * JSON archive to &lt;report.path&gt;/shard-&lt;i&gt; and its Allure results to
+ * &lt;allure.results.directory&gt;/shard-&lt;i&gt;. The Extent archives are replayed into a single
+ * Spark report under &lt;report.path&gt;/merged, and the Allure result files (uniquely named)
+ * are copied into the Allure results directory itself so allure:report sees all shards.
+ * The test durations measured by the shards are folded into the shared duration history,
+ * which the shards themselves only read.
+ */
+public class ShardReportMerger {
+    private static final Logger logger = LoggerFactory.getLogger(ShardReportMerger.class);
+    private static final ConfigManager config = ConfigManager.getInstance();
+    private static final String SHARD_DIR_GLOB = "shard-*";
+
+    private ShardReportMerger() {
+    }
+
+    public static void main(String[] args) throws IOException {
+        int archives = mergeExtentReports(Paths.get(config.getReportPath()));
+        int allureFiles = mergeAllureResults(Paths.get(config.getAllureResultsDirectory()));
+        int durationFiles = TestDurationHistory.mergeShardFiles();
+        if (archives == 0 && allureFiles == 0 && durationFiles == 0) {
+            logger.warn("No shard outputs found under {} or {}", config.getReportPath(), config.getAllureResultsDirectory());
+        }
+    }
+
+    /**
+     * Replay the Extent JSON archives of all shards into one Spark report
+     *
+     * @return number of archives merged
+     */
+    public static int mergeExtentReports(Path reportRoot) throws IOException {
+        List<Path> archives = new ArrayList<>();
+        for (Path shardDir : shardDirectories(reportRoot)) {
+            try (Stream<Path> files = Files.list(shardDir)) {
+                archives.addAll(files.filter(file -> file.getFileName().toString().endsWith(".json"))
+                        .sorted()
+                        .collect(Collectors.toList()));
+            }
+        }
+        if (archives.isEmpty()) {
+            return 0;
+        }
+
+        File mergedReport = reportRoot.resolve("merged").resolve("HelloBooks_TestReport_merged.html").toFile();
+        mergedReport.getParentFile().mkdirs();
+        ExtentSparkReporter sparkReporter = new ExtentSparkReporter(mergedReport);
+        sparkReporter.config().setTheme(Theme.STANDARD);
+        sparkReporter.config().setDocumentTitle("HelloBooks Test Automation Report");
+        sparkReporter.config().setReportName("Login & Signup Test Results (" + archives.size() + " shard reports)");
+        sparkReporter.config().setTimeStampFormat("yyyy-MM-dd HH:mm:ss");
+        sparkReporter.config().setEncoding("utf-8");
+
+        ExtentReports extent = new ExtentReports();
+        for (Path archive : archives) {
+            extent.createDomainFromJsonArchive(archive.toFile());
+        }
+        extent.attachReporter(sparkReporter);
+        extent.flush();
+        logger.info("Merged {} Extent archives into {}", archives.size(), mergedReport.getPath());
+        return archives.size();
+    }
+
+    /**
+     * Copy the Allure results of all shards into the results root
+     *
+     * @return number of files copied
+     */
+    public static int mergeAllureResults(Path resultsRoot) throws IOException {
+        int copied = 0;
+        for (Path shardDir : shardDirectories(resultsRoot)) {
+            try (Stream<Path> files = Files.list(shardDir)) {
+                for (Path file : files.filter(Files::isRegularFile).collect(Collectors.toList())) {
+                    Files.copy(file, resultsRoot.resolve(file.getFileName()), StandardCopyOption.REPLACE_EXISTING);
+                    copied++;
+                }
+            }
+        }
+        if (copied > 0) {
+            logger.info("Copied {} Allure result files into {}", copied, resultsRoot);
+        }
+        return copied;
+    }
+
+    private static List<Path> shardDirectories(Path root) throws IOException {
+        List<Path> directories = new ArrayList<>();
+        if (!Files.isDirectory(root)) {
+            return directories;
+        }
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(root, SHARD_DIR_GLOB)) {
+            for (Path path : stream) {
+                if (Files.isDirectory(path)) {
+                    directories.add(path);
+                }
+            }
+        }
+        directories.sort(null);
+        return directories;
+    }
+}
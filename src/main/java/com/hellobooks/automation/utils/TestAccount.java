@@ -0,0 +1,48 @@
+package com.hellobooks.automation.utils;
+
+/**
+ * Credentials of a verified user created ahead of time by an {@link AccountProvisioner}
+ */
+public class TestAccount {
+    private final String email;
+    private final String password;
+    private final String firstName;
+    private final String lastName;
+
+    public TestAccount(String email, String password, String firstName, String lastName) {
+        this.email = email;
+        this.password = password;
+        this.firstName = firstName;
+        this.lastName = lastName;
+    }
+
+    /**
+     * New credentials with a unique email; the email stays unique within a bulk request,
+     * unlike {@link TestDataGenerator#generateUniqueEmail()} which uses a per-second timestamp
+     */
+    public static TestAccount generate() {
+        return new TestAccount(TestDataGenerator.generateUniquePoolEmail(), TestDataGenerator.generateValidPassword(),
+                TestDataGenerator.generateFirstName(), TestDataGenerator.generateLastName());
+    }
+
+    public String getEmail() {
+        return email;
+    }
+
+    public String getPassword() {
+        return password;
+    }
+
+    public String getFirstName() {
+        return firstName;
+    }
+
+    public String getLastName() {
+        return lastName;
+    }
+
+    @Override
+    public String toString() {
+        return email;
+    }
+}
@@ -31,6 +31,16 @@ public class TestDataGenerator {
         }
     }
 
+    /**
+     * Generate an email address that stays unique when many are created in the same second
+     * @return unique email address tagged as a pre-provisioned pool account
+     */
+    public static String generateUniquePoolEmail() {
+        String timestamp = LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyyMMddHHmmss"));
+        String randomString = RandomStringUtils.randomAlphanumeric(6).toLowerCase();
+        return config.getTestEmailPrefix() + "+pool" + timestamp + randomString + config.getTestEmailDomain();
+    }
+
     /**
      * Generate a valid password that meets common password policies
      * @return valid password
@@ -0,0 +1,174 @@
+package com.hellobooks.automation.utils;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.hellobooks.automation.config.ConfigManager;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Durations of test methods across runs, kept as an exponentially weighted average in a
+ * JSON store under target/. Used to schedule the longest tests first and to balance shards.
+ *
+ * Shards plan from the store, so a sharded run must not change it while other shards may still
+ * be planning: each shard writes its durations to its own file in shard.manifest.dir, and the
+ * merge step folds them into the store with {@link #mergeShardFiles()}.
+ */
+public class TestDurationHistory {
+    private static final Logger logger = LoggerFactory.getLogger(TestDurationHistory.class);
+    private static final ConfigManager config = ConfigManager.getInstance();
+    private static final ObjectMapper objectMapper = new ObjectMapper();
+
+    /** Weight of the newest run in the moving average */
+    private static final double SMOOTHING = 0.3;
+    private static final String SHARD_FILE_PREFIX = "test-durations-shard-";
+
+    /** Durations loaded from earlier runs */
+    private static final Map<String, DurationRecord> history = readStore();
+    /** Durations measured in this run, merged into the store by {@link #persist()} */
+    private static final Map<String, DurationRecord> session = new ConcurrentHashMap<>();
+
+    static {
+        Runtime.getRuntime().addShutdownHook(new Thread(TestDurationHistory::persist, "test-duration-history"));
+    }
+
+    private TestDurationHistory() {
+    }
+
+    /**
+     * Average duration of a test from earlier runs, or -1 when it has never run
+     *
+     * @param testName fully qualified class name and method, e.g. com.example.LoginTests.testLogin
+     */
+    public static long getExpectedMillis(String testName) {
+        DurationRecord record = history.get(testName);
+        return record != null ? Math.round(record.averageMillis) : -1;
+    }
+
+    /**
+     * Record the duration of one test execution
+     */
+    public static void record(String testName, long millis) {
+        session.compute(testName, (name, record) -> {
+            DurationRecord updated = record != null ? record : new DurationRecord();
+            updated.add(millis);
+            return updated;
+        });
+    }
+
+    private static Map<String, DurationRecord> readStore() {
+        return read(new File(config.getTestDurationsFile()));
+    }
+
+    private static Map<String, DurationRecord> read(File store) {
+        if (!store.exists()) {
+            return new TreeMap<>();
+        }
+        try {
+            return objectMapper.readValue(store, new TypeReference<TreeMap<String, DurationRecord>>() {});
+        } catch (IOException e) {
+            logger.warn("Ignoring unreadable test duration history {}: {}", store, e.getMessage());
+            return new TreeMap<>();
+        }
+    }
+
+    /**
+     * Merge this run's durations into the store, or into this shard's own file in a sharded run
+     */
+    public static synchronized void persist() {
+        if (session.isEmpty()) {
+            return;
+        }
+        Path target = config.getShardCount() > 1
+                ? Paths.get(config.getShardManifestDir(), SHARD_FILE_PREFIX + config.getShardIndex() + ".json")
+                : Paths.get(config.getTestDurationsFile());
+        // Re-read the file so runs finishing in parallel do not overwrite each other's durations
+        Map<String, DurationRecord> merged = read(target.toFile());
+        session.forEach((name, record) -> merged.merge(name, record, DurationRecord::merge));
+        if (write(target, merged)) {
+            session.clear();
+        }
+    }
+
+    /**
+     * Fold the durations written by the shards of a finished sharded run into the store
+     * and delete the shard files
+     *
+     * @return number of shard files merged
+     */
+    public static synchronized int mergeShardFiles() throws IOException {
+        Path shardDir = Paths.get(config.getShardManifestDir());
+        if (!Files.isDirectory(shardDir)) {
+            return 0;
+        }
+        List<Path> shardFiles = new ArrayList<>();
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(shardDir, SHARD_FILE_PREFIX + "*.json")) {
+            stream.forEach(shardFiles::add);
+        }
+        if (shardFiles.isEmpty()) {
+            return 0;
+        }
+        shardFiles.sort(null);
+
+        Map<String, DurationRecord> merged = readStore();
+        for (Path shardFile : shardFiles) {
+            read(shardFile.toFile()).forEach((name, record) -> merged.merge(name, record, DurationRecord::merge));
+        }
+        if (!write(Paths.get(config.getTestDurationsFile()), merged)) {
+            return 0;
+        }
+        for (Path shardFile : shardFiles) {
+            Files.delete(shardFile);
+        }
+        logger.info("Merged test durations of {} shards into {}", shardFiles.size(), config.getTestDurationsFile());
+        return shardFiles.size();
+    }
+
+    private static boolean write(Path storePath, Map<String, DurationRecord> records) {
+        try {
+            Path parent = storePath.toAbsolutePath().getParent();
+            Files.createDirectories(parent);
+            Path tempFile = Files.createTempFile(parent, "test-durations", ".tmp");
+            objectMapper.writerWithDefaultPrettyPrinter().writeValue(tempFile.toFile(), records);
+            Files.move(tempFile, storePath, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            return true;
+        } catch (IOException e) {
+            logger.warn("Failed to update test duration history {}: {}", storePath, e.getMessage());
+            return false;
+        }
+    }
+
+    /**
+     * Moving average duration of one test method
+     */
+    public static class DurationRecord {
+        public long runs;
+        public double averageMillis;
+
+        private void add(long millis) {
+            averageMillis = runs == 0 ? millis : SMOOTHING * millis + (1 - SMOOTHING) * averageMillis;
+            runs++;
+        }
+
+        private static DurationRecord merge(DurationRecord stored, DurationRecord recorded) {
+            DurationRecord sum = new DurationRecord();
+            sum.runs = stored.runs + recorded.runs;
+            // Weight this run's average like one more observation of the stored history
+            sum.averageMillis = SMOOTHING * recorded.averageMillis + (1 - SMOOTHING) * stored.averageMillis;
+            return sum;
+        }
+    }
+}
@@ -0,0 +1,172 @@
+package com.hellobooks.automation.utils;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.hellobooks.automation.config.ConfigManager;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Append-only history of test outcomes across runs, one JSON record per line in
+ * flaky.history.file, and the flakiness scores derived from it. A run counts as flaky for
+ * a test when the test only passed after a retry, or when its outcome differs from the
+ * previous run's; the score is the share of flaky runs among the last flaky.window.runs.
+ */
+public class TestOutcomeHistory {
+    private static final Logger logger = LoggerFactory.getLogger(TestOutcomeHistory.class);
+    private static final ConfigManager config = ConfigManager.getInstance();
+    private static final ObjectMapper objectMapper = new ObjectMapper();
+
+    /** Identifies the records of this JVM's run */
+    public static final String RUN_ID = LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyyMMdd_HHmmss"))
+            + "_" + ProcessHandle.current().pid();
+
+    /** Number of rolling scores shown as a trend */
+    private static final int TREND_POINTS = 5;
+
+    /** Records per test from earlier runs, oldest first; this run's records are only appended to the file */
+    private static final Map<String, List<OutcomeRecord>> history = readHistory();
+
+    private TestOutcomeHistory() {
+    }
+
+    /**
+     * Append the final outcome of a test in this run
+     *
+     * @param testName   fully qualified class name and method
+     * @param lane       "main" or "quarantine"
+     * @param status     PASS, FAIL or SKIP
+     * @param durationMillis time spent on the test including retried attempts
+     * @param retries    number of retried attempts before the final one
+     */
+    public static synchronized void record(String testName, String lane, String status, long durationMillis, int retries) {
+        OutcomeRecord record = new OutcomeRecord();
+        record.run = RUN_ID;
+        record.time = Instant.now().toString();
+        record.test = testName;
+        record.lane = lane;
+        record.status = status;
+        record.durationMillis = durationMillis;
+        record.retries = retries;
+
+        Path file = Paths.get(config.getFlakyHistoryFile());
+        try {
+            Path parent = file.toAbsolutePath().getParent();
+            Files.createDirectories(parent);
+            String line = objectMapper.writeValueAsString(record) + System.lineSeparator();
+            // A single appended line per record, so parallel runs (e.g. shards) do not corrupt each other
+            Files.write(file, line.getBytes(StandardCharsets.UTF_8), StandardOpenOption.CREATE,
+                    StandardOpenOption.APPEND, StandardOpenOption.WRITE);
+        } catch (IOException e) {
+            logger.warn("Failed to append to test history {}: {}", file, e.getMessage());
+        }
+    }
+
+    /**
+     * Flakiness score between 0 and 1 from the most recent runs of a test before this run
+     */
+    public static double getFlakinessScore(String testName) {
+        List<OutcomeRecord> records = history.getOrDefault(testName, Collections.emptyList());
+        return score(records, records.size());
+    }
+
+    /**
+     * Number of earlier runs the score of a test is based on
+     */
+    public static int getScoredRuns(String testName) {
+        return Math.min(history.getOrDefault(testName, Collections.emptyList()).size(), config.getFlakyWindowRuns());
+    }
+
+    /**
+     * Scores of the last few runs, oldest first, each computed over the window ending at that run
+     */
+    public static List<Double> getScoreTrend(String testName) {
+        List<OutcomeRecord> records = history.getOrDefault(testName, Collections.emptyList());
+        List<Double> trend = new ArrayList<>();
+        for (int end = Math.max(1, records.size() - TREND_POINTS + 1); end <= records.size(); end++) {
+            trend.add(score(records, end));
+        }
+        return trend;
+    }
+
+    /**
+     * Tests with history, in name order
+     */
+    public static List<String> getTestNames() {
+        return new ArrayList<>(history.keySet());
+    }
+
+    private static double score(List<OutcomeRecord> records, int end) {
+        int start = Math.max(0, end - config.getFlakyWindowRuns());
+        if (end - start == 0) {
+            return 0;
+        }
+        int flaky = 0;
+        String previous = start > 0 ? records.get(start - 1).status : null;
+        for (int i = start; i < end; i++) {
+            OutcomeRecord record = records.get(i);
+            boolean passedOnRetry = "PASS".equals(record.status) && record.retries > 0;
+            boolean flipped = previous != null && !"SKIP".equals(record.status) && !"SKIP".equals(previous)
+                    && !previous.equals(record.status);
+            if (passedOnRetry || flipped) {
+                flaky++;
+            }
+            if (!"SKIP".equals(record.status)) {
+                previous = record.status;
+            }
+        }
+        return (double) flaky / (end - start);
+    }
+
+    private static Map<String, List<OutcomeRecord>> readHistory() {
+        Map<String, List<OutcomeRecord>> records = new TreeMap<>();
+        Path file = Paths.get(config.getFlakyHistoryFile());
+        if (!Files.exists(file)) {
+            return records;
+        }
+        try {
+            for (String line : Files.readAllLines(file, StandardCharsets.UTF_8)) {
+                if (line.isBlank()) {
+                    continue;
+                }
+                try {
+                    OutcomeRecord record = objectMapper.readValue(line, OutcomeRecord.class);
+                    records.computeIfAbsent(record.test, name -> new ArrayList<>()).add(record);
+                } catch (IOException e) {
+                    // A run killed mid-write leaves a partial last line; skip it
+                    logger.debug("Skipping unreadable test history line: {}", e.getMessage());
+                }
+            }
+        } catch (IOException e) {
+            logger.warn("Ignoring unreadable test history {}: {}", file, e.getMessage());
+        }
+        return records;
+    }
+
+    /**
+     * Outcome of one test in one run
+     */
+    public static class OutcomeRecord {
+        public String run;
+        public String time;
+        public String test;
+        public String lane;
+        public String status;
+        public long durationMillis;
+        public int retries;
+    }
+}
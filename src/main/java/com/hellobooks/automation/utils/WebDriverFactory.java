@@ -1,18 +1,25 @@
 package com.hellobooks.automation.utils;
 
 import com.hellobooks.automation.config.ConfigManager;
-import io.github.bonigarcia.wdm.WebDriverManager;
 import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WrapsDriver;
 import org.openqa.selenium.chrome.ChromeDriver;
 import org.openqa.selenium.chrome.ChromeOptions;
 import org.openqa.selenium.edge.EdgeDriver;
 import org.openqa.selenium.edge.EdgeOptions;
 import org.openqa.selenium.firefox.FirefoxDriver;
 import org.openqa.selenium.firefox.FirefoxOptions;
+import org.openqa.selenium.support.events.EventFiringDecorator;
+import org.openqa.selenium.support.events.WebDriverListener;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * WebDriver factory for creating and managing browser instances
@@ -21,34 +28,118 @@ public class WebDriverFactory {
     private static final Logger logger = LoggerFactory.getLogger(WebDriverFactory.class);
     private static final ThreadLocal<WebDriver> driverThreadLocal = new ThreadLocal<>();
     private static final ConfigManager config = ConfigManager.getInstance();
+    private static final Map<String, WebDriverPool> pools = new ConcurrentHashMap<>();
+    /** Browsers kept after a failed attempt, reused by the retry on the same thread */
+    private static final ThreadLocal<WebDriver> retainedDriver = new ThreadLocal<>();
+    private static final Set<WebDriver> retainedDrivers = ConcurrentHashMap.newKeySet();
+
+    static {
+        Runtime.getRuntime().addShutdownHook(new Thread(WebDriverFactory::shutdownPools, "webdriver-pool-shutdown"));
+    }
 
     public static WebDriver createDriver() {
+        WebDriver retained = retainedDriver.get();
+        if (retained != null) {
+            retainedDriver.remove();
+            retainedDrivers.remove(retained);
+            logger.info("Reusing the reset browser of the previous attempt");
+            setDriver(retained);
+            return retained;
+        }
+
         String browser = config.getBrowser().toLowerCase();
-        WebDriver driver;
 
-        logger.info("Creating {} driver instance", browser);
+        // Browser contexts are cheap to create, so they bypass the session pool
+        WebDriver driver = ExecutionTracer.trace("acquire " + browser + " driver", "framework", () -> {
+            WebDriver acquired;
+            if ("chrome".equals(browser) && config.isChromeContextsEnabled()) {
+                acquired = createChromeContextDriver();
+            } else if (config.isDriverPoolEnabled()) {
+                acquired = getPool(browser).checkout();
+            } else {
+                acquired = launchDriver(browser);
+            }
 
-        switch (browser) {
-            case "chrome":
-                driver = createChromeDriver();
-                break;
-            case "firefox":
-                driver = createFirefoxDriver();
-                break;
-            case "edge":
-                driver = createEdgeDriver();
-                break;
-            default:
-                throw new IllegalArgumentException("Browser not supported: " + browser);
+            ResourceBlocker.attach(acquired);
+            OutcomeDetector.install(acquired);
+            return acquired;
+        });
+        driver = decorate(driver, browser);
+        setDriver(driver);
+        return driver;
+    }
+
+    /**
+     * Wrap the driver with the configured command listeners, or return it unchanged if there are none
+     */
+    private static WebDriver decorate(WebDriver driver, String browser) {
+        List<WebDriverListener> listeners = new ArrayList<>();
+        // Page-object spans in the execution trace come from the round-trip tracker's call attribution
+        if (config.isRoundTripTrackingEnabled() || ExecutionTracer.isEnabled()) {
+            listeners.add(new RoundTripTracker());
+        }
+        if (config.isCommandLatencyEnabled()) {
+            listeners.add(new CommandLatencyRecorder(browser));
+        }
+        if (ExecutionTracer.isEnabled()) {
+            listeners.add(ExecutionTracer.commandListener(browser));
         }
+        if (listeners.isEmpty()) {
+            return driver;
+        }
+        return new EventFiringDecorator<>(listeners.toArray(new WebDriverListener[0])).decorate(driver);
+    }
+
+    private static WebDriverPool getPool(String browser) {
+        return pools.computeIfAbsent(browser, name -> new WebDriverPool(
+                name,
+                config.getDriverPoolSize(),
+                config.getDriverPoolMaxUses(),
+                config.getDriverPoolCheckoutTimeout() * 1000L,
+                () -> launchDriver(name),
+                WebDriverFactory::configureDriver,
+                config.isDriverPoolPrelaunchEnabled(),
+                config.getDriverPoolBackgroundThreads()));
+    }
+
+    private static WebDriver launchDriver(String browser) {
+        logger.info("Creating {} driver instance", browser);
+
+        return ExecutionTracer.trace("launch " + browser, "framework", () -> {
+            WebDriver driver;
+            switch (browser) {
+                case "chrome":
+                    driver = createChromeDriver();
+                    break;
+                case "firefox":
+                    driver = createFirefoxDriver();
+                    break;
+                case "edge":
+                    driver = createEdgeDriver();
+                    break;
+                default:
+                    throw new IllegalArgumentException("Browser not supported: " + browser);
+            }
 
+            configureDriver(driver);
+            return driver;
+        });
+    }
+
+    private static WebDriver createChromeDriver() {
+        DriverBinaryResolver.resolve("chrome");
+        return new ChromeDriver(buildChromeOptions());
+    }
+
+    private static WebDriver createChromeContextDriver() {
+        DriverBinaryResolver.resolve("chrome");
+        logger.info("Creating chrome driver in an isolated browser context");
+        WebDriver driver = ChromeContextHost.createContextDriver(buildChromeOptions(), config.getChromeContextsPerProcess());
         configureDriver(driver);
-        setDriver(driver);
         return driver;
     }
 
-    private static WebDriver createChromeDriver() {
-        WebDriverManager.chromedriver().setup();
+    private static ChromeOptions buildChromeOptions() {
         ChromeOptions options = new ChromeOptions();
         
         if (config.isHeadless()) {
@@ -68,22 +159,24 @@ public class WebDriverFactory {
             options.addArguments("--incognito");
         }
 
-        return new ChromeDriver(options);
+        options.setPageLoadStrategy(config.getPageLoadStrategy());
+        return options;
     }
 
     private static WebDriver createFirefoxDriver() {
-        WebDriverManager.firefoxdriver().setup();
+        DriverBinaryResolver.resolve("firefox");
         FirefoxOptions options = new FirefoxOptions();
         
         if (config.isHeadless()) {
             options.addArguments("--headless");
         }
         
+        options.setPageLoadStrategy(config.getPageLoadStrategy());
         return new FirefoxDriver(options);
     }
 
     private static WebDriver createEdgeDriver() {
-        WebDriverManager.edgedriver().setup();
+        DriverBinaryResolver.resolve("edge");
         EdgeOptions options = new EdgeOptions();
         
         if (config.isHeadless()) {
@@ -97,13 +190,20 @@ public class WebDriverFactory {
             options.addArguments("--inprivate");
         }
 
+        options.setPageLoadStrategy(config.getPageLoadStrategy());
         return new EdgeDriver(options);
     }
 
     private static void configureDriver(WebDriver driver) {
-        // Set timeouts
-        driver.manage().timeouts().implicitlyWait(Duration.ofSeconds(config.getImplicitWait()));
+        // Set timeouts. The implicit wait stays at zero: page objects use explicit,
+        // per-call waits and instant findElements probes, and the two must never stack.
+        if (config.getImplicitWait() > 0) {
+            logger.warn("Ignoring implicit.wait={}; page objects use explicit waits only", config.getImplicitWait());
+        }
+        driver.manage().timeouts().implicitlyWait(Duration.ZERO);
         driver.manage().timeouts().pageLoadTimeout(Duration.ofSeconds(config.getPageLoadTimeout()));
+        // Push-based waits block inside executeAsyncScript for up to one explicit wait
+        driver.manage().timeouts().scriptTimeout(Duration.ofSeconds(config.getExplicitWait() + 10L));
         
         // Maximize window if configured
         if (config.getBooleanProperty("maximize.window", true)) {
@@ -119,13 +219,84 @@ public class WebDriverFactory {
         driverThreadLocal.set(driver);
     }
 
+    /**
+     * The driver underneath any decorators, needed where the session object itself is the key
+     */
+    public static WebDriver unwrap(WebDriver driver) {
+        return driver instanceof WrapsDriver ? ((WrapsDriver) driver).getWrappedDriver() : driver;
+    }
+
     public static void quitDriver() {
-        WebDriver driver = driverThreadLocal.get();
+        WebDriver driver = unwrap(driverThreadLocal.get());
         if (driver != null) {
-            logger.info("Quitting WebDriver instance");
-            driver.quit();
-            driverThreadLocal.remove();
+            try {
+                WebDriverPool pool = config.isDriverPoolEnabled() ? pools.get(config.getBrowser().toLowerCase()) : null;
+                if (pool != null) {
+                    logger.info("Returning WebDriver instance to pool");
+                    pool.release(driver);
+                } else {
+                    logger.info("Quitting WebDriver instance");
+                    driver.quit();
+                }
+            } finally {
+                driverThreadLocal.remove();
+            }
+        }
+    }
+
+    /**
+     * Reset the current thread's browser and keep it for the next {@link #createDriver()} on
+     * this thread instead of quitting it, so a retried test skips the browser launch.
+     * Quits the browser when the reset fails, e.g. because the session died, and when it is a
+     * browser context: the reset would touch the shared Chrome process, and a new context is cheap.
+     */
+    public static void retainDriverForRetry() {
+        WebDriver driver = driverThreadLocal.get();
+        if (driver == null) {
+            return;
+        }
+        if (ChromeContextHost.isContextDriver(unwrap(driver))) {
+            quitDriver();
+            return;
+        }
+        boolean reset;
+        try {
+            reset = WebDriverPool.clearBrowserState(unwrap(driver));
+        } catch (Exception e) {
+            logger.info("Browser could not be reset for the retry ({}); replacing it", e.getMessage());
+            reset = false;
+        }
+        if (!reset) {
+            quitDriver();
+            return;
+        }
+        // Drop a browser retained earlier on this thread whose retry never ran
+        WebDriver previous = retainedDriver.get();
+        if (previous != null && previous != driver) {
+            retainedDrivers.remove(previous);
+            driverThreadLocal.set(previous);
+            quitDriver();
+        }
+        retainedDriver.set(driver);
+        retainedDrivers.add(driver);
+        driverThreadLocal.remove();
+    }
+
+    /**
+     * Quit all pooled sessions and shared Chrome processes; called automatically at JVM shutdown
+     */
+    public static void shutdownPools() {
+        for (WebDriver driver : retainedDrivers) {
+            try {
+                unwrap(driver).quit();
+            } catch (Exception e) {
+                logger.debug("Ignoring error while quitting retained session: {}", e.getMessage());
+            }
         }
+        retainedDrivers.clear();
+        pools.values().forEach(WebDriverPool::shutdown);
+        pools.clear();
+        ChromeContextHost.shutdownAll();
     }
 
     public static void removeDriver() {
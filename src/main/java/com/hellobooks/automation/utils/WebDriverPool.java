@@ -0,0 +1,300 @@
+package com.hellobooks.automation.utils;
+
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.WebDriver;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.BlockingDeque;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingDeque;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/**
+ * Bounded pool of warm WebDriver sessions for a single browser type.
+ * Sessions are reset when returned and only quit when unhealthy or worn out.
+ * Resetting, quitting and pre-launching spare sessions happen on a background
+ * executor so test threads rarely wait on browser startup or shutdown.
+ */
+public class WebDriverPool {
+    private static final Logger logger = LoggerFactory.getLogger(WebDriverPool.class);
+
+    private final String browser;
+    private final int maxSize;
+    private final int maxUses;
+    private final long checkoutTimeoutMillis;
+    private final Supplier<WebDriver> driverSupplier;
+    private final Consumer<WebDriver> driverConfigurer;
+    private final boolean prelaunch;
+    private final ExecutorService backgroundExecutor;
+
+    private final BlockingDeque<PooledSession> idleSessions = new LinkedBlockingDeque<>();
+    private final Map<WebDriver, PooledSession> leasedSessions = new ConcurrentHashMap<>();
+    private final AtomicInteger liveSessions = new AtomicInteger();
+    private volatile boolean closed;
+
+    private final LongAdder checkouts = new LongAdder();
+    private final LongAdder totalWaitNanos = new LongAdder();
+    private final AtomicLong maxWaitNanos = new AtomicLong();
+
+    public WebDriverPool(String browser, int maxSize, int maxUses, long checkoutTimeoutMillis,
+                         Supplier<WebDriver> driverSupplier, Consumer<WebDriver> driverConfigurer,
+                         boolean prelaunch, int backgroundThreads) {
+        this.browser = browser;
+        this.maxSize = Math.max(1, maxSize);
+        this.maxUses = Math.max(1, maxUses);
+        this.checkoutTimeoutMillis = checkoutTimeoutMillis;
+        this.driverSupplier = driverSupplier;
+        this.driverConfigurer = driverConfigurer;
+        this.prelaunch = prelaunch;
+
+        AtomicInteger threadCounter = new AtomicInteger();
+        this.backgroundExecutor = Executors.newFixedThreadPool(Math.max(1, backgroundThreads), runnable -> {
+            Thread thread = new Thread(runnable, "webdriver-pool-" + browser + "-" + threadCounter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Check out a session, reusing an idle one or launching a new one while below capacity
+     */
+    public WebDriver checkout() {
+        if (closed) {
+            throw new IllegalStateException("WebDriver pool for " + browser + " is closed");
+        }
+
+        long waitStart = System.nanoTime();
+        PooledSession session = idleSessions.pollFirst();
+        while (session == null) {
+            if (reserveSlot()) {
+                session = launchSession();
+                break;
+            }
+            try {
+                session = idleSessions.pollFirst(checkoutTimeoutMillis, TimeUnit.MILLISECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Interrupted while waiting for a pooled " + browser + " session", e);
+            }
+            if (session == null) {
+                throw new IllegalStateException("Timed out after " + checkoutTimeoutMillis
+                        + " ms waiting for a pooled " + browser + " session");
+            }
+        }
+
+        recordWait(System.nanoTime() - waitStart);
+        session.uses++;
+        leasedSessions.put(session.driver, session);
+        logger.debug("Checked out {} session (use {} of {})", browser, session.uses, maxUses);
+
+        if (idleSessions.isEmpty()) {
+            schedulePrelaunch();
+        }
+        return session.driver;
+    }
+
+    /**
+     * Return a session to the pool. The reset (or quit) runs in the background,
+     * so the calling test thread is released immediately.
+     */
+    public void release(WebDriver driver) {
+        PooledSession session = leasedSessions.remove(driver);
+        if (session == null) {
+            logger.warn("Released a {} session that was not checked out from the pool; quitting it", browser);
+            runInBackground(() -> quitQuietly(driver));
+            return;
+        }
+
+        runInBackground(() -> recycle(session));
+    }
+
+    /**
+     * Quit every idle session and refuse further checkouts
+     */
+    public void shutdown() {
+        closed = true;
+        backgroundExecutor.shutdown();
+        try {
+            if (!backgroundExecutor.awaitTermination(60, TimeUnit.SECONDS)) {
+                logger.warn("Background {} session tasks did not finish within 60 seconds", browser);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+
+        List<PooledSession> sessions = new ArrayList<>();
+        idleSessions.drainTo(sessions);
+        for (PooledSession session : sessions) {
+            retire(session);
+        }
+        logger.info("WebDriver pool for {} shut down ({} sessions still leased). {}",
+                browser, leasedSessions.size(), getWaitSummary());
+    }
+
+    /**
+     * Describe how long test threads waited for a session
+     */
+    public String getWaitSummary() {
+        long count = checkouts.sum();
+        long averageMillis = count == 0 ? 0 : TimeUnit.NANOSECONDS.toMillis(totalWaitNanos.sum() / count);
+        return String.format("Session checkout waits: %d checkouts, avg %d ms, max %d ms, total %d ms",
+                count, averageMillis, TimeUnit.NANOSECONDS.toMillis(maxWaitNanos.get()),
+                TimeUnit.NANOSECONDS.toMillis(totalWaitNanos.sum()));
+    }
+
+    public long getTotalWaitMillis() {
+        return TimeUnit.NANOSECONDS.toMillis(totalWaitNanos.sum());
+    }
+
+    public int getLiveSessionCount() {
+        return liveSessions.get();
+    }
+
+    public int getIdleSessionCount() {
+        return idleSessions.size();
+    }
+
+    private boolean reserveSlot() {
+        while (true) {
+            int current = liveSessions.get();
+            if (current >= maxSize) {
+                return false;
+            }
+            if (liveSessions.compareAndSet(current, current + 1)) {
+                return true;
+            }
+        }
+    }
+
+    private void recycle(PooledSession session) {
+        if (closed || session.uses >= maxUses || !resetSession(session.driver)) {
+            logger.info("Retiring {} session after {} uses", browser, session.uses);
+            retire(session);
+            schedulePrelaunch();
+            return;
+        }
+        idleSessions.offerFirst(session);
+    }
+
+    /**
+     * Launch a spare session in the background while capacity allows
+     */
+    private void schedulePrelaunch() {
+        if (!prelaunch || closed || !reserveSlot()) {
+            return;
+        }
+        try {
+            backgroundExecutor.execute(() -> {
+                try {
+                    idleSessions.offerLast(launchSession());
+                } catch (RuntimeException e) {
+                    logger.warn("Background launch of {} session failed: {}", browser, e.getMessage());
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            liveSessions.decrementAndGet();
+        }
+    }
+
+    private void runInBackground(Runnable task) {
+        try {
+            backgroundExecutor.execute(task);
+        } catch (RejectedExecutionException e) {
+            task.run();
+        }
+    }
+
+    private void recordWait(long waitNanos) {
+        checkouts.increment();
+        totalWaitNanos.add(waitNanos);
+        maxWaitNanos.accumulateAndGet(waitNanos, Math::max);
+        if (waitNanos > TimeUnit.MILLISECONDS.toNanos(100)) {
+            logger.info("Waited {} ms for a {} session", TimeUnit.NANOSECONDS.toMillis(waitNanos), browser);
+        }
+    }
+
+    private PooledSession launchSession() {
+        try {
+            WebDriver driver = driverSupplier.get();
+            logger.info("Launched pooled {} session ({} of {})", browser, liveSessions.get(), maxSize);
+            return new PooledSession(driver);
+        } catch (RuntimeException e) {
+            liveSessions.decrementAndGet();
+            throw e;
+        }
+    }
+
+    private void retire(PooledSession session) {
+        liveSessions.decrementAndGet();
+        quitQuietly(session.driver);
+    }
+
+    /**
+     * Clear cookies, web storage and extra tabs so the next test sees a clean browser
+     */
+    private boolean resetSession(WebDriver driver) {
+        try {
+            if (!clearBrowserState(driver)) {
+                return false;
+            }
+            driverConfigurer.accept(driver);
+            return true;
+        } catch (Exception e) {
+            logger.warn("Failed to reset pooled {} session: {}", browser, e.getMessage());
+            return false;
+        }
+    }
+
+    /**
+     * Close extra tabs, clear cookies and web storage and load a blank page
+     *
+     * @return false when the session has no windows left
+     */
+    static boolean clearBrowserState(WebDriver driver) {
+        List<String> handles = new ArrayList<>(driver.getWindowHandles());
+        if (handles.isEmpty()) {
+            return false;
+        }
+        for (int i = 1; i < handles.size(); i++) {
+            driver.switchTo().window(handles.get(i));
+            driver.close();
+        }
+        driver.switchTo().window(handles.get(0));
+
+        driver.manage().deleteAllCookies();
+        ((JavascriptExecutor) driver).executeScript(
+                "try { window.localStorage.clear(); } catch (e) {}" +
+                "try { window.sessionStorage.clear(); } catch (e) {}");
+        driver.get("about:blank");
+        return true;
+    }
+
+    private void quitQuietly(WebDriver driver) {
+        try {
+            driver.quit();
+        } catch (Exception e) {
+            logger.debug("Ignoring error while quitting {} session: {}", browser, e.getMessage());
+        }
+    }
+
+    private static final class PooledSession {
+        private final WebDriver driver;
+        private int uses;
+
+        private PooledSession(WebDriver driver) {
+            this.driver = driver;
+        }
+    }
+}
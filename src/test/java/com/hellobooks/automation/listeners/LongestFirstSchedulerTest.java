@@ -0,0 +1,123 @@
+package com.hellobooks.automation.listeners;
+
+import org.testng.Assert;
+import org.testng.IMethodInstance;
+import org.testng.ITestNGMethod;
+import org.testng.annotations.Test;
+
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Unit tests for longest-first ordering and the makespan prediction, on stubbed test methods
+ */
+public class LongestFirstSchedulerTest {
+    private final Map<IMethodInstance, Long> expected = new HashMap<>();
+
+    @Test(description = "Methods with longer history run first")
+    public void testLongestFirst() {
+        IMethodInstance shortest = method("a", 10, 0);
+        IMethodInstance longest = method("b", 30, 0);
+        IMethodInstance middle = method("c", 20, 0);
+
+        Assert.assertEquals(names(order(shortest, longest, middle)), Arrays.asList("b", "c", "a"));
+    }
+
+    @Test(description = "Equal durations keep the declared priority order")
+    public void testPriorityBreaksTies() {
+        IMethodInstance second = method("a", 10, 2);
+        IMethodInstance first = method("b", 10, 1);
+
+        Assert.assertEquals(names(order(second, first)), Arrays.asList("b", "a"));
+    }
+
+    @Test(description = "A method never runs before the methods it depends on")
+    public void testDependenciesRespected() {
+        IMethodInstance dependency = method("a", 10, 0);
+        IMethodInstance dependent = method("b", 30, 0, "a");
+        IMethodInstance independent = method("c", 20, 0);
+
+        Assert.assertEquals(names(order(dependent, dependency, independent)), Arrays.asList("c", "a", "b"));
+    }
+
+    @Test(description = "Methods in a dependency cycle are kept at the end, longest first")
+    public void testCycleKeptAtEnd() {
+        IMethodInstance x = method("x", 10, 0, "y");
+        IMethodInstance y = method("y", 20, 0, "x");
+        IMethodInstance z = method("z", 5, 0);
+
+        Assert.assertEquals(names(order(x, y, z)), Arrays.asList("z", "y", "x"));
+    }
+
+    @Test(description = "The makespan simulates list scheduling on the given number of threads")
+    public void testPredictMakespan() {
+        List<IMethodInstance> ordered = Arrays.asList(method("a", 30, 0), method("b", 20, 0), method("c", 10, 0));
+
+        Assert.assertEquals(LongestFirstScheduler.predictMakespan(ordered, expected, 1), 60);
+        Assert.assertEquals(LongestFirstScheduler.predictMakespan(ordered, expected, 2), 30);
+        Assert.assertEquals(LongestFirstScheduler.predictMakespan(ordered, expected, 3), 30);
+    }
+
+    private List<IMethodInstance> order(IMethodInstance... methods) {
+        return LongestFirstScheduler.orderRespectingDependencies(Arrays.asList(methods), expected);
+    }
+
+    private static List<String> names(List<IMethodInstance> methods) {
+        List<String> names = new ArrayList<>();
+        for (IMethodInstance instance : methods) {
+            names.add(instance.getMethod().getMethodName());
+        }
+        return names;
+    }
+
+    /**
+     * Stub method of this class with an expected duration, a priority and dependencies on other stub methods
+     */
+    private IMethodInstance method(String name, long expectedMillis, int priority, String... dependsOn) {
+        String[] dependencies = Arrays.stream(dependsOn)
+                .map(dependency -> LongestFirstSchedulerTest.class.getName() + "." + dependency)
+                .toArray(String[]::new);
+        ITestNGMethod method = (ITestNGMethod) Proxy.newProxyInstance(getClass().getClassLoader(),
+                new Class<?>[] {ITestNGMethod.class}, (proxy, invoked, args) -> {
+                    switch (invoked.getName()) {
+                        case "getMethodName":
+                            return name;
+                        case "getRealClass":
+                            return LongestFirstSchedulerTest.class;
+                        case "getPriority":
+                            return priority;
+                        case "getMethodsDependedUpon":
+                            return dependencies;
+                        case "hashCode":
+                            return System.identityHashCode(proxy);
+                        case "equals":
+                            return proxy == args[0];
+                        case "toString":
+                            return name;
+                        default:
+                            throw new UnsupportedOperationException(invoked.getName());
+                    }
+                });
+        IMethodInstance instance = (IMethodInstance) Proxy.newProxyInstance(getClass().getClassLoader(),
+                new Class<?>[] {IMethodInstance.class}, (proxy, invoked, args) -> {
+                    switch (invoked.getName()) {
+                        case "getMethod":
+                            return method;
+                        case "hashCode":
+                            return System.identityHashCode(proxy);
+                        case "equals":
+                            return proxy == args[0];
+                        case "toString":
+                            return name;
+                        default:
+                            throw new UnsupportedOperationException(invoked.getName());
+                    }
+                });
+        expected.put(instance, expectedMillis);
+        return instance;
+    }
+}
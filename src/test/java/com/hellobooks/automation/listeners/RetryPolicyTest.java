@@ -0,0 +1,85 @@
+package com.hellobooks.automation.listeners;
+
+import com.hellobooks.automation.listeners.RetryPolicy.FailureCategory;
+import org.openqa.selenium.ElementClickInterceptedException;
+import org.openqa.selenium.NoSuchSessionException;
+import org.openqa.selenium.SessionNotCreatedException;
+import org.openqa.selenium.StaleElementReferenceException;
+import org.openqa.selenium.TimeoutException;
+import org.openqa.selenium.WebDriverException;
+import org.openqa.selenium.remote.RemoteWebDriver;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.net.ConnectException;
+import java.net.UnknownHostException;
+
+/**
+ * Unit tests for the failure classification that decides retries and feeds the circuit breaker
+ */
+public class RetryPolicyTest {
+
+    @Test(description = "An expired element wait is a product failure, not infrastructure")
+    public void testElementWaitTimeoutIsProduct() {
+        Assert.assertEquals(RetryPolicy.classify(new TimeoutException(
+                "Expected condition failed: waiting for visibility of element (tried for 30 second(s) with 500 milliseconds interval)")),
+                FailureCategory.PRODUCT);
+        Assert.assertEquals(RetryPolicy.classify(new TimeoutException("Timed out after 5000 ms waiting for url containing /dashboard")),
+                FailureCategory.PRODUCT);
+    }
+
+    @Test(description = "A page load timeout reported by the driver is infrastructure")
+    public void testPageLoadTimeoutMessageIsInfrastructure() {
+        Assert.assertEquals(RetryPolicy.classify(new TimeoutException("timeout: Timed out receiving message from renderer: 29.5")),
+                FailureCategory.INFRASTRUCTURE);
+    }
+
+    @Test(description = "A timeout thrown from driver.get is infrastructure whatever its message")
+    public void testTimeoutFromDriverGetIsInfrastructure() {
+        TimeoutException timeout = new TimeoutException("timeout");
+        timeout.setStackTrace(new StackTraceElement[] {
+                new StackTraceElement(RemoteWebDriver.class.getName(), "execute", "RemoteWebDriver.java", 590),
+                new StackTraceElement(RemoteWebDriver.class.getName(), "get", "RemoteWebDriver.java", 339)});
+        Assert.assertEquals(RetryPolicy.classify(timeout), FailureCategory.INFRASTRUCTURE);
+        Assert.assertTrue(RetryPolicy.isEnvironmentError(timeout));
+    }
+
+    @Test(description = "Connection errors anywhere in the cause chain are infrastructure")
+    public void testConnectionErrorsAreInfrastructure() {
+        Assert.assertEquals(RetryPolicy.classify(new WebDriverException(new ConnectException("Connection refused"))),
+                FailureCategory.INFRASTRUCTURE);
+        Assert.assertEquals(RetryPolicy.classify(new RuntimeException(new UnknownHostException("dev.hellobooks.ai"))),
+                FailureCategory.INFRASTRUCTURE);
+        Assert.assertEquals(RetryPolicy.classify(new WebDriverException("unknown error: net::ERR_NAME_NOT_RESOLVED")),
+                FailureCategory.INFRASTRUCTURE);
+    }
+
+    @Test(description = "Dead or uncreatable sessions are infrastructure but not environment errors")
+    public void testSessionErrorsAreInfrastructure() {
+        NoSuchSessionException dead = new NoSuchSessionException("invalid session id");
+        Assert.assertEquals(RetryPolicy.classify(dead), FailureCategory.INFRASTRUCTURE);
+        Assert.assertEquals(RetryPolicy.classify(new SessionNotCreatedException("Could not start a new session")),
+                FailureCategory.INFRASTRUCTURE);
+        Assert.assertEquals(RetryPolicy.classify(new WebDriverException("chrome not reachable")),
+                FailureCategory.INFRASTRUCTURE);
+        Assert.assertTrue(RetryPolicy.isSessionError(dead));
+        Assert.assertFalse(RetryPolicy.isEnvironmentError(dead), "A crashed browser says nothing about the environment");
+    }
+
+    @Test(description = "Interactions racing the page are flaky UI failures")
+    public void testFlakyUiFailures() {
+        Assert.assertEquals(RetryPolicy.classify(new StaleElementReferenceException("stale element reference")),
+                FailureCategory.FLAKY_UI);
+        Assert.assertEquals(RetryPolicy.classify(new ElementClickInterceptedException("element click intercepted")),
+                FailureCategory.FLAKY_UI);
+        Assert.assertEquals(RetryPolicy.classify(new WebDriverException("Element is not clickable at point (10, 20)")),
+                FailureCategory.FLAKY_UI);
+    }
+
+    @Test(description = "Assertions and unknown errors are product failures")
+    public void testProductFailures() {
+        Assert.assertEquals(RetryPolicy.classify(new AssertionError("Login should be successful")), FailureCategory.PRODUCT);
+        Assert.assertEquals(RetryPolicy.classify(new IllegalStateException("unexpected")), FailureCategory.PRODUCT);
+        Assert.assertEquals(RetryPolicy.classify(null), FailureCategory.PRODUCT);
+    }
+}
@@ -1,11 +1,21 @@
 package com.hellobooks.automation.tests;
 
+import com.aventstack.extentreports.ExtentTest;
 import com.hellobooks.automation.config.ConfigManager;
+import com.hellobooks.automation.listeners.EnvironmentCircuitBreaker;
+import com.hellobooks.automation.listeners.ExtentReportListener;
+import com.hellobooks.automation.listeners.RetryPolicy;
+import com.hellobooks.automation.pages.HomePage;
+import com.hellobooks.automation.utils.BrowserCheckpoints;
+import com.hellobooks.automation.utils.ExecutionTracer;
+import com.hellobooks.automation.utils.PageReadinessTracker;
+import com.hellobooks.automation.utils.ResourceBlocker;
 import com.hellobooks.automation.utils.WebDriverFactory;
 import io.qameta.allure.Step;
 import org.openqa.selenium.WebDriver;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.testng.ITestResult;
 import org.testng.annotations.AfterMethod;
 import org.testng.annotations.BeforeMethod;
 import org.testng.annotations.Parameters;
@@ -25,6 +35,9 @@ public abstract class BaseTest {
         logger.info("Setting up test environment");
         
         config = ConfigManager.getInstance();
+
+        // Skip before launching a browser while the environment is known to be down
+        EnvironmentCircuitBreaker.ensureClosed();
         
         // Override browser if parameter is provided
         if (browser != null && !browser.isEmpty()) {
@@ -40,19 +53,42 @@ public abstract class BaseTest {
 
     @AfterMethod(alwaysRun = true)
     @Step("Cleanup test environment")
-    public void tearDown() {
+    public void tearDown(ITestResult result) {
         logger.info("Cleaning up test environment");
+        BrowserCheckpoints.release();
         
         if (driver != null) {
+            reportBlockedResources();
             try {
-                WebDriverFactory.quitDriver();
-                logger.info("WebDriver instance closed successfully");
+                PageReadinessTracker.flush(driver);
+                if (RetryPolicy.willRetry(result)) {
+                    // The retry runs on this browser after a reset instead of launching a new one
+                    WebDriverFactory.retainDriverForRetry();
+                    logger.info("WebDriver instance kept for the retry");
+                } else {
+                    WebDriverFactory.quitDriver();
+                    logger.info("WebDriver instance closed successfully");
+                }
             } catch (Exception e) {
                 logger.error("Error occurred while closing WebDriver", e);
             }
         }
     }
 
+    /**
+     * Log resource blocking statistics for the finished test
+     */
+    private void reportBlockedResources() {
+        ResourceBlocker.BlockingStats stats = ResourceBlocker.getStats(driver);
+        if (stats != null) {
+            logger.info("Resource blocking: {}", stats);
+            ExtentTest test = ExtentReportListener.getTest();
+            if (test != null) {
+                test.info("Resource blocking: " + stats);
+            }
+        }
+    }
+
     /**
      * Get current test method name for logging and reporting
      */
@@ -66,6 +102,7 @@ public abstract class BaseTest {
     @Step("{stepDescription}")
     protected void logTestStep(String stepDescription) {
         logger.info("Test Step: {}", stepDescription);
+        ExecutionTracer.step(stepDescription);
     }
 
     /**
@@ -73,7 +110,6 @@ public abstract class BaseTest {
      */
     @Step("Navigate to application home page")
     protected void navigateToHome() {
-        driver.get(config.getBaseUrl());
-        logger.info("Navigated to home page: {}", config.getBaseUrl());
+        new HomePage(driver).navigateToHomePage();
     }
 }
\ No newline at end of file
@@ -1,12 +1,18 @@
 package com.hellobooks.automation.tests;
 
 import com.hellobooks.automation.pages.EmailVerificationPage;
+import com.hellobooks.automation.pages.LoginPage;
 import com.hellobooks.automation.pages.OnboardingPage;
 import com.hellobooks.automation.pages.SignupPage;
+import com.hellobooks.automation.utils.AccountPool;
+import com.hellobooks.automation.utils.BrowserCheckpoints;
+import com.hellobooks.automation.utils.ExecutionTracer;
 import com.hellobooks.automation.utils.OTPHandler;
+import com.hellobooks.automation.utils.TestAccount;
 import com.hellobooks.automation.utils.TestDataGenerator;
 import io.qameta.allure.*;
 import org.testng.Assert;
+import org.testng.annotations.BeforeClass;
 import org.testng.annotations.BeforeMethod;
 import org.testng.annotations.Test;
 
@@ -17,22 +23,60 @@ import org.testng.annotations.Test;
 @Feature("Onboarding")
 public class OnboardingTests extends BaseTest {
     
+    private static final String AFTER_SIGNUP_VERIFIED = "after-signup-verified";
+
     private SignupPage signupPage;
+    private LoginPage loginPage;
     private EmailVerificationPage verificationPage;
     private OnboardingPage onboardingPage;
 
+    @BeforeClass(alwaysRun = true)
+    public void provisionAccounts() {
+        // Users are created in the background while the first browsers start
+        AccountPool.prewarm();
+    }
+
     @BeforeMethod(dependsOnMethods = "setUp")
     public void setupOnboardingTests() {
         signupPage = new SignupPage(driver);
+        loginPage = new LoginPage(driver);
         verificationPage = new EmailVerificationPage(driver);
         onboardingPage = new OnboardingPage(driver);
         navigateToHome();
     }
 
     /**
-     * Helper method to complete signup and reach onboarding
+     * Helper method to reach onboarding for a test that changes the user's onboarding state
      */
     private void completeSignupToOnboarding() {
+        reachOnboarding(true);
+    }
+
+    /**
+     * Reach onboarding by restoring the "after-signup-verified" checkpoint, or by signing up
+     * and verifying when it is not cached
+     *
+     * @param exclusive true when the test changes the user's onboarding state on the server,
+     *                  so the checkpoint's user must not be handed to any other test
+     */
+    private void reachOnboarding(boolean exclusive) {
+        BrowserCheckpoints.reach(driver, AFTER_SIGNUP_VERIFIED, exclusive,
+                this::signupAndVerify, onboardingPage::isOnOnboardingPage);
+    }
+
+    /**
+     * Complete signup and verification. Logs in with a pre-provisioned verified user when
+     * the account pool has one, otherwise signs up through the UI.
+     */
+    private void signupAndVerify() {
+        TestAccount account = AccountPool.lease();
+        if (account != null) {
+            loginPage.navigateToLoginPage();
+            loginPage.login(account.getEmail(), account.getPassword());
+            Assert.assertTrue(loginPage.isLoginSuccessful(), "Login should be successful");
+            return;
+        }
+
         String email = TestDataGenerator.generateUniqueEmail();
         String password = TestDataGenerator.generateValidPassword();
         
@@ -47,11 +91,13 @@ public class OnboardingTests extends BaseTest {
         }
         
         // Wait for potential redirect to onboarding
-        try {
-            Thread.sleep(2000);
-        } catch (InterruptedException e) {
-            Thread.currentThread().interrupt();
-        }
+        ExecutionTracer.trace("sleep before onboarding", "framework", () -> {
+            try {
+                Thread.sleep(2000);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
     }
 
     @Test(priority = 1, description = "Verify successful onboarding with organization setup")
@@ -64,7 +110,7 @@ public class OnboardingTests extends BaseTest {
         
         if (!onboardingPage.isOnOnboardingPage()) {
             // Try to navigate to onboarding if not automatically redirected
-            driver.get(config.getBaseUrl() + "/onboarding");
+            onboardingPage.navigateToOnboardingPage();
         }
         
         logTestStep("Verify onboarding page is displayed");
@@ -90,10 +136,11 @@ public class OnboardingTests extends BaseTest {
     @Description("Test Case ID: TC024 - Required fields should be validated")
     public void testOnboardingRequiredFieldsValidation() {
         logTestStep("Complete signup to reach onboarding");
-        completeSignupToOnboarding();
+        // Only triggers client-side validation, so the user can be shared through the checkpoint
+        reachOnboarding(false);
         
         if (!onboardingPage.isOnOnboardingPage()) {
-            driver.get(config.getBaseUrl() + "/onboarding");
+            onboardingPage.navigateToOnboardingPage();
         }
         
         if (onboardingPage.isOnOnboardingPage()) {
@@ -126,7 +173,7 @@ public class OnboardingTests extends BaseTest {
         completeSignupToOnboarding();
         
         if (!onboardingPage.isOnOnboardingPage()) {
-            driver.get(config.getBaseUrl() + "/onboarding");
+            onboardingPage.navigateToOnboardingPage();
         }
         
         if (onboardingPage.isOnOnboardingPage()) {
@@ -157,7 +204,7 @@ public class OnboardingTests extends BaseTest {
         completeSignupToOnboarding();
         
         if (!onboardingPage.isOnOnboardingPage()) {
-            driver.get(config.getBaseUrl() + "/onboarding");
+            onboardingPage.navigateToOnboardingPage();
         }
         
         if (onboardingPage.isOnOnboardingPage()) {
@@ -236,7 +283,7 @@ public class OnboardingTests extends BaseTest {
         completeSignupToOnboarding();
         
         if (!onboardingPage.isOnOnboardingPage()) {
-            driver.get(config.getBaseUrl() + "/onboarding");
+            onboardingPage.navigateToOnboardingPage();
         }
         
         if (onboardingPage.isOnOnboardingPage()) {
@@ -0,0 +1,122 @@
+package com.hellobooks.automation.utils;
+
+import org.openqa.selenium.JavascriptException;
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.NoSuchSessionException;
+import org.openqa.selenium.ScriptTimeoutException;
+import org.openqa.selenium.TimeoutException;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebDriverException;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.lang.reflect.Proxy;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Unit tests for the push wait specs and the retry loop around the async wait script
+ */
+public class DomWaiterTest {
+
+    @Test(description = "Locator specs carry the compiled CSS and XPath halves with the condition")
+    public void testLocatorSpec() {
+        LocatorCompiler.CompiledLocator locator = (LocatorCompiler.CompiledLocator)
+                LocatorCompiler.compile(".toast, div:contains('Saved')");
+
+        Map<String, Object> spec = DomWaiter.spec(locator, "text", "Saved");
+        Assert.assertEquals(spec.get("css"), ".toast");
+        Assert.assertEquals(spec.get("xpath"), "//div[contains(normalize-space(.), 'Saved')]");
+        Assert.assertEquals(spec.get("condition"), "text");
+        Assert.assertEquals(spec.get("text"), "Saved");
+    }
+
+    @Test(description = "A pure CSS locator leaves the XPath half empty")
+    public void testCssOnlySpec() {
+        LocatorCompiler.CompiledLocator locator = (LocatorCompiler.CompiledLocator)
+                LocatorCompiler.compile(".spinner, .loading");
+
+        Map<String, Object> spec = DomWaiter.spec(locator, "hidden", null);
+        Assert.assertEquals(spec.get("css"), ".spinner, .loading");
+        Assert.assertNull(spec.get("xpath"));
+        Assert.assertEquals(spec.get("condition"), "hidden");
+        Assert.assertNull(spec.get("text"));
+    }
+
+    @Test(description = "URL specs only carry the condition and the fragment")
+    public void testUrlSpec() {
+        Map<String, Object> spec = DomWaiter.urlSpec("/dashboard");
+        Assert.assertEquals(spec.get("condition"), "url");
+        Assert.assertEquals(spec.get("text"), "/dashboard");
+        Assert.assertFalse(spec.containsKey("css"));
+        Assert.assertFalse(spec.containsKey("xpath"));
+    }
+
+    @Test(description = "Navigation errors from the browser are recognised, script errors and dead sessions are not")
+    public void testIsDocumentReplaced() {
+        Assert.assertTrue(DomWaiter.isDocumentReplaced(new JavascriptException("javascript error: document unloaded while waiting for result")));
+        Assert.assertTrue(DomWaiter.isDocumentReplaced(new WebDriverException("unknown error: Execution context was destroyed, most likely because of a navigation")));
+        Assert.assertTrue(DomWaiter.isDocumentReplaced(new WebDriverException("Cannot find context with specified id")));
+        Assert.assertFalse(DomWaiter.isDocumentReplaced(new JavascriptException("javascript error: spec is not defined")));
+        Assert.assertFalse(DomWaiter.isDocumentReplaced(new NoSuchSessionException("target navigated or closed")));
+    }
+
+    @Test(description = "Chunk timeouts and navigations re-run the script until it reports ok")
+    public void testRetriesUntilOk() {
+        Map<String, Object> ok = new HashMap<>();
+        ok.put("ok", true);
+        List<Map<String, Object>> specs = new ArrayList<>();
+        WebDriver driver = scriptedDriver(specs,
+                new ScriptTimeoutException("script timeout"),
+                new JavascriptException("javascript error: document unloaded while waiting for result"),
+                Collections.singletonMap("ok", false),
+                ok);
+
+        Map<String, Object> result = DomWaiter.runAsyncWait(driver, "script", DomWaiter.urlSpec("/home"),
+                Duration.ofSeconds(30), "url containing /home");
+        Assert.assertSame(result, ok);
+        Assert.assertEquals(specs.size(), 4);
+        Assert.assertTrue(((Number) specs.get(0).get("timeout")).longValue() > 0, "Each run gets a chunk timeout");
+    }
+
+    @Test(description = "Script errors are rethrown at once instead of waiting out the timeout",
+            expectedExceptions = JavascriptException.class)
+    public void testScriptErrorRethrown() {
+        WebDriver driver = scriptedDriver(new ArrayList<>(), new JavascriptException("javascript error: spec is not defined"));
+        DomWaiter.runAsyncWait(driver, "script", DomWaiter.urlSpec("/home"), Duration.ofSeconds(30), "url containing /home");
+    }
+
+    @Test(description = "An expired deadline ends the wait with a TimeoutException",
+            expectedExceptions = TimeoutException.class, expectedExceptionsMessageRegExp = ".*url containing /home.*")
+    public void testDeadline() {
+        WebDriver driver = scriptedDriver(new ArrayList<>());
+        DomWaiter.runAsyncWait(driver, "script", DomWaiter.urlSpec("/home"), Duration.ofMillis(200), "url containing /home");
+    }
+
+    /**
+     * Driver whose async script calls play back the given outcomes in order (exceptions are thrown,
+     * anything else returned) and then keep timing out, recording a copy of each spec passed in
+     */
+    private static WebDriver scriptedDriver(List<Map<String, Object>> specs, Object... outcomes) {
+        Iterator<Object> playback = List.of(outcomes).iterator();
+        return (WebDriver) Proxy.newProxyInstance(DomWaiterTest.class.getClassLoader(),
+                new Class<?>[] {WebDriver.class, JavascriptExecutor.class}, (proxy, invoked, args) -> {
+                    if (!invoked.getName().equals("executeAsyncScript")) {
+                        throw new UnsupportedOperationException(invoked.getName());
+                    }
+                    @SuppressWarnings("unchecked")
+                    Map<String, Object> spec = (Map<String, Object>) ((Object[]) args[1])[0];
+                    specs.add(new HashMap<>(spec));
+                    Object outcome = playback.hasNext() ? playback.next() : new ScriptTimeoutException("script timeout");
+                    if (outcome instanceof RuntimeException) {
+                        throw (RuntimeException) outcome;
+                    }
+                    return outcome;
+                });
+    }
+}
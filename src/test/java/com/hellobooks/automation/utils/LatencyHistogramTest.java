@@ -0,0 +1,86 @@
+package com.hellobooks.automation.utils;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Unit tests for the logarithmic latency histogram
+ */
+public class LatencyHistogramTest {
+    /** Width of one bucket: eight buckets per power of two */
+    private static final double BUCKET_RATIO = Math.pow(2, 1.0 / 8);
+
+    @Test(description = "An empty histogram reports zero")
+    public void testEmpty() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        Assert.assertEquals(histogram.getCount(), 0);
+        Assert.assertEquals(histogram.getPercentileMillis(50), 0.0);
+    }
+
+    @Test(description = "A percentile is the upper bound of its bucket, at most one bucket above the value")
+    public void testPercentileIsBucketUpperBound() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        histogram.record(TimeUnit.MILLISECONDS.toNanos(1));
+
+        double p50 = histogram.getPercentileMillis(50);
+        Assert.assertTrue(p50 >= 1.0 && p50 <= BUCKET_RATIO, "p50 of a single 1 ms value was " + p50);
+    }
+
+    @Test(description = "Values at or below the smallest bucket land in it")
+    public void testSmallValues() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        histogram.record(0);
+        histogram.record(TimeUnit.MICROSECONDS.toNanos(50));
+        Assert.assertEquals(histogram.getPercentileMillis(100), 0.05, 1e-9);
+    }
+
+    @Test(description = "Percentiles of a uniform distribution stay within one bucket of the exact value")
+    public void testPercentilesOfUniformDistribution() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (int millis = 1; millis <= 100; millis++) {
+            histogram.record(TimeUnit.MILLISECONDS.toNanos(millis));
+        }
+
+        Assert.assertEquals(histogram.getCount(), 100);
+        Assert.assertEquals(histogram.getSumSeconds(), 5.05, 1e-9);
+        assertWithinOneBucket(histogram.getPercentileMillis(50), 50);
+        assertWithinOneBucket(histogram.getPercentileMillis(95), 95);
+        assertWithinOneBucket(histogram.getPercentileMillis(99), 99);
+        Assert.assertTrue(histogram.getPercentileMillis(50) <= histogram.getPercentileMillis(95));
+        Assert.assertTrue(histogram.getPercentileMillis(95) <= histogram.getPercentileMillis(99));
+    }
+
+    @Test(description = "Values beyond the largest bucket report the largest finite bound")
+    public void testOverflow() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        histogram.record(TimeUnit.SECONDS.toNanos(1000));
+        double p100 = histogram.getPercentileMillis(100);
+        Assert.assertTrue(p100 > 90_000 && p100 < 100_000, "Overflow percentile was " + p100);
+    }
+
+    @Test(description = "Exported buckets are cumulative and end with +Inf holding every observation")
+    public void testCumulativeBuckets() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        histogram.record(TimeUnit.MICROSECONDS.toNanos(10));
+        histogram.record(TimeUnit.MILLISECONDS.toNanos(20));
+        histogram.record(TimeUnit.SECONDS.toNanos(1000));
+
+        double[][] buckets = histogram.cumulativeBuckets(8);
+        Assert.assertEquals(buckets.length, 22);
+        for (int i = 1; i < buckets.length; i++) {
+            Assert.assertTrue(buckets[i][0] > buckets[i - 1][0], "Bounds must increase");
+            Assert.assertTrue(buckets[i][1] >= buckets[i - 1][1], "Counts must be cumulative");
+        }
+        Assert.assertEquals(buckets[0][1], 1.0);
+        Assert.assertEquals(buckets[buckets.length - 1][0], Double.POSITIVE_INFINITY);
+        Assert.assertEquals(buckets[buckets.length - 1][1], 3.0);
+        Assert.assertEquals(buckets[buckets.length - 2][1], 2.0, "The overflow value only counts in +Inf");
+    }
+
+    private static void assertWithinOneBucket(double actual, double expected) {
+        Assert.assertTrue(actual >= expected && actual <= expected * BUCKET_RATIO,
+                "Expected " + expected + " ms up to one bucket above, got " + actual);
+    }
+}
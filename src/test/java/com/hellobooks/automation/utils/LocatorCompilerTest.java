@@ -0,0 +1,82 @@
+package com.hellobooks.automation.utils;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.util.Arrays;
+
+/**
+ * Unit tests for selector list splitting and :contains() to XPath compilation
+ */
+public class LocatorCompilerTest {
+
+    @Test(description = ":contains() on a tag matches the normalized text of the element")
+    public void testContainsOnTag() {
+        Assert.assertEquals(LocatorCompiler.toXPath("button:contains('Sign in')"),
+                "//button[contains(normalize-space(.), 'Sign in')]");
+    }
+
+    @Test(description = "A bare :contains() matches own text nodes only, not every ancestor")
+    public void testBareContainsMatchesOwnText() {
+        Assert.assertEquals(LocatorCompiler.toXPath(":contains('Welcome')"), "//*[text()[contains(., 'Welcome')]]");
+        Assert.assertEquals(LocatorCompiler.toXPath("*:contains(\"Welcome\")"), "//*[text()[contains(., 'Welcome')]]");
+    }
+
+    @Test(description = "Classes, ids and attributes become predicates before the text predicate")
+    public void testCompoundSelector() {
+        Assert.assertEquals(LocatorCompiler.toXPath("div.alert.error:contains('Invalid')"),
+                "//div[contains(concat(' ', normalize-space(@class), ' '), ' alert ')]"
+                        + "[contains(concat(' ', normalize-space(@class), ' '), ' error ')]"
+                        + "[contains(normalize-space(.), 'Invalid')]");
+        Assert.assertEquals(LocatorCompiler.toXPath("#login:contains('Go')"),
+                "//*[@id='login'][contains(normalize-space(.), 'Go')]");
+    }
+
+    @Test(description = "Attribute operators translate to the matching XPath functions")
+    public void testAttributeOperators() {
+        Assert.assertEquals(LocatorCompiler.toXPath("a[href*='signup']:contains('Sign up')"),
+                "//a[contains(@href, 'signup')][contains(normalize-space(.), 'Sign up')]");
+        Assert.assertEquals(LocatorCompiler.toXPath("input[name^=\"pass\"]:contains('x')"),
+                "//input[starts-with(@name, 'pass')][contains(normalize-space(.), 'x')]");
+        Assert.assertEquals(LocatorCompiler.toXPath("button[type=submit]:contains('x')"),
+                "//button[@type = 'submit'][contains(normalize-space(.), 'x')]");
+        Assert.assertEquals(LocatorCompiler.toXPath("span[disabled]:contains('x')"),
+                "//span[@disabled][contains(normalize-space(.), 'x')]");
+    }
+
+    @Test(description = "Text containing an apostrophe is quoted with double quotes")
+    public void testApostropheInText() {
+        Assert.assertEquals(LocatorCompiler.toXPath(":contains(\"Don't\")"), "//*[text()[contains(., \"Don't\")]]");
+    }
+
+    @Test(description = "Combinators are not supported and yield null")
+    public void testUnsupportedSelector() {
+        Assert.assertNull(LocatorCompiler.toXPath("div > span:contains('x')"));
+    }
+
+    @Test(description = "Commas inside quotes, brackets and parentheses do not split the list")
+    public void testSplitSelectorList() {
+        Assert.assertEquals(LocatorCompiler.splitSelectorList("a, b:contains('x, y'), [data-a='1,2'] , "),
+                Arrays.asList("a", "b:contains('x, y')", "[data-a='1,2']"));
+    }
+
+    @Test(description = "Mixed lists keep plain CSS as CSS and compile :contains() alternatives to XPath")
+    public void testCompileMixedList() {
+        LocatorCompiler.CompiledLocator locator = (LocatorCompiler.CompiledLocator)
+                LocatorCompiler.compile("button[type='submit'], button:contains('Log in'), :contains('Continue')");
+        Assert.assertEquals(locator.getCss(), "button[type='submit']");
+        Assert.assertEquals(locator.getXpath(),
+                "//button[contains(normalize-space(.), 'Log in')] | //*[text()[contains(., 'Continue')]]");
+        Assert.assertSame(LocatorCompiler.compile("button[type='submit'], button:contains('Log in'), :contains('Continue')"),
+                locator, "Compiled locators should be cached");
+    }
+
+    @Test(description = "Unsupported alternatives are dropped without affecting the others")
+    public void testCompileDropsUnsupportedAlternative() {
+        LocatorCompiler.CompiledLocator locator = (LocatorCompiler.CompiledLocator)
+                LocatorCompiler.compile("div > span:contains('x'), .ok");
+        Assert.assertEquals(locator.getCss(), ".ok");
+        Assert.assertNull(locator.getXpath());
+        Assert.assertEquals(locator.getAlternatives().size(), 2);
+    }
+}
@@ -0,0 +1,72 @@
+package com.hellobooks.automation.utils;
+
+import com.hellobooks.automation.utils.ShardPlanner.ShardPlan;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Unit tests for shard plans; tests without duration history are planned with equal estimates
+ */
+public class ShardPlannerTest {
+    private static final List<String> TESTS = Arrays.asList(
+            "unit.LoginTests.testA", "unit.LoginTests.testB", "unit.LoginTests.testC",
+            "unit.SignupTests.testD", "unit.SignupTests.testE", "unit.SignupTests.testF",
+            "unit.OnboardingTests.testG");
+
+    @Test(description = "Discovery order and duplicates do not change the plan")
+    public void testPlanIsDeterministic() {
+        ShardPlan expected = ShardPlanner.plan(TESTS, 3);
+
+        List<String> shuffled = new ArrayList<>(TESTS);
+        shuffled.addAll(TESTS.subList(0, 3));
+        Collections.shuffle(shuffled, new Random(42));
+        ShardPlan actual = ShardPlanner.plan(shuffled, 3);
+
+        for (int shard = 0; shard < 3; shard++) {
+            Assert.assertEquals(actual.getTests(shard), expected.getTests(shard), "Tests of shard " + shard);
+            Assert.assertEquals(actual.getPredictedMillis(shard), expected.getPredictedMillis(shard),
+                    "Predicted duration of shard " + shard);
+        }
+    }
+
+    @Test(description = "Every test lands in exactly one shard")
+    public void testEveryTestAssignedOnce() {
+        ShardPlan plan = ShardPlanner.plan(TESTS, 3);
+
+        List<String> assigned = new ArrayList<>();
+        for (int shard = 0; shard < plan.getShardCount(); shard++) {
+            assigned.addAll(plan.getTests(shard));
+        }
+        Collections.sort(assigned);
+        List<String> expected = new ArrayList<>(TESTS);
+        Collections.sort(expected);
+        Assert.assertEquals(assigned, expected);
+        Assert.assertEquals(plan.shardOf("unit.Unknown.test"), -1, "Tests outside the plan have no shard");
+    }
+
+    @Test(description = "Without history the shards get equal method counts")
+    public void testBalancedWithoutHistory() {
+        ShardPlan plan = ShardPlanner.plan(TESTS, 3);
+        for (int shard = 0; shard < 3; shard++) {
+            int size = plan.getTests(shard).size();
+            Assert.assertTrue(size == 2 || size == 3, "Shard " + shard + " has " + size + " tests");
+        }
+    }
+
+    @Test(description = "A single shard runs everything")
+    public void testSingleShard() {
+        ShardPlan plan = ShardPlanner.plan(TESTS, 1);
+        Assert.assertEquals(plan.getTests(0).size(), TESTS.size());
+    }
+
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void testRejectsZeroShards() {
+        ShardPlanner.plan(TESTS, 0);
+    }
+}